@@ -2,6 +2,7 @@ package libs.errs;
 
 import jakarta.servlet.http.HttpServletRequest;
 import org.slf4j.Logger;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -13,18 +14,24 @@ import static org.slf4j.LoggerFactory.getLogger;
 public class RestResponseEntityExceptionHandler {
     private static final Logger log = getLogger(RestResponseEntityExceptionHandler.class);
 
+    @ExceptionHandler(value = {OptimisticLockingFailureException.class})
+    protected ResponseEntity<ErrorInfoDto> handleConflicts(OptimisticLockingFailureException e, HttpServletRequest request) {
+        log.info("Concurrent modification while executing REST request: {}", e.getMessage());
+        return error(request.getRequestURI(), e, HttpStatus.CONFLICT);
+    }
+
     @ExceptionHandler(value = {RuntimeException.class})
     protected ResponseEntity<ErrorInfoDto> handleBasicExceptions(RuntimeException e, HttpServletRequest request) {
         log.warn("Error executing REST request", e);
-        return error(request.getRequestURI(), e);
+        return error(request.getRequestURI(), e, HttpStatus.BAD_REQUEST);
 
     }
 
-    private ResponseEntity<ErrorInfoDto> error(String uri, RuntimeException e) {
+    private ResponseEntity<ErrorInfoDto> error(String uri, RuntimeException e, HttpStatus status) {
         ErrorInfoDto errorInfoDto = ErrorInfoDtoBuilder.errorInfoDto()
                 .uri(uri)
                 .exception(e.getMessage())
                 .build();
-        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorInfoDto);
+        return ResponseEntity.status(status).body(errorInfoDto);
     }
 }
\ No newline at end of file
@@ -0,0 +1,34 @@
+package microarch.delivery.application;
+
+import microarch.delivery.domain.model.Id;
+import org.springframework.util.Assert;
+
+/**
+ * A committed change of an aggregate, possibly made by another node.
+ *
+ * @param version version stored in the database after the change, {@link #DELETED} for a deleted aggregate,
+ *                {@link #UNVERSIONED} for a change that did not bump the version, such as a tracked courier position
+ */
+public record AggregateChange(AggregateType type, Id id, long version) {
+
+    public static final long DELETED = Long.MAX_VALUE;
+    public static final long UNVERSIONED = -1;
+
+    public AggregateChange {
+        Assert.notNull(type, "type must be not null");
+        Assert.notNull(id, "id must be not null");
+    }
+
+    public boolean isDeleted() {
+        return version == DELETED;
+    }
+
+    public boolean isUnversioned() {
+        return version == UNVERSIONED;
+    }
+
+    public enum AggregateType {
+        COURIER,
+        ORDER
+    }
+}
@@ -0,0 +1,20 @@
+package microarch.delivery.application;
+
+import java.util.List;
+
+/**
+ * Receives committed aggregate changes to keep local caches and indexes up to date.
+ */
+public interface AggregateChangeListener {
+
+    /**
+     * Called with a batch of changes, at most one per aggregate carrying its latest version.
+     */
+    void onChanges(List<AggregateChange> changes);
+
+    /**
+     * Called when changes may have been missed, for example after a lost connection.
+     * Everything derived from the database must be reloaded.
+     */
+    void onResync();
+}
@@ -0,0 +1,17 @@
+package microarch.delivery.application;
+
+import microarch.delivery.domain.model.Id;
+import microarch.delivery.domain.model.Location;
+
+/**
+ * Persists courier positions reported by tracking, separately from the courier aggregate.
+ * Positions are written without bumping the courier version and may become visible with a delay;
+ * other nodes are told through a {@code courier:<id>:location} change notification.
+ * <p>
+ * It is the port for a tracking adapter. The simulation does not use it: it reads positions back on
+ * the next tick and must see them at once.
+ */
+public interface CourierLocationWriter {
+
+    void updateLocation(Id courierId, Location location);
+}
@@ -1,10 +1,12 @@
 package microarch.delivery.application;
 
 import microarch.delivery.domain.model.Id;
+import microarch.delivery.domain.model.Zone;
 import microarch.delivery.domain.model.courier.Courier;
 import org.jmolecules.ddd.types.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface CourierRepository extends Repository<Courier, Id> {
@@ -12,7 +14,27 @@ public interface CourierRepository extends Repository<Courier, Id> {
     @Transactional(rollbackFor = Exception.class)
     Courier save(Courier courier);
 
+    @Transactional(rollbackFor = Exception.class)
+    List<Courier> saveAll(Collection<Courier> couriers);
+
     Courier findById(Id courierId);
 
     List<Courier> getFreeCouriers();
+
+    /**
+     * Returns free couriers currently located in {@code zone}.
+     */
+    List<Courier> getFreeCouriers(Zone zone);
+
+    /**
+     * Returns couriers carrying at least one order.
+     */
+    List<Courier> getBusyCouriers();
+
+    /**
+     * Returns the next page of couriers ordered by id.
+     *
+     * @param after id of the last courier of the previous page or {@code null} for the first page
+     */
+    List<Courier> getCouriers(Id after, int limit);
 }
\ No newline at end of file
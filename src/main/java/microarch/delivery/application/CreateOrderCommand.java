@@ -0,0 +1,16 @@
+package microarch.delivery.application;
+
+import microarch.delivery.domain.model.Location;
+import org.springframework.util.Assert;
+
+/**
+ * Request to create an order, identified by the key of the message that carried it.
+ */
+public record CreateOrderCommand(String messageKey, Location location, int volume) {
+
+    public CreateOrderCommand {
+        Assert.hasText(messageKey, "messageKey must be not empty");
+        Assert.notNull(location, "location must be not null");
+        Assert.isTrue(volume > 0, "volume must greater then 0");
+    }
+}
@@ -0,0 +1,15 @@
+package microarch.delivery.application;
+
+import microarch.delivery.domain.model.Location;
+
+/**
+ * Resolves street addresses into grid locations.
+ */
+public interface GeoClient {
+
+    /**
+     * @throws UnresolvableAddressException if the address does not exist or is invalid
+     * @throws GeoLookupException if the address cannot be resolved right now
+     */
+    Location getLocation(String street);
+}
@@ -0,0 +1,13 @@
+package microarch.delivery.application;
+
+/**
+ * Raised when the geo service cannot resolve an address: it failed, timed out or is cut off
+ * by the circuit breaker. An address the service itself rejects is reported as the
+ * {@link UnresolvableAddressException} subclass.
+ */
+public class GeoLookupException extends RuntimeException {
+
+    public GeoLookupException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
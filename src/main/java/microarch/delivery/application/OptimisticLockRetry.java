@@ -0,0 +1,114 @@
+package microarch.delivery.application;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.Assert;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+import static org.slf4j.LoggerFactory.getLogger;
+
+/**
+ * Runs a use case again when it loses an optimistic locking race.
+ * <p>
+ * Every attempt runs in its own transaction, and the command is called again from scratch. So the
+ * command must load the aggregates it changes itself; it must not capture them from the caller.
+ * Attempts are separated by an exponential backoff with full jitter, which spreads contending
+ * writers instead of letting them collide again. After {@code maxAttempts} the conflict is rethrown.
+ * <p>
+ * Every conflict is counted in {@code delivery.optimistic.lock.conflicts}, tagged by aggregate type
+ * and by whether it was retried or exhausted the attempts.
+ */
+@Service
+public class OptimisticLockRetry {
+
+    static final String CONFLICTS_METER = "delivery.optimistic.lock.conflicts";
+
+    private static final Logger log = getLogger(OptimisticLockRetry.class);
+
+    private final TransactionOperations transactionOperations;
+    private final MeterRegistry meterRegistry;
+    private final int maxAttempts;
+    private final long initialBackoffNanos;
+    private final long maxBackoffNanos;
+
+    public OptimisticLockRetry(TransactionOperations transactionOperations,
+                               MeterRegistry meterRegistry,
+                               @Value("${delivery.retry.max-attempts:5}") int maxAttempts,
+                               @Value("${delivery.retry.initial-backoff:10ms}") Duration initialBackoff,
+                               @Value("${delivery.retry.max-backoff:500ms}") Duration maxBackoff) {
+        Assert.notNull(transactionOperations, "transactionOperations must be not null");
+        Assert.notNull(meterRegistry, "meterRegistry must be not null");
+        Assert.isTrue(maxAttempts > 0, "maxAttempts must greater then 0");
+        Assert.isTrue(initialBackoff != null && initialBackoff.isPositive(), "initialBackoff must greater then 0");
+        Assert.isTrue(maxBackoff != null && maxBackoff.compareTo(initialBackoff) >= 0,
+                "maxBackoff must be not less then initialBackoff");
+        this.transactionOperations = transactionOperations;
+        this.meterRegistry = meterRegistry;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoffNanos = initialBackoff.toNanos();
+        this.maxBackoffNanos = maxBackoff.toNanos();
+    }
+
+    public <T> T execute(Supplier<T> command) {
+        Assert.notNull(command, "command must be not null");
+        Assert.state(!TransactionSynchronizationManager.isActualTransactionActive(),
+                "retry must start outside of a transaction");
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionOperations.execute(status -> command.get());
+            } catch (OptimisticLockingFailureException e) {
+                String aggregateType = aggregateType(e);
+                if (attempt >= maxAttempts) {
+                    meterRegistry.counter(CONFLICTS_METER, "aggregate", aggregateType, "outcome", "exhausted").increment();
+                    throw e;
+                }
+                meterRegistry.counter(CONFLICTS_METER, "aggregate", aggregateType, "outcome", "retried").increment();
+                log.debug("Attempt {} of {} lost an optimistic locking race: {}", attempt, maxAttempts, e.getMessage());
+                sleep(backoff(attempt), e);
+            }
+        }
+    }
+
+    public void execute(Runnable command) {
+        Assert.notNull(command, "command must be not null");
+        execute(() -> {
+            command.run();
+            return null;
+        });
+    }
+
+    /**
+     * Random delay between zero and the exponentially growing cap, "full jitter".
+     */
+    long backoff(int attempt) {
+        long cap = initialBackoffNanos << Math.min(attempt - 1, 30);
+        if (cap <= 0 || cap > maxBackoffNanos) {
+            cap = maxBackoffNanos;
+        }
+        return ThreadLocalRandom.current().nextLong(cap + 1);
+    }
+
+    private static void sleep(long nanos, OptimisticLockingFailureException conflict) {
+        try {
+            Thread.sleep(Duration.ofNanos(nanos));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw conflict;
+        }
+    }
+
+    private static String aggregateType(OptimisticLockingFailureException e) {
+        return e instanceof VersionConflictException conflict
+                ? conflict.getAggregateType().toLowerCase(Locale.ROOT)
+                : "unknown";
+    }
+}
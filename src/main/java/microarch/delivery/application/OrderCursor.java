@@ -0,0 +1,23 @@
+package microarch.delivery.application;
+
+import microarch.delivery.domain.model.Id;
+import microarch.delivery.domain.model.order.Order;
+import org.springframework.util.Assert;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Position of an order in the {@code (created_at, id)} keyset used for paging.
+ */
+public record OrderCursor(OffsetDateTime createdAt, Id id) {
+
+    public OrderCursor {
+        Assert.notNull(createdAt, "createdAt must be not null");
+        Assert.notNull(id, "id must be not null");
+    }
+
+    public static OrderCursor after(Order order) {
+        Assert.notNull(order, "order must be not null");
+        return new OrderCursor(order.getCreatedAt(), order.getId());
+    }
+}
@@ -0,0 +1,19 @@
+package microarch.delivery.application;
+
+import microarch.delivery.domain.model.Id;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Remembers the incoming messages that already created an order, so that redeliveries create nothing.
+ */
+public interface OrderInbox {
+
+    /**
+     * Records message keys together with the orders created for them.
+     *
+     * @return keys that were not recorded before
+     */
+    Set<String> register(Map<String, Id> orderIdsByKey);
+}
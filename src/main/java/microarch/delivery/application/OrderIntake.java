@@ -0,0 +1,56 @@
+package microarch.delivery.application;
+
+import microarch.delivery.domain.model.Id;
+import microarch.delivery.domain.model.order.Order;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.Assert;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Creates orders for a batch of incoming commands in one transaction. Commands whose message key
+ * was already processed, in this batch or an earlier one, are skipped.
+ */
+@Service
+public class OrderIntake {
+
+    private final OrderRepository orderRepository;
+    private final OrderInbox orderInbox;
+
+    public OrderIntake(OrderRepository orderRepository, OrderInbox orderInbox) {
+        Assert.notNull(orderRepository, "orderRepository must be not null");
+        Assert.notNull(orderInbox, "orderInbox must be not null");
+        this.orderRepository = orderRepository;
+        this.orderInbox = orderInbox;
+    }
+
+    /**
+     * @return number of created orders
+     */
+    @Transactional(rollbackFor = Exception.class)
+    public int accept(List<CreateOrderCommand> commands) {
+        Assert.notNull(commands, "commands must be not null");
+        Map<String, Order> ordersByKey = new LinkedHashMap<>();
+        for (CreateOrderCommand command : commands) {
+            ordersByKey.computeIfAbsent(command.messageKey(), key -> Order.create(command.location(), command.volume()));
+        }
+        if (ordersByKey.isEmpty()) {
+            return 0;
+        }
+
+        Map<String, Id> orderIdsByKey = new LinkedHashMap<>();
+        ordersByKey.forEach((key, order) -> orderIdsByKey.put(key, order.getId()));
+        Set<String> newKeys = orderInbox.register(orderIdsByKey);
+
+        List<Order> orders = ordersByKey.entrySet().stream()
+                .filter(entry -> newKeys.contains(entry.getKey()))
+                .map(Map.Entry::getValue)
+                .toList();
+        orderRepository.saveAll(orders);
+        return orders.size();
+    }
+}
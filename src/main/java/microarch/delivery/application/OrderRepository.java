@@ -1,21 +1,58 @@
 package microarch.delivery.application;
 
 import microarch.delivery.domain.model.Id;
+import microarch.delivery.domain.model.Zone;
 import microarch.delivery.domain.model.order.Order;
 import microarch.delivery.domain.model.order.OrderStatus;
 import org.jmolecules.ddd.types.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
+import java.util.Collection;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface OrderRepository extends Repository<Order, Id> {
 
     @Transactional(rollbackFor = Exception.class)
     Order save(Order order);
 
+    @Transactional(rollbackFor = Exception.class)
+    List<Order> saveAll(Collection<Order> orders);
+
     Order findById(Id orderId);
 
     Order getNewCreatedOrder();
 
+    List<Order> getCreatedOrders(int limit);
+
+    /**
+     * Leases up to {@code limit} CREATED orders to {@code owner}, oldest first.
+     * Orders leased by someone else are skipped until their lease expires.
+     */
+    @Transactional(rollbackFor = Exception.class)
+    List<Order> claimCreatedOrders(String owner, int limit, Duration leaseTimeout);
+
+    /**
+     * Same as {@link #claimCreatedOrders(String, int, Duration)} for orders located in {@code zone}.
+     */
+    @Transactional(rollbackFor = Exception.class)
+    List<Order> claimCreatedOrders(String owner, int limit, Duration leaseTimeout, Zone zone);
+
+    long countCreatedOrders();
+
     List<Order> getOrdersByStatus(OrderStatus orderStatus);
+
+    /**
+     * Streams orders with the given status to {@code action} without loading them all into memory.
+     */
+    @Transactional(readOnly = true)
+    void forEachOrderByStatus(OrderStatus orderStatus, Consumer<Order> action);
+
+    /**
+     * Returns the next page of orders with the given status ordered by creation time and id.
+     *
+     * @param after cursor of the last order of the previous page or {@code null} for the first page
+     */
+    List<Order> getOrdersByStatus(OrderStatus orderStatus, OrderCursor after, int limit);
 }
@@ -0,0 +1,110 @@
+package microarch.delivery.application;
+
+import microarch.delivery.domain.model.Id;
+import microarch.delivery.domain.model.courier.Courier;
+import microarch.delivery.domain.model.courier.StoragePlace;
+import microarch.delivery.domain.model.order.Order;
+import microarch.delivery.domain.model.order.OrderStatus;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.Assert;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Advances the delivery simulation by one step: every courier carrying orders moves one step towards
+ * its nearest order and completes the orders at its new location.
+ * <p>
+ * Couriers are split into partitions by id and the partitions are advanced in parallel. A courier and
+ * its orders are only touched by the thread of its partition. All changes are saved in one transaction;
+ * couriers the tick left as they were are not written.
+ */
+@Service
+public class SimulationTick {
+
+    private final CourierRepository courierRepository;
+    private final OrderRepository orderRepository;
+    private final int partitions;
+
+    public SimulationTick(CourierRepository courierRepository,
+                          OrderRepository orderRepository,
+                          @Value("${delivery.simulation.partitions:0}") int partitions) {
+        Assert.notNull(courierRepository, "courierRepository must be not null");
+        Assert.notNull(orderRepository, "orderRepository must be not null");
+        Assert.isTrue(partitions >= 0, "partitions must be not negative");
+        this.courierRepository = courierRepository;
+        this.orderRepository = orderRepository;
+        this.partitions = partitions > 0 ? partitions : Runtime.getRuntime().availableProcessors();
+    }
+
+    @Transactional(rollbackFor = Exception.class)
+    public Result tick() {
+        List<Courier> couriers = courierRepository.getBusyCouriers();
+        Map<Id, Order> assignedOrders = orderRepository.getOrdersByStatus(OrderStatus.ASSIGNED).stream()
+                .collect(Collectors.toMap(Order::getId, Function.identity()));
+
+        List<List<Courier>> byPartition = new ArrayList<>(partitions);
+        for (int i = 0; i < partitions; i++) {
+            byPartition.add(new ArrayList<>());
+        }
+        for (Courier courier : couriers) {
+            byPartition.get((int) Math.floorMod(courier.getId().id(), (long) partitions)).add(courier);
+        }
+
+        List<Order> completedOrders = IntStream.range(0, partitions).parallel()
+                .mapToObj(i -> advance(byPartition.get(i), assignedOrders))
+                .flatMap(List::stream)
+                .toList();
+
+        courierRepository.saveAll(couriers.stream().filter(SimulationTick::isChanged).toList());
+        orderRepository.saveAll(completedOrders);
+        return new Result(couriers.size(), completedOrders.size());
+    }
+
+    private static List<Order> advance(List<Courier> couriers, Map<Id, Order> assignedOrders) {
+        List<Order> completed = new ArrayList<>();
+        for (Courier courier : couriers) {
+            List<Order> carried = courier.getStoragePlaces().stream()
+                    .map(StoragePlace::getOrderId)
+                    .filter(orderId -> orderId != null && assignedOrders.containsKey(orderId))
+                    .map(assignedOrders::get)
+                    .toList();
+            if (carried.isEmpty()) {
+                continue;
+            }
+            Order target = carried.stream()
+                    .min(Comparator.comparingInt((Order order) -> courier.getLocation().distanceTo(order.getLocation()))
+                            .thenComparing(Order::getId))
+                    .orElseThrow();
+            courier.move(target.getLocation());
+            for (Order order : carried) {
+                if (order.getLocation().equals(courier.getLocation())) {
+                    order.complete();
+                    courier.completeOrder(order);
+                    completed.add(order);
+                }
+            }
+        }
+        return completed;
+    }
+
+    private static boolean isChanged(Courier courier) {
+        return courier.isLocationChanged()
+                || !courier.getChangedStoragePlaces().isEmpty()
+                || !courier.getAddedStoragePlaces().isEmpty();
+    }
+
+    /**
+     * @param couriers number of couriers that carried orders
+     * @param completedOrders number of orders delivered in this tick
+     */
+    public record Result(int couriers, int completedOrders) {
+    }
+}
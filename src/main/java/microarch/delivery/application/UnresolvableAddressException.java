@@ -0,0 +1,12 @@
+package microarch.delivery.application;
+
+/**
+ * Raised when the geo service answered that an address does not exist or is invalid. Unlike other
+ * {@link GeoLookupException}s, asking again gives the same answer.
+ */
+public class UnresolvableAddressException extends GeoLookupException {
+
+    public UnresolvableAddressException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,42 @@
+package microarch.delivery.application;
+
+import microarch.delivery.domain.model.Id;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import java.util.List;
+
+/**
+ * Raised when aggregates were changed by someone else since they were loaded.
+ * Carries the ids of every aggregate of the batch that failed the version check.
+ */
+public class VersionConflictException extends OptimisticLockingFailureException {
+
+    private final String aggregateType;
+    private final List<Id> conflictingIds;
+
+    public VersionConflictException(String aggregateType, List<Id> conflictingIds) {
+        super(message(aggregateType, conflictingIds));
+        this.aggregateType = aggregateType;
+        this.conflictingIds = List.copyOf(conflictingIds);
+    }
+
+    public VersionConflictException(String aggregateType, List<Id> conflictingIds, Throwable cause) {
+        super(message(aggregateType, conflictingIds), cause);
+        this.aggregateType = aggregateType;
+        this.conflictingIds = List.copyOf(conflictingIds);
+    }
+
+    public String getAggregateType() {
+        return aggregateType;
+    }
+
+    public List<Id> getConflictingIds() {
+        return conflictingIds;
+    }
+
+    private static String message(String aggregateType, List<Id> conflictingIds) {
+        return conflictingIds.size() == 1
+                ? aggregateType + " " + conflictingIds.get(0) + " was modified concurrently"
+                : aggregateType + "s " + conflictingIds + " were modified concurrently";
+    }
+}
@@ -0,0 +1,133 @@
+package microarch.delivery.application;
+
+import libs.common.Timex;
+import microarch.delivery.domain.model.Zone;
+import microarch.delivery.domain.model.courier.Courier;
+import microarch.delivery.domain.model.order.Order;
+import microarch.delivery.domain.services.OrderAssignment;
+import microarch.delivery.domain.services.OrderDispatcher;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.Assert;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import static microarch.delivery.domain.model.order.OrderStatus.CREATED;
+
+/**
+ * Dispatches one batch of CREATED orders located in a zone to the free couriers of the same zone.
+ * <p>
+ * A run first takes the zone through {@link ZoneLock}, so only one node at a time touches its orders
+ * and free couriers and optimistic locking conflicts between nodes do not happen. Orders the zone
+ * couriers cannot take are offered to couriers of the other zones that can be locked as well,
+ * nearest zones first, so a backlog is served even when the only free couriers are several zones away;
+ * a zone owned by another node is skipped. Claimed orders nobody could take stay leased,
+ * which keeps them out of the next batches until the lease expires.
+ */
+@Service
+public class ZoneDispatch {
+
+    private final OrderRepository orderRepository;
+    private final CourierRepository courierRepository;
+    private final OrderDispatcher orderDispatcher;
+    private final ZoneLock zoneLock;
+    private final List<Zone> zones;
+    private final String owner;
+    private final int batchSize;
+    private final Duration leaseTimeout;
+
+    public ZoneDispatch(OrderRepository orderRepository,
+                        CourierRepository courierRepository,
+                        OrderDispatcher orderDispatcher,
+                        ZoneLock zoneLock,
+                        @Value("${delivery.dispatch.zones:4}") int zones,
+                        @Value("${delivery.dispatch.owner:${random.uuid}}") String owner,
+                        @Value("${delivery.dispatch.batch-size:500}") int batchSize,
+                        @Value("${delivery.dispatch.lease-timeout:30s}") Duration leaseTimeout) {
+        Assert.notNull(orderRepository, "orderRepository must be not null");
+        Assert.notNull(courierRepository, "courierRepository must be not null");
+        Assert.notNull(orderDispatcher, "orderDispatcher must be not null");
+        Assert.notNull(zoneLock, "zoneLock must be not null");
+        Assert.hasText(owner, "owner must be not empty");
+        Assert.isTrue(batchSize > 0, "batchSize must greater then 0");
+        Assert.notNull(leaseTimeout, "leaseTimeout must be not null");
+        this.orderRepository = orderRepository;
+        this.courierRepository = courierRepository;
+        this.orderDispatcher = orderDispatcher;
+        this.zoneLock = zoneLock;
+        this.zones = Zone.split(zones);
+        this.owner = owner;
+        this.batchSize = batchSize;
+        this.leaseTimeout = leaseTimeout;
+    }
+
+    public List<Zone> zones() {
+        return zones;
+    }
+
+    @Transactional(rollbackFor = Exception.class)
+    public Result dispatch(Zone zone) {
+        Assert.notNull(zone, "zone must be not null");
+        Assert.isTrue(zones.contains(zone), "zone must be one of the configured zones");
+        if (!zoneLock.tryAcquire(zone)) {
+            return Result.NOT_OWNED;
+        }
+        List<Order> orders = orderRepository.claimCreatedOrders(owner, batchSize, leaseTimeout, zone);
+        if (orders.isEmpty()) {
+            return new Result(true, 0, 0, Duration.ZERO);
+        }
+        Duration lag = Duration.between(orders.get(0).getCreatedAt(), Timex.currentOffsetDateTime());
+
+        List<OrderAssignment> assignments = new ArrayList<>(
+                orderDispatcher.dispatchAll(orders, courierRepository.getFreeCouriers(zone)));
+        if (assignments.size() < orders.size()) {
+            assignments.addAll(dispatchToOtherZones(zone, orders));
+        }
+        save(assignments);
+        return new Result(true, orders.size(), assignments.size(), lag);
+    }
+
+    private List<OrderAssignment> dispatchToOtherZones(Zone zone, List<Order> orders) {
+        List<OrderAssignment> assignments = new ArrayList<>();
+        for (int distance = 1; distance < zones.size(); distance++) {
+            for (int index : new int[]{zone.index() - distance, zone.index() + distance}) {
+                List<Order> remaining = orders.stream().filter(order -> order.getStatus() == CREATED).toList();
+                if (remaining.isEmpty()) {
+                    return assignments;
+                }
+                if (index < 0 || index >= zones.size() || !zoneLock.tryAcquire(zones.get(index))) {
+                    continue;
+                }
+                assignments.addAll(orderDispatcher.dispatchAll(remaining, courierRepository.getFreeCouriers(zones.get(index))));
+            }
+        }
+        return assignments;
+    }
+
+    private void save(List<OrderAssignment> assignments) {
+        List<Order> assignedOrders = new ArrayList<>(assignments.size());
+        Set<Courier> changedCouriers = new LinkedHashSet<>();
+        for (OrderAssignment assignment : assignments) {
+            assignedOrders.add(assignment.order());
+            changedCouriers.add(assignment.courier());
+        }
+        orderRepository.saveAll(assignedOrders);
+        courierRepository.saveAll(changedCouriers);
+    }
+
+    /**
+     * @param owned whether the zone was taken by this run; other fields are zero otherwise
+     * @param claimed number of orders taken from the zone backlog
+     * @param assigned number of orders assigned to a courier
+     * @param lag age of the oldest claimed order
+     */
+    public record Result(boolean owned, int claimed, int assigned, Duration lag) {
+
+        public static final Result NOT_OWNED = new Result(false, 0, 0, Duration.ZERO);
+    }
+}
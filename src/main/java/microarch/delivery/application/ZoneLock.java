@@ -0,0 +1,16 @@
+package microarch.delivery.application;
+
+import microarch.delivery.domain.model.Zone;
+
+/**
+ * Cluster-wide exclusive ownership of a zone, held until the surrounding transaction ends.
+ */
+public interface ZoneLock {
+
+    /**
+     * Takes the zone without waiting.
+     *
+     * @return {@code true} if the current transaction owns the zone, {@code false} if another one holds it
+     */
+    boolean tryAcquire(Zone zone);
+}
@@ -8,8 +8,8 @@ import org.springframework.util.Assert;
 @Builder(buildMethod = "copy")
 public record Location(int x, int y) {
 
-    private static final int MIN_VALUE = 1;
-    private static final int MAX_VALUE = 10;
+    public static final int MIN_VALUE = 1;
+    public static final int MAX_VALUE = 10;
 
     public Location {
         Assert.isTrue(x >= MIN_VALUE && x <= MAX_VALUE,
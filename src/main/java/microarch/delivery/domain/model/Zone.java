@@ -0,0 +1,48 @@
+package microarch.delivery.domain.model;
+
+import org.jmolecules.ddd.annotation.ValueObject;
+import org.springframework.util.Assert;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static microarch.delivery.domain.model.Location.MAX_VALUE;
+import static microarch.delivery.domain.model.Location.MIN_VALUE;
+
+/**
+ * Rectangular region of the location grid, bounds inclusive.
+ */
+@ValueObject
+public record Zone(int index, int minX, int maxX, int minY, int maxY) {
+
+    public Zone {
+        Assert.isTrue(index >= 0, "index must be not negative");
+        Assert.isTrue(minX >= MIN_VALUE && maxX <= MAX_VALUE && minX <= maxX, "x bounds must lie within the grid");
+        Assert.isTrue(minY >= MIN_VALUE && maxY <= MAX_VALUE && minY <= maxY, "y bounds must lie within the grid");
+    }
+
+    public static Zone wholeGrid() {
+        return new Zone(0, MIN_VALUE, MAX_VALUE, MIN_VALUE, MAX_VALUE);
+    }
+
+    /**
+     * Splits the grid into {@code count} vertical strips of nearly equal width.
+     */
+    public static List<Zone> split(int count) {
+        int columns = MAX_VALUE - MIN_VALUE + 1;
+        Assert.isTrue(count > 0 && count <= columns, "count must be between 1 and " + columns);
+        List<Zone> zones = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int minX = MIN_VALUE + i * columns / count;
+            int maxX = MIN_VALUE + (i + 1) * columns / count - 1;
+            zones.add(new Zone(i, minX, maxX, MIN_VALUE, MAX_VALUE));
+        }
+        return zones;
+    }
+
+    public boolean contains(Location location) {
+        Assert.notNull(location, "location must be not null");
+        return location.x() >= minX && location.x() <= maxX
+                && location.y() >= minY && location.y() <= maxY;
+    }
+}
@@ -11,13 +11,15 @@ import microarch.delivery.domain.model.order.Order;
 import org.springframework.util.Assert;
 
 import java.time.OffsetDateTime;
+import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static microarch.delivery.domain.model.courier.StoragePlaceType.BACKPACK;
 
-@Builder
 public class Courier implements AggregateRoot<Courier, Id> {
 
     private final Id id;
@@ -32,7 +34,11 @@ public class Courier implements AggregateRoot<Courier, Id> {
     @Nullable
     private String modifiedBy;
     private long version;
+    private boolean locationChanged;
+    private final Set<StoragePlace> addedStoragePlaces = new LinkedHashSet<>();
+    private final Set<StoragePlace> changedStoragePlaces = new LinkedHashSet<>();
 
+    @Builder
     public Courier(Id id,
                    String name,
                    int speed,
@@ -59,13 +65,15 @@ public class Courier implements AggregateRoot<Courier, Id> {
         Assert.hasText(name, "name must be not empty");
         Assert.isTrue(speed > 0, "speed must greater then 0");
         Assert.notNull(location, "location must be not null");
-        List<StoragePlace> storagePlaces = List.of(StoragePlace.create(BACKPACK));
+        List<StoragePlace> storagePlaces = new ArrayList<>(List.of(StoragePlace.create(BACKPACK)));
 
         return new Courier(Id.generate(), name, speed, location, storagePlaces, Timex.currentOffsetDateTime(), "default", null, null, 0);
     }
 
     public Courier addStoragePlace(StoragePlaceType storagePlaceType) {
-        storagePlaces.add(StoragePlace.create(storagePlaceType));
+        StoragePlace storagePlace = StoragePlace.create(storagePlaceType);
+        storagePlaces.add(storagePlace);
+        addedStoragePlaces.add(storagePlace);
         this.modifiedAt = Timex.currentOffsetDateTime();
         this.modifiedBy = "default";
         return this;
@@ -87,6 +95,7 @@ public class Courier implements AggregateRoot<Courier, Id> {
                 .orElseThrow(() -> new IllegalStateException("No suitable storage place found"));
 
         bestPlace.putOrder(order.getId(), order.getVolume());
+        markChanged(bestPlace);
         this.modifiedAt = Timex.currentOffsetDateTime();
         this.modifiedBy = "default";
         return this;
@@ -94,16 +103,16 @@ public class Courier implements AggregateRoot<Courier, Id> {
 
     public void completeOrder(Order order) {
         Assert.notNull(order, "order must be not null");
-        Assert.isTrue(this.id == order.getCourierId(), "Courier cannot complete order assigned to another courier");
-        findStorageByOrderId(order.getId()).ifPresent(StoragePlace::clear);
+        Assert.isTrue(this.id.equals(order.getCourierId()), "Courier cannot complete order assigned to another courier");
+        findStorageByOrderId(order.getId()).ifPresent(this::clear);
         this.modifiedAt = Timex.currentOffsetDateTime();
         this.modifiedBy = "default";
     }
 
     public void terminateOrder(Order order) {
         Assert.notNull(order, "order must be not null");
-        Assert.isTrue(this.id == order.getCourierId(), "Courier cannot terminate order assigned to another courier");
-        findStorageByOrderId(order.getId()).ifPresent(StoragePlace::clear);
+        Assert.isTrue(this.id.equals(order.getCourierId()), "Courier cannot terminate order assigned to another courier");
+        findStorageByOrderId(order.getId()).ifPresent(this::clear);
         this.modifiedAt = Timex.currentOffsetDateTime();
         this.modifiedBy = "default";
     }
@@ -138,17 +147,30 @@ public class Courier implements AggregateRoot<Courier, Id> {
             remaining -= takeY;
         }
 
-        this.location = Location.create(location.x() + stepX, location.y() + stepY);
+        Location newLocation = Location.create(location.x() + stepX, location.y() + stepY);
+        this.locationChanged |= !newLocation.equals(location);
+        this.location = newLocation;
         this.modifiedAt = Timex.currentOffsetDateTime();
         this.modifiedBy = "default";
     }
 
     private Optional<StoragePlace> findStorageByOrderId(Id orderId) {
         return storagePlaces.stream()
-                .filter(storagePlace -> storagePlace.getOrderId() == orderId)
+                .filter(storagePlace -> orderId.equals(storagePlace.getOrderId()))
                 .findFirst();
     }
 
+    private void clear(StoragePlace storagePlace) {
+        storagePlace.clear();
+        markChanged(storagePlace);
+    }
+
+    private void markChanged(StoragePlace storagePlace) {
+        if (!addedStoragePlaces.contains(storagePlace)) {
+            changedStoragePlaces.add(storagePlace);
+        }
+    }
+
     @Override
     public Id getId() {
         return id;
@@ -191,4 +213,43 @@ public class Courier implements AggregateRoot<Courier, Id> {
     public long getVersion() {
         return version;
     }
+
+    /**
+     * Called by the repository once the courier was written: the version becomes the stored one and the
+     * changes tracked since loading are forgotten, so saving the same instance again updates the row.
+     */
+    public void markPersisted() {
+        version++;
+        locationChanged = false;
+        addedStoragePlaces.clear();
+        changedStoragePlaces.clear();
+    }
+
+    /**
+     * A courier that has never been saved has version 0.
+     */
+    public boolean isNew() {
+        return version == 0;
+    }
+
+    /**
+     * Whether {@link #move(Location)} changed the location since the courier was loaded.
+     */
+    public boolean isLocationChanged() {
+        return locationChanged;
+    }
+
+    /**
+     * Storage places added since the courier was loaded.
+     */
+    public List<StoragePlace> getAddedStoragePlaces() {
+        return List.copyOf(addedStoragePlaces);
+    }
+
+    /**
+     * Storage places loaded with the courier whose content changed since then.
+     */
+    public List<StoragePlace> getChangedStoragePlaces() {
+        return List.copyOf(changedStoragePlaces);
+    }
 }
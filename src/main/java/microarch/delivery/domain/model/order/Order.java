@@ -1,6 +1,7 @@
 package microarch.delivery.domain.model.order;
 
 import libs.common.Timex;
+import libs.ddd.DomainEvent;
 import microarch.delivery.domain.model.Id;
 import microarch.delivery.domain.model.Location;
 import org.jilt.Builder;
@@ -9,8 +10,9 @@ import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 
 import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
 
-@Builder
 public class Order implements AggregateRoot<Order, Id> {
 
     private final Id id;
@@ -26,7 +28,9 @@ public class Order implements AggregateRoot<Order, Id> {
     @Nullable
     private String modifiedBy;
     private long version;
+    private final List<DomainEvent> domainEvents = new ArrayList<>();
 
+    @Builder
     public Order(Id id,
                  Location location,
                  int volume,
@@ -50,7 +54,9 @@ public class Order implements AggregateRoot<Order, Id> {
     }
 
     public static Order create(Location location, int volume) {
-        return new Order(Id.generate(), location, volume, OrderStatus.CREATED, null, Timex.currentOffsetDateTime(), "default", null, null, 0);
+        Order order = new Order(Id.generate(), location, volume, OrderStatus.CREATED, null, Timex.currentOffsetDateTime(), "default", null, null, 0);
+        order.domainEvents.add(new OrderCreatedEvent(order));
+        return order;
     }
 
     public void assign(Id courierId) {
@@ -58,11 +64,13 @@ public class Order implements AggregateRoot<Order, Id> {
         Assert.isTrue(!status.isProgressStatus(), "cannot assign order in progress or completed");
         this.status = OrderStatus.ASSIGNED;
         this.courierId = courierId;
+        domainEvents.add(new OrderAssignedEvent(this));
     }
 
     public void complete() {
         Assert.isTrue(status == OrderStatus.ASSIGNED, "only assigned orders can be completed");
         this.status = OrderStatus.COMPLETED;
+        domainEvents.add(new OrderCompletedEvent(this));
     }
 
     @Override
@@ -105,4 +113,15 @@ public class Order implements AggregateRoot<Order, Id> {
     public long getVersion() {
         return version;
     }
+
+    /**
+     * Events raised since the order was loaded; the repository stores them together with the order.
+     */
+    public List<DomainEvent> getDomainEvents() {
+        return List.copyOf(domainEvents);
+    }
+
+    public void clearDomainEvents() {
+        domainEvents.clear();
+    }
 }
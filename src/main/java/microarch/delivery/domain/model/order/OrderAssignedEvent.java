@@ -0,0 +1,24 @@
+package microarch.delivery.domain.model.order;
+
+import libs.ddd.DomainEvent;
+import microarch.delivery.domain.model.Id;
+
+public class OrderAssignedEvent extends DomainEvent {
+
+    private final Id orderId;
+    private final Id courierId;
+
+    public OrderAssignedEvent(Order order) {
+        super(order);
+        this.orderId = order.getId();
+        this.courierId = order.getCourierId();
+    }
+
+    public Id getOrderId() {
+        return orderId;
+    }
+
+    public Id getCourierId() {
+        return courierId;
+    }
+}
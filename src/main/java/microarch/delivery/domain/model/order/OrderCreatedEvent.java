@@ -0,0 +1,31 @@
+package microarch.delivery.domain.model.order;
+
+import libs.ddd.DomainEvent;
+import microarch.delivery.domain.model.Id;
+import microarch.delivery.domain.model.Location;
+
+public class OrderCreatedEvent extends DomainEvent {
+
+    private final Id orderId;
+    private final Location location;
+    private final int volume;
+
+    public OrderCreatedEvent(Order order) {
+        super(order);
+        this.orderId = order.getId();
+        this.location = order.getLocation();
+        this.volume = order.getVolume();
+    }
+
+    public Id getOrderId() {
+        return orderId;
+    }
+
+    public Location getLocation() {
+        return location;
+    }
+
+    public int getVolume() {
+        return volume;
+    }
+}
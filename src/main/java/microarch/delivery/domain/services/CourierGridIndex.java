@@ -0,0 +1,138 @@
+package microarch.delivery.domain.services;
+
+import microarch.delivery.domain.model.Location;
+import microarch.delivery.domain.model.courier.Courier;
+import microarch.delivery.domain.model.order.Order;
+import org.springframework.util.Assert;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+/**
+ * Spatial index of couriers over the {@link Location} grid.
+ * <p>
+ * Couriers are bucketed by speed and then by grid cell. The search walks rings of growing
+ * Manhattan distance around the order and stops as soon as no bucket can beat the best
+ * delivery time found so far. Ties are broken by the position in the source list, so the
+ * result is the same as a linear scan over that list.
+ * <p>
+ * The index keeps courier references, so storage capacity is always checked against the
+ * current courier state; courier locations must not change while the index is in use.
+ */
+public class CourierGridIndex {
+
+    private static final int SIZE = Location.MAX_VALUE - Location.MIN_VALUE + 1;
+    private static final int MAX_DISTANCE = 2 * (SIZE - 1);
+
+    private final List<SpeedBucket> buckets;
+
+    public CourierGridIndex(List<Courier> couriers) {
+        Assert.notNull(couriers, "couriers must be not null");
+        Map<Integer, SpeedBucket> bucketsBySpeed = new TreeMap<>(Comparator.reverseOrder());
+        for (int position = 0; position < couriers.size(); position++) {
+            Courier courier = couriers.get(position);
+            bucketsBySpeed.computeIfAbsent(courier.getSpeed(), SpeedBucket::new)
+                    .add(new Entry(position, courier));
+        }
+        this.buckets = List.copyOf(bucketsBySpeed.values());
+    }
+
+    public Optional<Courier> findFastest(Order order) {
+        Assert.notNull(order, "order must be not null");
+        Search search = new Search(order);
+        for (int distance = 0; distance <= MAX_DISTANCE; distance++) {
+            boolean reachable = false;
+            for (SpeedBucket bucket : buckets) {
+                if ((double) distance / bucket.speed > search.bestTime) {
+                    // buckets are ordered by speed, slower ones cannot do better either
+                    break;
+                }
+                reachable = true;
+                bucket.scanRing(distance, search);
+            }
+            if (!reachable) {
+                break;
+            }
+        }
+        return Optional.ofNullable(search.best).map(Entry::courier);
+    }
+
+    private static int cellIndex(int x, int y) {
+        return (x - Location.MIN_VALUE) * SIZE + (y - Location.MIN_VALUE);
+    }
+
+    private static boolean inGrid(int value) {
+        return value >= Location.MIN_VALUE && value <= Location.MAX_VALUE;
+    }
+
+    private record Entry(int position, Courier courier) {
+    }
+
+    private static final class Search {
+        private final Order order;
+        private final Location target;
+        private Entry best;
+        private double bestTime = Double.POSITIVE_INFINITY;
+
+        private Search(Order order) {
+            this.order = order;
+            this.target = order.getLocation();
+        }
+
+        private void offer(Entry entry) {
+            double time = entry.courier().calculateDeliveryTime(target);
+            boolean better = time < bestTime
+                    || (time == bestTime && (best == null || entry.position() < best.position()));
+            if (better && entry.courier().canTakeOrder(order)) {
+                best = entry;
+                bestTime = time;
+            }
+        }
+    }
+
+    private static final class SpeedBucket {
+        private final int speed;
+        private final List<List<Entry>> cells = new ArrayList<>(SIZE * SIZE);
+
+        private SpeedBucket(int speed) {
+            this.speed = speed;
+            for (int i = 0; i < SIZE * SIZE; i++) {
+                cells.add(new ArrayList<>());
+            }
+        }
+
+        private void add(Entry entry) {
+            Location location = entry.courier().getLocation();
+            cells.get(cellIndex(location.x(), location.y())).add(entry);
+        }
+
+        private void scanRing(int distance, Search search) {
+            int targetX = search.target.x();
+            int targetY = search.target.y();
+            for (int dx = -distance; dx <= distance; dx++) {
+                int x = targetX + dx;
+                if (!inGrid(x)) {
+                    continue;
+                }
+                int dy = distance - Math.abs(dx);
+                scanCell(x, targetY + dy, search);
+                if (dy != 0) {
+                    scanCell(x, targetY - dy, search);
+                }
+            }
+        }
+
+        private void scanCell(int x, int y, Search search) {
+            if (!inGrid(y)) {
+                return;
+            }
+            for (Entry entry : cells.get(cellIndex(x, y))) {
+                search.offer(entry);
+            }
+        }
+    }
+}
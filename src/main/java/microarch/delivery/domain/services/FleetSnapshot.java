@@ -0,0 +1,143 @@
+package microarch.delivery.domain.services;
+
+import microarch.delivery.domain.model.Id;
+import microarch.delivery.domain.model.courier.Courier;
+import microarch.delivery.domain.model.courier.StoragePlace;
+import microarch.delivery.domain.model.courier.StoragePlaceType;
+import org.springframework.util.Assert;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Read-only structure-of-arrays view of the courier fleet for allocation-free scoring.
+ * <p>
+ * Every courier is a row of parallel primitive arrays: id, location, speed and a bitmask of
+ * {@link StoragePlaceType} ordinals that still have a free place. Rows keep the order of the source
+ * list. After a courier changes, {@link #refresh(Courier)} rewrites only its row.
+ */
+public class FleetSnapshot {
+
+    public static final int NOT_FOUND = -1;
+
+    private static final StoragePlaceType[] PLACE_TYPES = StoragePlaceType.values();
+
+    private final Map<Id, Integer> rows;
+    private Courier[] couriers;
+    private long[] ids;
+    private int[] x;
+    private int[] y;
+    private int[] speed;
+    private int[] freePlaceMask;
+    private int size;
+
+    private FleetSnapshot(int capacity) {
+        this.rows = new HashMap<>(capacity * 2);
+        this.couriers = new Courier[capacity];
+        this.ids = new long[capacity];
+        this.x = new int[capacity];
+        this.y = new int[capacity];
+        this.speed = new int[capacity];
+        this.freePlaceMask = new int[capacity];
+    }
+
+    public static FleetSnapshot of(List<Courier> couriers) {
+        Assert.notNull(couriers, "couriers must be not null");
+        FleetSnapshot snapshot = new FleetSnapshot(Math.max(couriers.size(), 16));
+        couriers.forEach(snapshot::refresh);
+        return snapshot;
+    }
+
+    /**
+     * Rewrites the row of a known courier or appends a new one.
+     */
+    public void refresh(Courier courier) {
+        Assert.notNull(courier, "courier must be not null");
+        Integer row = rows.get(courier.getId());
+        if (row == null) {
+            ensureCapacity(size + 1);
+            row = size++;
+            rows.put(courier.getId(), row);
+        }
+        couriers[row] = courier;
+        ids[row] = courier.getId().id();
+        x[row] = courier.getLocation().x();
+        y[row] = courier.getLocation().y();
+        speed[row] = courier.getSpeed();
+        freePlaceMask[row] = freePlaceMask(courier);
+    }
+
+    /**
+     * Finds the courier with the shortest delivery time that has a free place for the volume.
+     * Delivery times are compared as cross-multiplied fractions, ties go to the earlier row.
+     *
+     * @return row of the courier or {@link #NOT_FOUND}
+     */
+    public int findFastest(int targetX, int targetY, int volume) {
+        int fittingMask = fittingPlaceMask(volume);
+        int best = NOT_FOUND;
+        long bestDistance = 0;
+        long bestSpeed = 1;
+        for (int row = 0; row < size; row++) {
+            if ((freePlaceMask[row] & fittingMask) == 0) {
+                continue;
+            }
+            long distance = Math.abs(x[row] - targetX) + Math.abs(y[row] - targetY);
+            if (best == NOT_FOUND || distance * bestSpeed < bestDistance * speed[row]) {
+                best = row;
+                bestDistance = distance;
+                bestSpeed = speed[row];
+            }
+        }
+        return best;
+    }
+
+    public Courier courierAt(int row) {
+        Assert.isTrue(row >= 0 && row < size, "row is out of snapshot bounds");
+        return couriers[row];
+    }
+
+    public long idAt(int row) {
+        Assert.isTrue(row >= 0 && row < size, "row is out of snapshot bounds");
+        return ids[row];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= couriers.length) {
+            return;
+        }
+        int newCapacity = Math.max(capacity, couriers.length * 2);
+        couriers = Arrays.copyOf(couriers, newCapacity);
+        ids = Arrays.copyOf(ids, newCapacity);
+        x = Arrays.copyOf(x, newCapacity);
+        y = Arrays.copyOf(y, newCapacity);
+        speed = Arrays.copyOf(speed, newCapacity);
+        freePlaceMask = Arrays.copyOf(freePlaceMask, newCapacity);
+    }
+
+    private static int freePlaceMask(Courier courier) {
+        int mask = 0;
+        for (StoragePlace place : courier.getStoragePlaces()) {
+            if (place.isEmpty()) {
+                mask |= 1 << place.getPlaceType().ordinal();
+            }
+        }
+        return mask;
+    }
+
+    private static int fittingPlaceMask(int volume) {
+        int mask = 0;
+        for (StoragePlaceType type : PLACE_TYPES) {
+            if (volume <= type.capacity()) {
+                mask |= 1 << type.ordinal();
+            }
+        }
+        return mask;
+    }
+}
@@ -0,0 +1,60 @@
+package microarch.delivery.domain.services;
+
+import microarch.delivery.domain.model.courier.Courier;
+import microarch.delivery.domain.model.order.Order;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.util.Assert;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static microarch.delivery.domain.model.order.OrderStatus.CREATED;
+
+/**
+ * Dispatcher that looks up the fastest courier through a {@link CourierGridIndex}
+ * instead of scoring the whole courier list. Picks the same courier as {@link OrderDispatcherImpl}.
+ */
+@Service
+@ConditionalOnProperty(name = "delivery.dispatcher.strategy", havingValue = "grid")
+public class GridOrderDispatcher implements OrderDispatcher {
+
+    @Override
+    public Courier dispatch(Order order, List<Courier> courierList) {
+        Assert.notNull(order, "order must be not null");
+        Assert.notNull(courierList, "courierList must be not null");
+        return dispatch(order, new CourierGridIndex(courierList));
+    }
+
+    /**
+     * Builds the grid index once and reuses it for every order of the batch.
+     */
+    @Override
+    public List<OrderAssignment> dispatchAll(List<Order> orders, List<Courier> courierList) {
+        Assert.notNull(orders, "orders must be not null");
+        Assert.notNull(courierList, "courierList must be not null");
+        CourierGridIndex index = new CourierGridIndex(courierList);
+
+        List<OrderAssignment> assignments = new ArrayList<>();
+        for (Order order : orders) {
+            Assert.isTrue(order.getStatus() == CREATED, "Order must be in CREATED status for dispatch");
+            index.findFastest(order).ifPresent(courier -> {
+                courier.takeOrder(order);
+                order.assign(courier.getId());
+                assignments.add(new OrderAssignment(order, courier));
+            });
+        }
+        return assignments;
+    }
+
+    Courier dispatch(Order order, CourierGridIndex index) {
+        Assert.isTrue(order.getStatus() == CREATED, "Order must be in CREATED status for dispatch");
+
+        Courier bestCourier = index.findFastest(order).orElse(null);
+        Assert.isTrue(bestCourier != null, "No available couriers capable of delivering the order");
+
+        bestCourier.takeOrder(order);
+        order.assign(bestCourier.getId());
+        return bestCourier;
+    }
+}
@@ -0,0 +1,105 @@
+package microarch.delivery.domain.services;
+
+import microarch.delivery.domain.model.courier.Courier;
+import microarch.delivery.domain.model.courier.StoragePlace;
+import microarch.delivery.domain.model.order.Order;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.util.Assert;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static microarch.delivery.domain.model.order.OrderStatus.CREATED;
+
+/**
+ * Dispatcher that assigns a whole batch of orders at once, minimising the total delivery time.
+ * <p>
+ * Every free storage place is a column of the assignment problem and every order is a row.
+ * Extra "unassigned" columns keep the problem solvable when there are fewer places than orders;
+ * their cost is higher than any delivery time, so as many orders as possible get a courier.
+ * If the solver does not finish within the time budget the batch is dispatched greedily.
+ */
+@Service
+@ConditionalOnProperty(name = "delivery.dispatcher.strategy", havingValue = "optimal")
+public class OptimalOrderDispatcher implements OrderDispatcher {
+
+    private static final double UNASSIGNED_COST = 1e6;
+    private static final double INCOMPATIBLE_COST = 1e9;
+
+    private final OrderDispatcher greedyDispatcher = new OrderDispatcherImpl();
+    private final Duration timeBudget;
+
+    public OptimalOrderDispatcher(@Value("${delivery.dispatcher.optimal.time-budget:200ms}") Duration timeBudget) {
+        Assert.notNull(timeBudget, "timeBudget must be not null");
+        this.timeBudget = timeBudget;
+    }
+
+    @Override
+    public Courier dispatch(Order order, List<Courier> courierList) {
+        return greedyDispatcher.dispatch(order, courierList);
+    }
+
+    @Override
+    public List<OrderAssignment> dispatchAll(List<Order> orders, List<Courier> courierList) {
+        Assert.notNull(orders, "orders must be not null");
+        Assert.notNull(courierList, "courierList must be not null");
+        orders.forEach(order -> Assert.isTrue(order.getStatus() == CREATED, "Order must be in CREATED status for dispatch"));
+        long deadline = System.nanoTime() + timeBudget.toNanos();
+
+        List<Slot> slots = freeSlots(courierList);
+        int columns = slots.size() + orders.size();
+        double[][] cost = new double[orders.size()][columns];
+        for (int i = 0; i < orders.size(); i++) {
+            Order order = orders.get(i);
+            for (int j = 0; j < columns; j++) {
+                cost[i][j] = j < slots.size() ? slots.get(j).cost(order) : UNASSIGNED_COST;
+            }
+        }
+
+        int[] solution = HungarianSolver.solve(cost, columns, deadline);
+        if (solution == null) {
+            return greedyDispatcher.dispatchAll(orders, courierList);
+        }
+
+        List<OrderAssignment> assignments = new ArrayList<>();
+        for (int i = 0; i < orders.size(); i++) {
+            if (cost[i][solution[i]] < UNASSIGNED_COST) {
+                assignments.add(new OrderAssignment(orders.get(i), slots.get(solution[i]).courier()));
+            }
+        }
+        // Courier.takeOrder picks the smallest fitting place itself; taking the largest orders first
+        // guarantees every order still finds the place the solver reserved for it.
+        assignments.stream()
+                .sorted(Comparator.comparingInt((OrderAssignment a) -> a.order().getVolume()).reversed())
+                .forEach(a -> {
+                    a.courier().takeOrder(a.order());
+                    a.order().assign(a.courier().getId());
+                });
+        return assignments;
+    }
+
+    private static List<Slot> freeSlots(List<Courier> couriers) {
+        List<Slot> slots = new ArrayList<>();
+        for (Courier courier : couriers) {
+            for (StoragePlace place : courier.getStoragePlaces()) {
+                if (place.isEmpty()) {
+                    slots.add(new Slot(courier, place));
+                }
+            }
+        }
+        return slots;
+    }
+
+    private record Slot(Courier courier, StoragePlace place) {
+
+        double cost(Order order) {
+            return place.canPut(order.getVolume())
+                    ? courier.calculateDeliveryTime(order.getLocation())
+                    : INCOMPATIBLE_COST;
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package microarch.delivery.domain.services;
+
+import microarch.delivery.domain.model.courier.Courier;
+import microarch.delivery.domain.model.order.Order;
+
+public record OrderAssignment(Order order, Courier courier) {
+}
@@ -3,8 +3,23 @@ package microarch.delivery.domain.services;
 import microarch.delivery.domain.model.courier.Courier;
 import microarch.delivery.domain.model.order.Order;
 
+import java.util.ArrayList;
 import java.util.List;
 
 public interface OrderDispatcher {
     Courier dispatch(Order order, List<Courier> courierList);
+
+    /**
+     * Dispatches the orders one after another against the same courier pool.
+     * Orders that no courier can take stay in CREATED status and are left out of the result.
+     */
+    default List<OrderAssignment> dispatchAll(List<Order> orders, List<Courier> courierList) {
+        List<OrderAssignment> assignments = new ArrayList<>();
+        for (Order order : orders) {
+            if (courierList.stream().anyMatch(c -> c.canTakeOrder(order))) {
+                assignments.add(new OrderAssignment(order, dispatch(order, courierList)));
+            }
+        }
+        return assignments;
+    }
 }
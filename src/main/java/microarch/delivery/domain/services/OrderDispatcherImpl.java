@@ -2,15 +2,19 @@ package microarch.delivery.domain.services;
 
 import microarch.delivery.domain.model.courier.Courier;
 import microarch.delivery.domain.model.order.Order;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
 import org.springframework.util.Assert;
 
+import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Optional;
 
 import static microarch.delivery.domain.model.order.OrderStatus.CREATED;
 
 @Service
+@ConditionalOnProperty(name = "delivery.dispatcher.strategy", havingValue = "linear", matchIfMissing = true)
 public class OrderDispatcherImpl implements OrderDispatcher {
 
     @Override
@@ -19,17 +23,37 @@ public class OrderDispatcherImpl implements OrderDispatcher {
         Assert.notNull(courierList, "courierList must be not null");
         Assert.isTrue(order.getStatus() == CREATED, "Order must be in CREATED status for dispatch");
 
-        List<Courier> availableCouriers = courierList.stream()
-                .filter(c -> c.canTakeOrder(order))
-                .toList();
-        Assert.isTrue(!availableCouriers.isEmpty(), "No available couriers capable of delivering the order");
-
-        Courier bestCourier = availableCouriers.stream()
-                .min(Comparator.comparingDouble(c -> c.calculateDeliveryTime(order.getLocation())))
-                .orElse(null);
+        Courier bestCourier = findFastest(order, courierList).orElse(null);
+        Assert.isTrue(bestCourier != null, "No available couriers capable of delivering the order");
 
         bestCourier.takeOrder(order);
         order.assign(bestCourier.getId());
         return bestCourier;
     }
+
+    /**
+     * Finds the courier for every order in a single pass over the couriers; orders nobody can take are skipped.
+     */
+    @Override
+    public List<OrderAssignment> dispatchAll(List<Order> orders, List<Courier> courierList) {
+        Assert.notNull(orders, "orders must be not null");
+        Assert.notNull(courierList, "courierList must be not null");
+
+        List<OrderAssignment> assignments = new ArrayList<>();
+        for (Order order : orders) {
+            Assert.isTrue(order.getStatus() == CREATED, "Order must be in CREATED status for dispatch");
+            findFastest(order, courierList).ifPresent(courier -> {
+                courier.takeOrder(order);
+                order.assign(courier.getId());
+                assignments.add(new OrderAssignment(order, courier));
+            });
+        }
+        return assignments;
+    }
+
+    private static Optional<Courier> findFastest(Order order, List<Courier> courierList) {
+        return courierList.stream()
+                .filter(c -> c.canTakeOrder(order))
+                .min(Comparator.comparingDouble(c -> c.calculateDeliveryTime(order.getLocation())));
+    }
 }
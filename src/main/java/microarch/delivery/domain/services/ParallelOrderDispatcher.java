@@ -0,0 +1,100 @@
+package microarch.delivery.domain.services;
+
+import microarch.delivery.domain.model.courier.Courier;
+import microarch.delivery.domain.model.order.Order;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Service;
+import org.springframework.util.Assert;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import static microarch.delivery.domain.model.order.OrderStatus.CREATED;
+
+/**
+ * Dispatcher for very large courier pools. The pool is split into chunks scored on a
+ * {@link ForkJoinPool}; pools not larger than the threshold are scored on the calling thread.
+ * Couriers with equal delivery time are ordered by {@link microarch.delivery.domain.model.Id},
+ * so the result does not depend on how the pool was split.
+ */
+@Service
+@ConditionalOnProperty(name = "delivery.dispatcher.strategy", havingValue = "parallel")
+public class ParallelOrderDispatcher implements OrderDispatcher {
+
+    private final ForkJoinPool forkJoinPool;
+    private final int threshold;
+
+    public ParallelOrderDispatcher(@Value("${delivery.dispatcher.parallel.threshold:10000}") int threshold) {
+        this(ForkJoinPool.commonPool(), threshold);
+    }
+
+    public ParallelOrderDispatcher(ForkJoinPool forkJoinPool, int threshold) {
+        Assert.notNull(forkJoinPool, "forkJoinPool must be not null");
+        Assert.isTrue(threshold > 0, "threshold must greater then 0");
+        this.forkJoinPool = forkJoinPool;
+        this.threshold = threshold;
+    }
+
+    @Override
+    public Courier dispatch(Order order, List<Courier> courierList) {
+        Assert.notNull(order, "order must be not null");
+        Assert.notNull(courierList, "courierList must be not null");
+        Assert.isTrue(order.getStatus() == CREATED, "Order must be in CREATED status for dispatch");
+
+        Comparator<Courier> byDeliveryTime = Comparator
+                .comparingDouble((Courier c) -> c.calculateDeliveryTime(order.getLocation()))
+                .thenComparing(Courier::getId);
+        BestCourierTask task = new BestCourierTask(order, byDeliveryTime, courierList, 0, courierList.size());
+        Courier bestCourier = courierList.size() <= threshold ? task.compute() : forkJoinPool.invoke(task);
+        Assert.isTrue(bestCourier != null, "No available couriers capable of delivering the order");
+
+        bestCourier.takeOrder(order);
+        order.assign(bestCourier.getId());
+        return bestCourier;
+    }
+
+    private final class BestCourierTask extends RecursiveTask<Courier> {
+
+        private final Order order;
+        private final Comparator<Courier> comparator;
+        private final List<Courier> couriers;
+        private final int from;
+        private final int to;
+
+        private BestCourierTask(Order order, Comparator<Courier> comparator, List<Courier> couriers, int from, int to) {
+            this.order = order;
+            this.comparator = comparator;
+            this.couriers = couriers;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        @Nullable
+        protected Courier compute() {
+            if (to - from <= threshold) {
+                return couriers.subList(from, to).stream()
+                        .filter(c -> c.canTakeOrder(order))
+                        .min(comparator)
+                        .orElse(null);
+            }
+            int middle = (from + to) >>> 1;
+            BestCourierTask left = new BestCourierTask(order, comparator, couriers, from, middle);
+            BestCourierTask right = new BestCourierTask(order, comparator, couriers, middle, to);
+            left.fork();
+            Courier rightBest = right.compute();
+            Courier leftBest = left.join();
+            if (leftBest == null) {
+                return rightBest;
+            }
+            if (rightBest == null) {
+                return leftBest;
+            }
+            return comparator.compare(leftBest, rightBest) <= 0 ? leftBest : rightBest;
+        }
+    }
+}
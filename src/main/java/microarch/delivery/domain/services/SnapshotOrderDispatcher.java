@@ -0,0 +1,66 @@
+package microarch.delivery.domain.services;
+
+import microarch.delivery.domain.model.courier.Courier;
+import microarch.delivery.domain.model.order.Order;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.util.Assert;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static microarch.delivery.domain.model.order.OrderStatus.CREATED;
+
+/**
+ * Dispatcher that scores couriers over a {@link FleetSnapshot} without allocating per order.
+ * Picks the same courier as {@link OrderDispatcherImpl}.
+ */
+@Service
+@ConditionalOnProperty(name = "delivery.dispatcher.strategy", havingValue = "snapshot")
+public class SnapshotOrderDispatcher implements OrderDispatcher {
+
+    @Override
+    public Courier dispatch(Order order, List<Courier> courierList) {
+        Assert.notNull(order, "order must be not null");
+        Assert.notNull(courierList, "courierList must be not null");
+        return dispatch(order, FleetSnapshot.of(courierList));
+    }
+
+    /**
+     * Builds the snapshot once and keeps it up to date after every assignment.
+     */
+    @Override
+    public List<OrderAssignment> dispatchAll(List<Order> orders, List<Courier> courierList) {
+        Assert.notNull(orders, "orders must be not null");
+        Assert.notNull(courierList, "courierList must be not null");
+        FleetSnapshot snapshot = FleetSnapshot.of(courierList);
+
+        List<OrderAssignment> assignments = new ArrayList<>();
+        for (Order order : orders) {
+            Assert.isTrue(order.getStatus() == CREATED, "Order must be in CREATED status for dispatch");
+            int row = snapshot.findFastest(order.getLocation().x(), order.getLocation().y(), order.getVolume());
+            if (row != FleetSnapshot.NOT_FOUND) {
+                assignments.add(new OrderAssignment(order, assign(order, snapshot, row)));
+            }
+        }
+        return assignments;
+    }
+
+    public Courier dispatch(Order order, FleetSnapshot snapshot) {
+        Assert.notNull(order, "order must be not null");
+        Assert.notNull(snapshot, "snapshot must be not null");
+        Assert.isTrue(order.getStatus() == CREATED, "Order must be in CREATED status for dispatch");
+
+        int row = snapshot.findFastest(order.getLocation().x(), order.getLocation().y(), order.getVolume());
+        Assert.isTrue(row != FleetSnapshot.NOT_FOUND, "No available couriers capable of delivering the order");
+        return assign(order, snapshot, row);
+    }
+
+    private static Courier assign(Order order, FleetSnapshot snapshot, int row) {
+        Courier bestCourier = snapshot.courierAt(row);
+        bestCourier.takeOrder(order);
+        order.assign(bestCourier.getId());
+        snapshot.refresh(bestCourier);
+        return bestCourier;
+    }
+}
@@ -0,0 +1,56 @@
+package microarch.delivery.infrastructure.in.http;
+
+import microarch.delivery.application.CourierRepository;
+import microarch.delivery.domain.model.Id;
+import microarch.delivery.domain.model.courier.Courier;
+import microarch.delivery.openapi.CouriersApi;
+import microarch.delivery.openapi.dto.CourierDto;
+import microarch.delivery.openapi.dto.CourierPageDto;
+import microarch.delivery.openapi.dto.NewCourierDto;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Adds couriers and lists them page by page; the cursor is the id of the last courier on the page.
+ */
+@RestController
+public class CourierController implements CouriersApi {
+
+    private final CourierRepository courierRepository;
+    private final DatabaseBulkhead databaseBulkhead;
+
+    public CourierController(CourierRepository courierRepository, DatabaseBulkhead databaseBulkhead) {
+        Assert.notNull(courierRepository, "courierRepository must be not null");
+        Assert.notNull(databaseBulkhead, "databaseBulkhead must be not null");
+        this.courierRepository = courierRepository;
+        this.databaseBulkhead = databaseBulkhead;
+    }
+
+    @Override
+    public ResponseEntity<CourierDto> createCourier(NewCourierDto newCourierDto) {
+        Courier courier = Courier.create(
+                newCourierDto.getName(), newCourierDto.getSpeed(), DtoMapper.toLocation(newCourierDto.getLocation()));
+
+        databaseBulkhead.execute(() -> courierRepository.save(courier));
+
+        return ResponseEntity.status(HttpStatus.CREATED).body(DtoMapper.toDto(courier));
+    }
+
+    @Override
+    public ResponseEntity<CourierPageDto> getCouriers(Integer limit, @Nullable String after) {
+        Id afterId = after == null ? null : Id.of(after);
+
+        List<Courier> couriers = databaseBulkhead.execute(() -> courierRepository.getCouriers(afterId, limit));
+
+        CourierPageDto page = new CourierPageDto().items(couriers.stream().map(DtoMapper::toDto).toList());
+        if (couriers.size() == limit) {
+            page.next(String.valueOf(couriers.get(couriers.size() - 1).getId().id()));
+        }
+        return ResponseEntity.ok(page);
+    }
+}
@@ -0,0 +1,82 @@
+package microarch.delivery.infrastructure.in.http;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.util.Assert;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Limits how many HTTP requests work with the database at the same time.
+ * <p>
+ * On virtual threads Tomcat accepts every request, so without a limit thousands of them would queue
+ * inside the connection pool and fail after its connection timeout. The bulkhead lets {@code permits}
+ * requests into the database and queues the rest fairly for up to {@code acquireTimeout}. A request
+ * that still gets no permit fails with {@link DatabaseBusyException}, answered with 503. Keep
+ * {@code permits} below the pool size, so schedulers, the outbox relay and consumers still get
+ * connections. Slow work outside the database, such as geo lookups, must run outside the bulkhead.
+ * <p>
+ * Metrics: {@code delivery.http.db.active} gauge, {@code delivery.http.db.wait} timer and
+ * {@code delivery.http.db.rejected} counter.
+ */
+public class DatabaseBulkhead {
+
+    private final Semaphore semaphore;
+    private final int permits;
+    private final Duration acquireTimeout;
+    private final Timer wait;
+    private final Counter rejected;
+
+    public DatabaseBulkhead(MeterRegistry meterRegistry, int permits, Duration acquireTimeout) {
+        Assert.notNull(meterRegistry, "meterRegistry must be not null");
+        Assert.isTrue(permits > 0, "permits must greater then 0");
+        Assert.notNull(acquireTimeout, "acquireTimeout must be not null");
+        this.semaphore = new Semaphore(permits, true);
+        this.permits = permits;
+        this.acquireTimeout = acquireTimeout;
+        this.wait = Timer.builder("delivery.http.db.wait")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.rejected = meterRegistry.counter("delivery.http.db.rejected");
+        meterRegistry.gauge("delivery.http.db.active", semaphore, s -> permits - s.availablePermits());
+    }
+
+    public <T> T execute(Supplier<T> action) {
+        Assert.notNull(action, "action must be not null");
+        acquire();
+        try {
+            return action.get();
+        } finally {
+            semaphore.release();
+        }
+    }
+
+    public int availablePermits() {
+        return semaphore.availablePermits();
+    }
+
+    public int permits() {
+        return permits;
+    }
+
+    private void acquire() {
+        long started = System.nanoTime();
+        boolean acquired;
+        try {
+            acquired = semaphore.tryAcquire(acquireTimeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DatabaseBusyException("Interrupted while waiting for the database");
+        } finally {
+            wait.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        }
+        if (!acquired) {
+            rejected.increment();
+            throw new DatabaseBusyException("Database is busy, no permit within " + acquireTimeout);
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package microarch.delivery.infrastructure.in.http;
+
+/**
+ * Raised when a request waited too long for a {@link DatabaseBulkhead} permit.
+ */
+public class DatabaseBusyException extends RuntimeException {
+
+    public DatabaseBusyException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,47 @@
+package microarch.delivery.infrastructure.in.http;
+
+import microarch.delivery.domain.model.Id;
+import microarch.delivery.domain.model.Location;
+import microarch.delivery.domain.model.courier.Courier;
+import microarch.delivery.domain.model.order.Order;
+import microarch.delivery.openapi.dto.CourierDto;
+import microarch.delivery.openapi.dto.LocationDto;
+import microarch.delivery.openapi.dto.OrderDto;
+import microarch.delivery.openapi.dto.OrderStatusDto;
+
+/**
+ * Maps aggregates to the generated API models. Ids are sent as strings, they do not fit a JSON number.
+ */
+final class DtoMapper {
+
+    private DtoMapper() {
+    }
+
+    static OrderDto toDto(Order order) {
+        Id courierId = order.getCourierId();
+        return new OrderDto()
+                .id(String.valueOf(order.getId().id()))
+                .location(toDto(order.getLocation()))
+                .volume(order.getVolume())
+                .status(OrderStatusDto.fromValue(order.getStatus().name()))
+                .courierId(courierId == null ? null : String.valueOf(courierId.id()));
+    }
+
+    static CourierDto toDto(Courier courier) {
+        return new CourierDto()
+                .id(String.valueOf(courier.getId().id()))
+                .name(courier.getName())
+                .speed(courier.getSpeed())
+                .location(toDto(courier.getLocation()));
+    }
+
+    static LocationDto toDto(Location location) {
+        return new LocationDto()
+                .x(location.x())
+                .y(location.y());
+    }
+
+    static Location toLocation(LocationDto location) {
+        return Location.create(location.getX(), location.getY());
+    }
+}
@@ -0,0 +1,61 @@
+package microarch.delivery.infrastructure.in.http;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
+import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.web.SecurityFilterChain;
+
+import java.time.Duration;
+
+import static org.slf4j.LoggerFactory.getLogger;
+import static org.springframework.security.config.Customizer.withDefaults;
+
+/**
+ * Requests are served on virtual threads ({@code spring.threads.virtual.enabled}); the database side is
+ * bounded by the {@link DatabaseBulkhead} instead of the Tomcat thread pool.
+ */
+@Configuration
+public class HttpConfiguration {
+
+    private static final Logger log = getLogger(HttpConfiguration.class);
+
+    @Bean
+    DatabaseBulkhead databaseBulkhead(
+            MeterRegistry meterRegistry,
+            @Value("${delivery.http.db-concurrency.permits:16}") int permits,
+            @Value("${delivery.http.db-concurrency.acquire-timeout:2s}") Duration acquireTimeout) {
+        return new DatabaseBulkhead(meterRegistry, permits, acquireTimeout);
+    }
+
+    /**
+     * The API is a stateless OAuth2 resource server: every request except health checks and the API
+     * description needs a bearer JWT validated against {@code spring.security.oauth2.resourceserver.jwt},
+     * so there are no sessions or CSRF tokens. {@code delivery.http.security.enabled=false} opens the API
+     * for local development and load tests only.
+     */
+    @Bean
+    SecurityFilterChain apiSecurityFilterChain(
+            HttpSecurity http,
+            @Value("${delivery.http.security.enabled:true}") boolean securityEnabled) throws Exception {
+        http
+                .csrf(AbstractHttpConfigurer::disable)
+                .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS));
+        if (!securityEnabled) {
+            log.warn("HTTP API security is disabled, every request is permitted");
+            return http
+                    .authorizeHttpRequests(requests -> requests.anyRequest().permitAll())
+                    .build();
+        }
+        return http
+                .authorizeHttpRequests(requests -> requests
+                        .requestMatchers("/actuator/health/**", "/openapi.yaml").permitAll()
+                        .anyRequest().authenticated())
+                .oauth2ResourceServer(resourceServer -> resourceServer.jwt(withDefaults()))
+                .build();
+    }
+}
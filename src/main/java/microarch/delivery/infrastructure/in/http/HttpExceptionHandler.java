@@ -0,0 +1,62 @@
+package microarch.delivery.infrastructure.in.http;
+
+import jakarta.servlet.http.HttpServletRequest;
+import libs.errs.ErrorInfoDto;
+import libs.errs.ErrorInfoDtoBuilder;
+import microarch.delivery.application.GeoLookupException;
+import microarch.delivery.application.UnresolvableAddressException;
+import org.slf4j.Logger;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import static org.slf4j.LoggerFactory.getLogger;
+
+/**
+ * Answers overload and geo service failures with 503 before the generic handler turns them into 400.
+ * An address the geo service rejects is answered with 422 and no {@code Retry-After}, since asking
+ * again gives the same answer.
+ */
+@RestControllerAdvice
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class HttpExceptionHandler {
+    private static final Logger log = getLogger(HttpExceptionHandler.class);
+
+    private static final String RETRY_AFTER_SECONDS = "1";
+
+    @ExceptionHandler(value = {DatabaseBusyException.class})
+    protected ResponseEntity<ErrorInfoDto> handleDatabaseBusy(DatabaseBusyException e, HttpServletRequest request) {
+        log.debug("Rejected REST request: {}", e.getMessage());
+        return unavailable(request.getRequestURI(), e);
+    }
+
+    @ExceptionHandler(value = {GeoLookupException.class})
+    protected ResponseEntity<ErrorInfoDto> handleGeoLookup(GeoLookupException e, HttpServletRequest request) {
+        log.warn("Geo lookup failed while executing REST request: {}", e.getMessage());
+        return unavailable(request.getRequestURI(), e);
+    }
+
+    @ExceptionHandler(value = {UnresolvableAddressException.class})
+    protected ResponseEntity<ErrorInfoDto> handleUnresolvableAddress(UnresolvableAddressException e, HttpServletRequest request) {
+        log.debug("Rejected REST request: {}", e.getMessage());
+        return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY)
+                .body(errorInfo(request.getRequestURI(), e));
+    }
+
+    private ResponseEntity<ErrorInfoDto> unavailable(String uri, RuntimeException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS)
+                .body(errorInfo(uri, e));
+    }
+
+    private static ErrorInfoDto errorInfo(String uri, RuntimeException e) {
+        return ErrorInfoDtoBuilder.errorInfoDto()
+                .uri(uri)
+                .exception(e.getMessage())
+                .build();
+    }
+}
@@ -0,0 +1,93 @@
+package microarch.delivery.infrastructure.in.http;
+
+import microarch.delivery.application.CreateOrderCommand;
+import microarch.delivery.application.GeoClient;
+import microarch.delivery.application.OrderCursor;
+import microarch.delivery.application.OrderIntake;
+import microarch.delivery.application.OrderRepository;
+import microarch.delivery.domain.model.Id;
+import microarch.delivery.domain.model.Location;
+import microarch.delivery.domain.model.order.Order;
+import microarch.delivery.domain.model.order.OrderStatus;
+import microarch.delivery.openapi.OrdersApi;
+import microarch.delivery.openapi.dto.NewOrderDto;
+import microarch.delivery.openapi.dto.OrderPageDto;
+import microarch.delivery.openapi.dto.OrderStatusDto;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Creates orders and lists them by status.
+ * <p>
+ * The street is resolved before the database is touched, so a slow geo service holds only the
+ * request's virtual thread and no {@link DatabaseBulkhead} permit. The basket id is the idempotency
+ * key of {@link OrderIntake}: a repeated request answers 200 instead of creating a second order.
+ */
+@RestController
+public class OrderController implements OrdersApi {
+
+    private static final String CURSOR_SEPARATOR = "|";
+
+    private final OrderIntake orderIntake;
+    private final OrderRepository orderRepository;
+    private final GeoClient geoClient;
+    private final DatabaseBulkhead databaseBulkhead;
+
+    public OrderController(OrderIntake orderIntake,
+                           OrderRepository orderRepository,
+                           GeoClient geoClient,
+                           DatabaseBulkhead databaseBulkhead) {
+        Assert.notNull(orderIntake, "orderIntake must be not null");
+        Assert.notNull(orderRepository, "orderRepository must be not null");
+        Assert.notNull(geoClient, "geoClient must be not null");
+        Assert.notNull(databaseBulkhead, "databaseBulkhead must be not null");
+        this.orderIntake = orderIntake;
+        this.orderRepository = orderRepository;
+        this.geoClient = geoClient;
+        this.databaseBulkhead = databaseBulkhead;
+    }
+
+    @Override
+    public ResponseEntity<Void> createOrder(NewOrderDto newOrderDto) {
+        Location location = geoClient.getLocation(newOrderDto.getStreet());
+        CreateOrderCommand command = new CreateOrderCommand(newOrderDto.getBasketId(), location, newOrderDto.getVolume());
+
+        int created = databaseBulkhead.execute(() -> orderIntake.accept(List.of(command)));
+
+        return ResponseEntity.status(created > 0 ? HttpStatus.CREATED : HttpStatus.OK).build();
+    }
+
+    @Override
+    public ResponseEntity<OrderPageDto> getOrders(OrderStatusDto status, Integer limit, @Nullable String after) {
+        OrderStatus orderStatus = OrderStatus.valueOf(status.getValue());
+        OrderCursor cursor = after == null ? null : decodeCursor(after);
+
+        List<Order> orders = databaseBulkhead.execute(() -> orderRepository.getOrdersByStatus(orderStatus, cursor, limit));
+
+        OrderPageDto page = new OrderPageDto().items(orders.stream().map(DtoMapper::toDto).toList());
+        if (orders.size() == limit) {
+            page.next(encodeCursor(OrderCursor.after(orders.get(orders.size() - 1))));
+        }
+        return ResponseEntity.ok(page);
+    }
+
+    static String encodeCursor(OrderCursor cursor) {
+        String value = cursor.createdAt() + CURSOR_SEPARATOR + cursor.id().id();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static OrderCursor decodeCursor(String cursor) {
+        String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        int separator = value.lastIndexOf(CURSOR_SEPARATOR);
+        Assert.isTrue(separator > 0, "cursor is malformed");
+        return new OrderCursor(OffsetDateTime.parse(value.substring(0, separator)), Id.of(value.substring(separator + 1)));
+    }
+}
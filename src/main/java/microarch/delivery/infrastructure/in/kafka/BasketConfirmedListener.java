@@ -0,0 +1,74 @@
+package microarch.delivery.infrastructure.in.kafka;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import microarch.delivery.application.CreateOrderCommand;
+import microarch.delivery.application.OrderIntake;
+import microarch.delivery.domain.model.Location;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.slf4j.Logger;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+import org.springframework.util.Assert;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.slf4j.LoggerFactory.getLogger;
+
+/**
+ * Turns a poll of "basket confirmed" events into orders.
+ * <p>
+ * The whole poll is persisted by one {@link OrderIntake} transaction and the offsets are committed
+ * after the listener returns, i.e. after the database commit. Messages redelivered after a crash
+ * between the two commits are recognised by their key. The basket id is used when the key is
+ * missing. Malformed messages are logged and skipped, so they never block the partition.
+ */
+@Component
+@ConditionalOnProperty(name = "delivery.kafka.basket-confirmed.enabled", havingValue = "true", matchIfMissing = true)
+public class BasketConfirmedListener {
+
+    private static final Logger log = getLogger(BasketConfirmedListener.class);
+
+    private final OrderIntake orderIntake;
+    private final ObjectReader messageReader;
+
+    public BasketConfirmedListener(OrderIntake orderIntake, ObjectMapper objectMapper) {
+        Assert.notNull(orderIntake, "orderIntake must be not null");
+        Assert.notNull(objectMapper, "objectMapper must be not null");
+        this.orderIntake = orderIntake;
+        this.messageReader = objectMapper.readerFor(BasketConfirmedMessage.class);
+    }
+
+    @KafkaListener(
+            id = "basket-confirmed",
+            topics = "${delivery.kafka.basket-confirmed.topic:basket.confirmed}",
+            containerFactory = KafkaConsumerConfiguration.BATCH_CONTAINER_FACTORY)
+    public void onMessages(List<ConsumerRecord<String, String>> records) {
+        List<CreateOrderCommand> commands = new ArrayList<>(records.size());
+        for (ConsumerRecord<String, String> record : records) {
+            CreateOrderCommand command = toCommand(record);
+            if (command != null) {
+                commands.add(command);
+            }
+        }
+        int created = orderIntake.accept(commands);
+        log.debug("Created {} orders from {} basket confirmed messages", created, records.size());
+    }
+
+    private CreateOrderCommand toCommand(ConsumerRecord<String, String> record) {
+        try {
+            BasketConfirmedMessage message = messageReader.readValue(record.value());
+            String key = record.key() != null ? record.key() : message.basketId();
+            return new CreateOrderCommand(key,
+                    Location.create(message.location().x(), message.location().y()),
+                    message.volume());
+        } catch (JsonProcessingException | IllegalArgumentException | NullPointerException e) {
+            log.warn("Skipping malformed basket confirmed message at {}-{}@{}: {}",
+                    record.topic(), record.partition(), record.offset(), e.getMessage());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package microarch.delivery.infrastructure.in.kafka;
+
+/**
+ * Payload of the "basket confirmed" event published by the basket service.
+ */
+record BasketConfirmedMessage(String basketId, int volume, Address location) {
+
+    record Address(int x, int y) {
+    }
+}
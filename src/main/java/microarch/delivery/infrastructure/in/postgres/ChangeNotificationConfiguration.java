@@ -0,0 +1,27 @@
+package microarch.delivery.infrastructure.in.postgres;
+
+import microarch.delivery.application.AggregateChangeListener;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+@Configuration
+@ConditionalOnProperty(name = "delivery.notifications.enabled", havingValue = "true", matchIfMissing = true)
+public class ChangeNotificationConfiguration {
+
+    @Bean
+    ChangeNotificationListener changeNotificationListener(
+            DataSource dataSource,
+            ObjectProvider<AggregateChangeListener> listeners,
+            @Value("${delivery.notifications.batch-size:500}") int batchSize,
+            @Value("${delivery.notifications.poll-timeout:500ms}") Duration pollTimeout,
+            @Value("${delivery.notifications.reconnect-delay:1s}") Duration reconnectDelay) {
+        return new ChangeNotificationListener(
+                dataSource, listeners.orderedStream().toList(), batchSize, pollTimeout, reconnectDelay);
+    }
+}
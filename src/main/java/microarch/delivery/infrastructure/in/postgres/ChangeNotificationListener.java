@@ -0,0 +1,190 @@
+package microarch.delivery.infrastructure.in.postgres;
+
+import microarch.delivery.application.AggregateChange;
+import microarch.delivery.application.AggregateChange.AggregateType;
+import microarch.delivery.application.AggregateChangeListener;
+import microarch.delivery.domain.model.Id;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.util.Assert;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.slf4j.LoggerFactory.getLogger;
+
+/**
+ * Listens to the {@code delivery_changes} channel on a dedicated connection and fans the changes out
+ * to {@link AggregateChangeListener}s.
+ * <p>
+ * Notifications arriving together are merged into one batch with the latest version of every
+ * aggregate; an unversioned change is kept next to it. When the connection is lost, notifications sent in the meantime are gone, so after
+ * reconnecting every listener is asked to resync.
+ */
+public class ChangeNotificationListener implements SmartLifecycle {
+
+    static final String CHANNEL = "delivery_changes";
+
+    private static final Logger log = getLogger(ChangeNotificationListener.class);
+    private static final int DRAIN_TIMEOUT_MILLIS = 1;
+
+    private final DataSource dataSource;
+    private final List<AggregateChangeListener> listeners;
+    private final int batchSize;
+    private final Duration pollTimeout;
+    private final Duration reconnectDelay;
+
+    private volatile boolean running;
+    private Thread thread;
+
+    public ChangeNotificationListener(DataSource dataSource,
+                                      List<AggregateChangeListener> listeners,
+                                      int batchSize,
+                                      Duration pollTimeout,
+                                      Duration reconnectDelay) {
+        Assert.notNull(dataSource, "dataSource must be not null");
+        Assert.notNull(listeners, "listeners must be not null");
+        Assert.isTrue(batchSize > 0, "batchSize must greater then 0");
+        Assert.notNull(pollTimeout, "pollTimeout must be not null");
+        Assert.notNull(reconnectDelay, "reconnectDelay must be not null");
+        this.dataSource = dataSource;
+        this.listeners = List.copyOf(listeners);
+        this.batchSize = batchSize;
+        this.pollTimeout = pollTimeout;
+        this.reconnectDelay = reconnectDelay;
+    }
+
+    @Override
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        thread = new Thread(this::run, "delivery-change-listener");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @Override
+    public synchronized void stop() {
+        running = false;
+        if (thread != null) {
+            thread.interrupt();
+            try {
+                thread.join(reconnectDelay.plus(pollTimeout).toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            thread = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void run() {
+        boolean connectedBefore = false;
+        while (running) {
+            try (Connection connection = dataSource.getConnection()) {
+                connection.setAutoCommit(true);
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("listen " + CHANNEL);
+                }
+                if (connectedBefore) {
+                    log.info("Listening to {} again, resyncing", CHANNEL);
+                    listeners.forEach(AggregateChangeListener::onResync);
+                }
+                connectedBefore = true;
+                listen(connection.unwrap(PGConnection.class));
+            } catch (SQLException e) {
+                if (running) {
+                    log.warn("Lost connection listening to {}, reconnecting in {}", CHANNEL, reconnectDelay, e);
+                    sleep(reconnectDelay);
+                }
+            }
+        }
+    }
+
+    private void listen(PGConnection connection) throws SQLException {
+        int pollTimeoutMillis = (int) Math.max(pollTimeout.toMillis(), 1);
+        while (running) {
+            PGNotification[] notifications = connection.getNotifications(pollTimeoutMillis);
+            Map<List<Object>, AggregateChange> batch = new LinkedHashMap<>();
+            while (notifications != null && notifications.length > 0) {
+                for (PGNotification notification : notifications) {
+                    AggregateChange change = parse(notification.getParameter());
+                    if (change != null) {
+                        batch.merge(List.of(change.type(), change.id(), change.isUnversioned()), change, (a, b) -> a.version() >= b.version() ? a : b);
+                    }
+                }
+                if (batch.size() >= batchSize) {
+                    break;
+                }
+                notifications = connection.getNotifications(DRAIN_TIMEOUT_MILLIS);
+            }
+            if (!batch.isEmpty()) {
+                publish(new ArrayList<>(batch.values()));
+            }
+        }
+    }
+
+    private void publish(List<AggregateChange> changes) {
+        for (AggregateChangeListener listener : listeners) {
+            try {
+                listener.onChanges(changes);
+            } catch (RuntimeException e) {
+                log.error("Listener {} failed to handle {} changes", listener, changes.size(), e);
+            }
+        }
+    }
+
+    /**
+     * Parses {@code <aggregate>:<id>:<version>}, {@code <aggregate>:<id>:deleted} or {@code <aggregate>:<id>:location}.
+     */
+    static AggregateChange parse(String payload) {
+        String[] parts = payload.split(":");
+        if (parts.length != 3) {
+            log.warn("Ignoring malformed change notification '{}'", payload);
+            return null;
+        }
+        AggregateType type = switch (parts[0]) {
+            case "courier" -> AggregateType.COURIER;
+            case "order" -> AggregateType.ORDER;
+            default -> null;
+        };
+        if (type == null) {
+            log.warn("Ignoring change notification of unknown aggregate '{}'", payload);
+            return null;
+        }
+        try {
+            long version = switch (parts[2]) {
+                case "deleted" -> AggregateChange.DELETED;
+                case "location" -> AggregateChange.UNVERSIONED;
+                default -> Long.parseLong(parts[2]);
+            };
+            return new AggregateChange(type, Id.of(Long.parseLong(parts[1])), version);
+        } catch (NumberFormatException e) {
+            log.warn("Ignoring malformed change notification '{}'", payload);
+            return null;
+        }
+    }
+
+    private void sleep(Duration duration) {
+        try {
+            Thread.sleep(duration.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
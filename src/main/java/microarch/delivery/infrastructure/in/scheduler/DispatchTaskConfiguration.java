@@ -0,0 +1,83 @@
+package microarch.delivery.infrastructure.in.scheduler;
+
+import com.github.kagkarlsson.scheduler.SchedulerClient;
+import com.github.kagkarlsson.scheduler.task.helper.PlainScheduleAndData;
+import com.github.kagkarlsson.scheduler.task.helper.RecurringTaskWithPersistentSchedule;
+import com.github.kagkarlsson.scheduler.task.helper.Tasks;
+import com.github.kagkarlsson.scheduler.task.schedule.Schedules;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import microarch.delivery.application.OptimisticLockRetry;
+import microarch.delivery.application.OrderRepository;
+import microarch.delivery.application.ZoneDispatch;
+import microarch.delivery.domain.model.Zone;
+import org.slf4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.slf4j.LoggerFactory.getLogger;
+
+/**
+ * Dispatches orders zone by zone. Every zone is a separate instance of the {@code dispatch-zone}
+ * db-scheduler task, so the zones spread over the cluster; {@link ZoneDispatch} additionally locks
+ * the zone in Postgres for the duration of a run.
+ * <p>
+ * Instances keep the schedule they were created with; after changing the tick interval or reducing
+ * the number of zones the existing rows in {@code scheduled_tasks} must be removed.
+ */
+@Configuration
+@ConditionalOnProperty(name = "delivery.dispatch.enabled", havingValue = "true")
+public class DispatchTaskConfiguration {
+
+    private static final Logger log = getLogger(DispatchTaskConfiguration.class);
+    private static final String TASK_NAME = "dispatch-zone";
+
+    @Bean
+    RecurringTaskWithPersistentSchedule<PlainScheduleAndData> dispatchZoneTask(ZoneDispatch zoneDispatch,
+                                                                              OrderRepository orderRepository,
+                                                                              OptimisticLockRetry optimisticLockRetry,
+                                                                              MeterRegistry meterRegistry) {
+        AtomicLong backlog = meterRegistry.gauge("delivery.dispatch.backlog", new AtomicLong());
+        Timer lag = meterRegistry.timer("delivery.dispatch.lag");
+        Counter assigned = meterRegistry.counter("delivery.dispatch.assigned.orders");
+        Counter notOwned = meterRegistry.counter("delivery.dispatch.zone.not.owned");
+        List<Zone> zones = zoneDispatch.zones();
+        return Tasks.recurringWithPersistentSchedule(TASK_NAME, PlainScheduleAndData.class)
+                .execute((instance, context) -> {
+                    int index = (Integer) instance.getData().getData();
+                    if (index >= zones.size()) {
+                        log.warn("Skipping dispatch of unknown zone {}, only {} zones are configured", index, zones.size());
+                        return;
+                    }
+                    ZoneDispatch.Result result = optimisticLockRetry.execute(() -> zoneDispatch.dispatch(zones.get(index)));
+                    if (!result.owned()) {
+                        notOwned.increment();
+                        return;
+                    }
+                    if (result.claimed() > 0) {
+                        lag.record(result.lag());
+                    }
+                    assigned.increment(result.assigned());
+                    backlog.set(orderRepository.countCreatedOrders());
+                });
+    }
+
+    @Bean
+    ApplicationListener<ApplicationReadyEvent> dispatchZoneScheduler(
+            SchedulerClient schedulerClient,
+            ZoneDispatch zoneDispatch,
+            RecurringTaskWithPersistentSchedule<PlainScheduleAndData> dispatchZoneTask,
+            @Value("${delivery.dispatch.tick-interval:1s}") Duration tickInterval) {
+        return event -> zoneDispatch.zones().forEach(zone -> schedulerClient.scheduleIfNotExists(dispatchZoneTask.schedulableInstance(
+                "zone-" + zone.index(), new PlainScheduleAndData(Schedules.fixedDelay(tickInterval), zone.index()))));
+    }
+}
@@ -0,0 +1,88 @@
+package microarch.delivery.infrastructure.in.scheduler;
+
+import com.github.kagkarlsson.scheduler.task.helper.RecurringTask;
+import com.github.kagkarlsson.scheduler.task.helper.Tasks;
+import com.github.kagkarlsson.scheduler.task.schedule.Schedules;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import libs.common.Timex;
+import microarch.delivery.infrastructure.out.postgres.EventPublicationMaintenance;
+import org.slf4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.modulith.events.IncompleteEventPublications;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.slf4j.LoggerFactory.getLogger;
+
+/**
+ * db-scheduler tasks around the Spring Modulith event publication registry.
+ * <p>
+ * Resubmission replaces republishing on restart: every run resubmits at most {@code batch-size}
+ * of the oldest publications that have stayed incomplete for longer than {@code min-age}. The
+ * same run refreshes the {@code delivery.events.publication.backlog} and
+ * {@code delivery.events.publication.lag} gauges. A second task purges completed publications.
+ */
+@Configuration
+public class EventPublicationTaskConfiguration {
+
+    private static final Logger log = getLogger(EventPublicationTaskConfiguration.class);
+
+    @Bean
+    EventPublicationMaintenance eventPublicationMaintenance(DataSource dataSource) {
+        return new EventPublicationMaintenance(dataSource);
+    }
+
+    @Bean
+    RecurringTask<Void> eventPublicationResubmissionTask(
+            EventPublicationMaintenance maintenance,
+            IncompleteEventPublications incompleteEventPublications,
+            MeterRegistry meterRegistry,
+            @Value("${delivery.events.resubmission.interval:30s}") Duration interval,
+            @Value("${delivery.events.resubmission.min-age:1m}") Duration minAge,
+            @Value("${delivery.events.resubmission.batch-size:1000}") int batchSize) {
+        AtomicLong backlog = new AtomicLong();
+        AtomicLong lagMillis = new AtomicLong();
+        Gauge.builder("delivery.events.publication.backlog", backlog, AtomicLong::get).register(meterRegistry);
+        TimeGauge.builder("delivery.events.publication.lag", lagMillis, TimeUnit.MILLISECONDS, AtomicLong::get)
+                .register(meterRegistry);
+        Counter resubmitted = meterRegistry.counter("delivery.events.publication.resubmitted");
+        return Tasks.recurring("event-publication-resubmission", Schedules.fixedDelay(interval))
+                .execute((instance, context) -> {
+                    EventPublicationMaintenance.IncompleteStats stats = maintenance.incompleteStats();
+                    backlog.set(stats.backlog());
+                    lagMillis.set(stats.lag().toMillis());
+                    if (stats.lag().compareTo(minAge) <= 0) {
+                        return;
+                    }
+                    Instant cutoff = Timex.currentInstant().minus(minAge);
+                    AtomicInteger selected = new AtomicInteger();
+                    incompleteEventPublications.resubmitIncompletePublications(publication ->
+                            publication.getPublicationDate().isBefore(cutoff) && selected.incrementAndGet() <= batchSize);
+                    resubmitted.increment(Math.min(selected.get(), batchSize));
+                    log.info("Resubmitted {} of {} incomplete event publications", Math.min(selected.get(), batchSize), stats.backlog());
+                });
+    }
+
+    @Bean
+    RecurringTask<Void> eventPublicationPurgeTask(
+            EventPublicationMaintenance maintenance,
+            @Value("${delivery.events.purge.schedule:0 */10 * * * *}") String schedule,
+            @Value("${delivery.events.purge.retention:7d}") Duration retention,
+            @Value("${delivery.events.purge.batch-size:10000}") int batchSize) {
+        return Tasks.recurring("event-publication-purge", Schedules.cron(schedule))
+                .execute((instance, context) -> {
+                    int purged = maintenance.purgeCompleted(retention, batchSize);
+                    log.info("Purged {} completed event publications", purged);
+                });
+    }
+}
@@ -0,0 +1,37 @@
+package microarch.delivery.infrastructure.in.scheduler;
+
+import com.github.kagkarlsson.scheduler.task.helper.RecurringTask;
+import com.github.kagkarlsson.scheduler.task.helper.Tasks;
+import com.github.kagkarlsson.scheduler.task.schedule.Schedules;
+import microarch.delivery.infrastructure.out.postgres.OrderInboxJdbc;
+import org.slf4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+import static org.slf4j.LoggerFactory.getLogger;
+
+/**
+ * db-scheduler task that purges order inbox keys older than {@code retention}, so the inbox stays
+ * as large as the redelivery window of the topic instead of growing with every received message.
+ */
+@Configuration
+public class OrderInboxTaskConfiguration {
+
+    private static final Logger log = getLogger(OrderInboxTaskConfiguration.class);
+
+    @Bean
+    RecurringTask<Void> orderInboxPurgeTask(
+            OrderInboxJdbc orderInbox,
+            @Value("${delivery.kafka.inbox.purge.schedule:0 */10 * * * *}") String schedule,
+            @Value("${delivery.kafka.inbox.purge.retention:7d}") Duration retention,
+            @Value("${delivery.kafka.inbox.purge.batch-size:10000}") int batchSize) {
+        return Tasks.recurring("order-inbox-purge", Schedules.cron(schedule))
+                .execute((instance, context) -> {
+                    int purged = orderInbox.purge(retention, batchSize);
+                    log.info("Purged {} order inbox keys", purged);
+                });
+    }
+}
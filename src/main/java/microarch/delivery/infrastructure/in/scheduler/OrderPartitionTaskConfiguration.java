@@ -0,0 +1,56 @@
+package microarch.delivery.infrastructure.in.scheduler;
+
+import com.github.kagkarlsson.scheduler.task.helper.RecurringTask;
+import com.github.kagkarlsson.scheduler.task.helper.Tasks;
+import com.github.kagkarlsson.scheduler.task.schedule.Schedules;
+import libs.common.Timex;
+import microarch.delivery.infrastructure.out.postgres.OrderPartitionMaintenance;
+import org.slf4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.slf4j.LoggerFactory.getLogger;
+
+/**
+ * Daily db-scheduler task that keeps partitions of COMPLETED orders ahead of time
+ * and archives the ones past the retention period, including expired rows of the default partition.
+ */
+@Configuration
+public class OrderPartitionTaskConfiguration {
+
+    private static final Logger log = getLogger(OrderPartitionTaskConfiguration.class);
+
+    @Bean
+    OrderPartitionMaintenance orderPartitionMaintenance(DataSource dataSource) {
+        return new OrderPartitionMaintenance(dataSource);
+    }
+
+    @Bean
+    RecurringTask<Void> orderPartitionMaintenanceTask(
+            OrderPartitionMaintenance maintenance,
+            @Value("${delivery.orders.partitions.schedule:0 0 3 * * *}") String schedule,
+            @Value("${delivery.orders.partitions.months-ahead:3}") int monthsAhead,
+            @Value("${delivery.orders.partitions.retention-months:6}") int retentionMonths,
+            @Value("${delivery.orders.partitions.archive-batch-size:10000}") int archiveBatchSize) {
+        return Tasks.recurring("order-partition-maintenance", Schedules.cron(schedule))
+                .execute((instance, context) -> {
+                    YearMonth currentMonth = YearMonth.from(Timex.currentInstant().atOffset(ZoneOffset.UTC));
+                    List<String> created = maintenance.createPartitions(currentMonth, monthsAhead);
+                    YearMonth cutoff = currentMonth.minusMonths(retentionMonths);
+                    List<String> archived = maintenance.archivePartitions(cutoff);
+                    int archivedDefaultRows = maintenance.archiveDefaultPartition(cutoff, archiveBatchSize);
+                    log.info("Order partitions maintained: created {}, archived {} and {} rows of the default partition",
+                            created, archived, archivedDefaultRows);
+                    long defaultRows = maintenance.countDefaultPartitionRows();
+                    if (defaultRows > 0) {
+                        log.warn("{} completed orders are in the default partition until they expire", defaultRows);
+                    }
+                });
+    }
+}
@@ -0,0 +1,40 @@
+package microarch.delivery.infrastructure.in.scheduler;
+
+import com.github.kagkarlsson.scheduler.task.helper.RecurringTask;
+import com.github.kagkarlsson.scheduler.task.helper.Tasks;
+import com.github.kagkarlsson.scheduler.task.schedule.Schedules;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import microarch.delivery.application.OptimisticLockRetry;
+import microarch.delivery.application.SimulationTick;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Runs {@link SimulationTick} on one node of the cluster at a time and records how long every tick takes.
+ * A tick that races with dispatch over a courier is repeated with fresh state.
+ */
+@Configuration
+@ConditionalOnProperty(name = "delivery.simulation.enabled", havingValue = "true")
+public class SimulationTaskConfiguration {
+
+    @Bean
+    RecurringTask<Void> simulationTickTask(
+            SimulationTick simulationTick,
+            OptimisticLockRetry optimisticLockRetry,
+            MeterRegistry meterRegistry,
+            @Value("${delivery.simulation.tick-interval:1s}") Duration tickInterval) {
+        Timer tickTimer = meterRegistry.timer("delivery.simulation.tick");
+        Counter completedOrders = meterRegistry.counter("delivery.simulation.completed.orders");
+        return Tasks.recurring("simulation-tick", Schedules.fixedDelay(tickInterval))
+                .execute((instance, context) -> {
+                    SimulationTick.Result result = tickTimer.record(() -> optimisticLockRetry.execute(simulationTick::tick));
+                    completedOrders.increment(result.completedOrders());
+                });
+    }
+}
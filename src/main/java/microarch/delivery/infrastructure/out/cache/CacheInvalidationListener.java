@@ -0,0 +1,44 @@
+package microarch.delivery.infrastructure.out.cache;
+
+import microarch.delivery.application.AggregateChange;
+import microarch.delivery.application.AggregateChangeListener;
+import org.springframework.util.Assert;
+
+import java.util.List;
+
+/**
+ * Drops cached couriers and orders changed by other nodes. Unversioned changes evict unconditionally.
+ */
+public class CacheInvalidationListener implements AggregateChangeListener {
+
+    private final VersionedCache<CourierSnapshot> courierCache;
+    private final VersionedCache<OrderSnapshot> orderCache;
+
+    public CacheInvalidationListener(VersionedCache<CourierSnapshot> courierCache, VersionedCache<OrderSnapshot> orderCache) {
+        Assert.notNull(courierCache, "courierCache must be not null");
+        Assert.notNull(orderCache, "orderCache must be not null");
+        this.courierCache = courierCache;
+        this.orderCache = orderCache;
+    }
+
+    @Override
+    public void onChanges(List<AggregateChange> changes) {
+        for (AggregateChange change : changes) {
+            VersionedCache<?> cache = switch (change.type()) {
+                case COURIER -> courierCache;
+                case ORDER -> orderCache;
+            };
+            if (change.isUnversioned()) {
+                cache.evict(change.id());
+            } else {
+                cache.evictOlderThan(change.id(), change.version());
+            }
+        }
+    }
+
+    @Override
+    public void onResync() {
+        courierCache.evictAll();
+        orderCache.evictAll();
+    }
+}
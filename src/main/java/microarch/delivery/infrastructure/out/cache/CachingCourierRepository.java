@@ -0,0 +1,101 @@
+package microarch.delivery.infrastructure.out.cache;
+
+import microarch.delivery.application.CourierLocationWriter;
+import microarch.delivery.application.CourierRepository;
+import microarch.delivery.domain.model.Id;
+import microarch.delivery.domain.model.Zone;
+import microarch.delivery.domain.model.courier.Courier;
+import org.springframework.util.Assert;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Read-through cache in front of a {@link CourierRepository}. Only {@link #findById(Id)} is served
+ * from the cache; saves keep it in sync with the database version of every courier.
+ * <p>
+ * A saved courier that did not move keeps the stored location, which a {@link CourierLocationWriter}
+ * may have changed since the courier was loaded. Such couriers are evicted instead of cached, and only
+ * their new version is recorded, so a load that read the row before the commit is not cached either.
+ */
+public class CachingCourierRepository implements CourierRepository {
+
+    private final CourierRepository delegate;
+    private final VersionedCache<CourierSnapshot> cache;
+
+    public CachingCourierRepository(CourierRepository delegate, VersionedCache<CourierSnapshot> cache) {
+        Assert.notNull(delegate, "delegate must be not null");
+        Assert.notNull(cache, "cache must be not null");
+        this.delegate = delegate;
+        this.cache = cache;
+    }
+
+    @Override
+    public Courier save(Courier courier) {
+        saveAll(List.of(courier));
+        return courier;
+    }
+
+    /**
+     * Whether a courier can be cached is decided before the write, which marks it persisted and resets
+     * its location change; the snapshot and its version are taken after it.
+     */
+    @Override
+    public List<Courier> saveAll(Collection<Courier> couriers) {
+        Set<Id> cacheable = new HashSet<>();
+        for (Courier courier : couriers) {
+            cache.beforeWrite(courier.getId());
+            if (courier.isNew() || courier.isLocationChanged()) {
+                cacheable.add(courier.getId());
+            }
+        }
+        List<Courier> saved = delegate.saveAll(couriers);
+        for (Courier courier : saved) {
+            if (cacheable.contains(courier.getId())) {
+                cache.afterWrite(courier.getId(), CourierSnapshot.of(courier, courier.getVersion()));
+            } else {
+                cache.afterWrite(courier.getId(), courier.getVersion());
+            }
+        }
+        return saved;
+    }
+
+    @Override
+    public Courier findById(Id courierId) {
+        CourierSnapshot cached = cache.get(courierId);
+        if (cached != null) {
+            return cached.toCourier();
+        }
+        Courier courier = delegate.findById(courierId);
+        if (courier != null) {
+            cache.putLoaded(courierId, CourierSnapshot.of(courier, courier.getVersion()));
+        }
+        return courier;
+    }
+
+    @Override
+    public List<Courier> getFreeCouriers() {
+        return delegate.getFreeCouriers();
+    }
+
+    @Override
+    public List<Courier> getFreeCouriers(Zone zone) {
+        return delegate.getFreeCouriers(zone);
+    }
+
+    @Override
+    public List<Courier> getBusyCouriers() {
+        return delegate.getBusyCouriers();
+    }
+
+    @Override
+    public List<Courier> getCouriers(Id after, int limit) {
+        return delegate.getCouriers(after, limit);
+    }
+
+    public VersionedCache<CourierSnapshot> cache() {
+        return cache;
+    }
+}
@@ -0,0 +1,104 @@
+package microarch.delivery.infrastructure.out.cache;
+
+import microarch.delivery.application.OrderCursor;
+import microarch.delivery.application.OrderRepository;
+import microarch.delivery.domain.model.Id;
+import microarch.delivery.domain.model.Zone;
+import microarch.delivery.domain.model.order.Order;
+import microarch.delivery.domain.model.order.OrderStatus;
+import org.springframework.util.Assert;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Read-through cache in front of an {@link OrderRepository}. Only {@link #findById(Id)} is served
+ * from the cache; saves keep it in sync with the database version of every order.
+ */
+public class CachingOrderRepository implements OrderRepository {
+
+    private final OrderRepository delegate;
+    private final VersionedCache<OrderSnapshot> cache;
+
+    public CachingOrderRepository(OrderRepository delegate, VersionedCache<OrderSnapshot> cache) {
+        Assert.notNull(delegate, "delegate must be not null");
+        Assert.notNull(cache, "cache must be not null");
+        this.delegate = delegate;
+        this.cache = cache;
+    }
+
+    @Override
+    public Order save(Order order) {
+        cache.beforeWrite(order.getId());
+        Order saved = delegate.save(order);
+        cache.afterWrite(saved.getId(), OrderSnapshot.of(saved, saved.getVersion() + 1));
+        return saved;
+    }
+
+    @Override
+    public List<Order> saveAll(Collection<Order> orders) {
+        orders.forEach(order -> cache.beforeWrite(order.getId()));
+        List<Order> saved = delegate.saveAll(orders);
+        saved.forEach(order -> cache.afterWrite(order.getId(), OrderSnapshot.of(order, order.getVersion() + 1)));
+        return saved;
+    }
+
+    @Override
+    public Order findById(Id orderId) {
+        OrderSnapshot cached = cache.get(orderId);
+        if (cached != null) {
+            return cached.toOrder();
+        }
+        Order order = delegate.findById(orderId);
+        if (order != null) {
+            cache.putLoaded(orderId, OrderSnapshot.of(order, order.getVersion()));
+        }
+        return order;
+    }
+
+    @Override
+    public Order getNewCreatedOrder() {
+        return delegate.getNewCreatedOrder();
+    }
+
+    @Override
+    public List<Order> getCreatedOrders(int limit) {
+        return delegate.getCreatedOrders(limit);
+    }
+
+    @Override
+    public List<Order> claimCreatedOrders(String owner, int limit, Duration leaseTimeout) {
+        return delegate.claimCreatedOrders(owner, limit, leaseTimeout);
+    }
+
+    @Override
+    public List<Order> claimCreatedOrders(String owner, int limit, Duration leaseTimeout, Zone zone) {
+        return delegate.claimCreatedOrders(owner, limit, leaseTimeout, zone);
+    }
+
+    @Override
+    public long countCreatedOrders() {
+        return delegate.countCreatedOrders();
+    }
+
+    @Override
+    public List<Order> getOrdersByStatus(OrderStatus orderStatus) {
+        return delegate.getOrdersByStatus(orderStatus);
+    }
+
+    @Override
+    public void forEachOrderByStatus(OrderStatus orderStatus, Consumer<Order> action) {
+        delegate.forEachOrderByStatus(orderStatus, action);
+    }
+
+    @Override
+    public List<Order> getOrdersByStatus(OrderStatus orderStatus, OrderCursor after, int limit) {
+        return delegate.getOrdersByStatus(orderStatus, after, limit);
+    }
+
+    public VersionedCache<OrderSnapshot> cache() {
+        return cache;
+    }
+}
@@ -0,0 +1,80 @@
+package microarch.delivery.infrastructure.out.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import microarch.delivery.domain.model.Id;
+import microarch.delivery.infrastructure.out.postgres.CourierRepositoryJdbc;
+import microarch.delivery.infrastructure.out.postgres.OrderRepositoryJdbc;
+import microarch.delivery.infrastructure.out.postgres.WriteBehindCourierLocationWriter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Exposes the JDBC repositories behind bounded read-through caches whose hit, miss and
+ * eviction counts are published to Micrometer as {@code cache.*} meters.
+ */
+@Configuration
+public class CachingRepositoryConfiguration {
+
+    @Bean
+    CachingCourierRepository courierRepository(
+            DataSource dataSource,
+            MeterRegistry meterRegistry,
+            @Value("${delivery.cache.couriers.maximum-size:20000}") long maximumSize,
+            @Value("${delivery.cache.couriers.expire-after-write:10m}") Duration expireAfterWrite) {
+        Cache<Id, CourierSnapshot> cache = cache(maximumSize, expireAfterWrite);
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "couriers");
+        return new CachingCourierRepository(
+                new CourierRepositoryJdbc(dataSource),
+                new VersionedCache<>(cache, CourierSnapshot::version));
+    }
+
+    @Bean
+    CachingOrderRepository orderRepository(
+            DataSource dataSource,
+            MeterRegistry meterRegistry,
+            @Value("${delivery.cache.orders.maximum-size:50000}") long maximumSize,
+            @Value("${delivery.cache.orders.expire-after-write:10m}") Duration expireAfterWrite) {
+        Cache<Id, OrderSnapshot> cache = cache(maximumSize, expireAfterWrite);
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "orders");
+        return new CachingOrderRepository(
+                new OrderRepositoryJdbc(dataSource),
+                new VersionedCache<>(cache, OrderSnapshot::version));
+    }
+
+    @Bean
+    CacheInvalidationListener cacheInvalidationListener(CachingCourierRepository courierRepository,
+                                                        CachingOrderRepository orderRepository) {
+        return new CacheInvalidationListener(courierRepository.cache(), orderRepository.cache());
+    }
+
+    /**
+     * Positions are written around the courier aggregate, so flushed couriers are evicted from its cache.
+     */
+    @Bean
+    WriteBehindCourierLocationWriter courierLocationWriter(
+            DataSource dataSource,
+            MeterRegistry meterRegistry,
+            CachingCourierRepository courierRepository,
+            @Value("${delivery.courier-locations.flush-interval:1s}") Duration flushInterval,
+            @Value("${delivery.courier-locations.max-pending:50000}") int maxPending,
+            @Value("${delivery.courier-locations.batch-size:1000}") int batchSize) {
+        VersionedCache<CourierSnapshot> courierCache = courierRepository.cache();
+        return new WriteBehindCourierLocationWriter(dataSource, meterRegistry, flushInterval, maxPending, batchSize,
+                flushed -> flushed.forEach(courierCache::evict));
+    }
+
+    private static <S> Cache<Id, S> cache(long maximumSize, Duration expireAfterWrite) {
+        return Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+    }
+}
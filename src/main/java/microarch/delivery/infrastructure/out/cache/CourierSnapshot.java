@@ -0,0 +1,70 @@
+package microarch.delivery.infrastructure.out.cache;
+
+import microarch.delivery.domain.model.Id;
+import microarch.delivery.domain.model.Location;
+import microarch.delivery.domain.model.courier.Courier;
+import microarch.delivery.domain.model.courier.CourierBuilder;
+import microarch.delivery.domain.model.courier.StoragePlace;
+import microarch.delivery.domain.model.courier.StoragePlaceBuilder;
+import microarch.delivery.domain.model.courier.StoragePlaceType;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Immutable copy of a persisted {@link Courier}. Every {@link #toCourier()} call builds a new aggregate.
+ */
+record CourierSnapshot(Id id,
+                       String name,
+                       int speed,
+                       Location location,
+                       List<StoragePlaceSnapshot> storagePlaces,
+                       OffsetDateTime createdAt,
+                       String createdBy,
+                       OffsetDateTime modifiedAt,
+                       String modifiedBy,
+                       long version) {
+
+    static CourierSnapshot of(Courier courier, long version) {
+        return new CourierSnapshot(
+                courier.getId(),
+                courier.getName(),
+                courier.getSpeed(),
+                courier.getLocation(),
+                courier.getStoragePlaces().stream()
+                        .map(sp -> new StoragePlaceSnapshot(sp.getId(), sp.getPlaceType(), sp.getOrderId()))
+                        .toList(),
+                courier.getCreatedAt(),
+                courier.getCreatedBy(),
+                courier.getModifiedAt(),
+                courier.getModifiedBy(),
+                version);
+    }
+
+    Courier toCourier() {
+        List<StoragePlace> places = new ArrayList<>(storagePlaces.size());
+        for (StoragePlaceSnapshot sp : storagePlaces) {
+            places.add(StoragePlaceBuilder.storagePlace()
+                    .id(sp.id())
+                    .placeType(sp.placeType())
+                    .orderId(sp.orderId())
+                    .build());
+        }
+        return CourierBuilder.courier()
+                .id(id)
+                .name(name)
+                .speed(speed)
+                .location(location)
+                .storagePlaces(places)
+                .createdAt(createdAt)
+                .createdBy(createdBy)
+                .modifiedAt(modifiedAt)
+                .modifiedBy(modifiedBy)
+                .version(version)
+                .build();
+    }
+
+    record StoragePlaceSnapshot(Id id, StoragePlaceType placeType, Id orderId) {
+    }
+}
@@ -0,0 +1,53 @@
+package microarch.delivery.infrastructure.out.cache;
+
+import microarch.delivery.domain.model.Id;
+import microarch.delivery.domain.model.Location;
+import microarch.delivery.domain.model.order.Order;
+import microarch.delivery.domain.model.order.OrderBuilder;
+import microarch.delivery.domain.model.order.OrderStatus;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Immutable copy of a persisted {@link Order}. Every {@link #toOrder()} call builds a new aggregate.
+ */
+record OrderSnapshot(Id id,
+                     Location location,
+                     int volume,
+                     OrderStatus status,
+                     Id courierId,
+                     OffsetDateTime createdAt,
+                     String createdBy,
+                     OffsetDateTime modifiedAt,
+                     String modifiedBy,
+                     long version) {
+
+    static OrderSnapshot of(Order order, long version) {
+        return new OrderSnapshot(
+                order.getId(),
+                order.getLocation(),
+                order.getVolume(),
+                order.getStatus(),
+                order.getCourierId(),
+                order.getCreatedAt(),
+                order.getCreatedBy(),
+                order.getModifiedAt(),
+                order.getModifiedBy(),
+                version);
+    }
+
+    Order toOrder() {
+        return OrderBuilder.order()
+                .id(id)
+                .location(location)
+                .volume(volume)
+                .status(status)
+                .courierId(courierId)
+                .createdAt(createdAt)
+                .createdBy(createdBy)
+                .modifiedAt(modifiedAt)
+                .modifiedBy(modifiedBy)
+                .version(version)
+                .build();
+    }
+}
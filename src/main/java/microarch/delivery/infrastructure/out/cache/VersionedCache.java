@@ -0,0 +1,160 @@
+package microarch.delivery.infrastructure.out.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import microarch.delivery.domain.model.Id;
+import org.springframework.lang.Nullable;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.Assert;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.ToLongFunction;
+
+/**
+ * Cache of immutable aggregate snapshots that never replaces a snapshot with an older version.
+ * <p>
+ * A write evicts the aggregate at once and caches the saved snapshot only after the transaction
+ * commits. Until then the writing transaction bypasses the cache for that aggregate, so it always
+ * reads its own writes, and a rolled back write never becomes visible. The committed version is
+ * remembered like a version reported by another node, so a concurrent load that read the row before
+ * the commit is not cached afterwards.
+ */
+public class VersionedCache<S> {
+
+    private static final Duration KNOWN_VERSION_TTL = Duration.ofMinutes(1);
+
+    private final Cache<Id, S> cache;
+    private final ToLongFunction<S> versionOf;
+    // Versions committed by this or other nodes, so a load that started before the commit is not cached
+    private final Cache<Id, Long> knownVersions = Caffeine.newBuilder()
+            .maximumSize(100_000)
+            .expireAfterWrite(KNOWN_VERSION_TTL)
+            .build();
+
+    public VersionedCache(Cache<Id, S> cache, ToLongFunction<S> versionOf) {
+        Assert.notNull(cache, "cache must be not null");
+        Assert.notNull(versionOf, "versionOf must be not null");
+        this.cache = cache;
+        this.versionOf = versionOf;
+    }
+
+    @Nullable
+    public S get(Id id) {
+        if (writtenInCurrentTransaction().contains(id)) {
+            return null;
+        }
+        return cache.getIfPresent(id);
+    }
+
+    /**
+     * Caches a snapshot read from the database unless a newer one is already cached.
+     */
+    public void putLoaded(Id id, S snapshot) {
+        if (writtenInCurrentTransaction().contains(id)) {
+            return;
+        }
+        Long knownVersion = knownVersions.getIfPresent(id);
+        if (knownVersion != null && versionOf.applyAsLong(snapshot) < knownVersion) {
+            return;
+        }
+        putIfNewer(id, snapshot);
+    }
+
+    /**
+     * Must be called before the aggregate is written.
+     */
+    public void beforeWrite(Id id) {
+        cache.invalidate(id);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            writtenIds().add(id);
+        }
+    }
+
+    /**
+     * Caches the snapshot of a written aggregate once the surrounding transaction commits.
+     */
+    public void afterWrite(Id id, S snapshot) {
+        Assert.notNull(snapshot, "snapshot must be not null");
+        afterCommit(() -> {
+            evictOlderThan(id, versionOf.applyAsLong(snapshot));
+            putIfNewer(id, snapshot);
+        });
+    }
+
+    /**
+     * Records the version of a written aggregate whose snapshot must not be cached, once the
+     * surrounding transaction commits.
+     */
+    public void afterWrite(Id id, long version) {
+        afterCommit(() -> evictOlderThan(id, version));
+    }
+
+    public void evict(Id id) {
+        cache.invalidate(id);
+    }
+
+    /**
+     * Drops the cached snapshot if it is older than {@code version} and refuses to cache
+     * older snapshots loaded afterwards.
+     */
+    public void evictOlderThan(Id id, long version) {
+        knownVersions.asMap().merge(id, version, Math::max);
+        cache.asMap().computeIfPresent(id, (key, cached) -> versionOf.applyAsLong(cached) < version ? null : cached);
+    }
+
+    public void evictAll() {
+        cache.invalidateAll();
+        knownVersions.invalidateAll();
+    }
+
+    public Cache<Id, S> nativeCache() {
+        return cache;
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private void putIfNewer(Id id, S snapshot) {
+        cache.asMap().merge(id, snapshot, (cached, candidate) ->
+                versionOf.applyAsLong(candidate) >= versionOf.applyAsLong(cached) ? candidate : cached);
+    }
+
+    private Set<Id> writtenInCurrentTransaction() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return Set.of();
+        }
+        @SuppressWarnings("unchecked")
+        Set<Id> written = (Set<Id>) TransactionSynchronizationManager.getResource(this);
+        return written != null ? written : Set.of();
+    }
+
+    private Set<Id> writtenIds() {
+        @SuppressWarnings("unchecked")
+        Set<Id> written = (Set<Id>) TransactionSynchronizationManager.getResource(this);
+        if (written == null) {
+            Set<Id> newWritten = new HashSet<>();
+            TransactionSynchronizationManager.bindResource(this, newWritten);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(VersionedCache.this);
+                }
+            });
+            written = newWritten;
+        }
+        return written;
+    }
+}
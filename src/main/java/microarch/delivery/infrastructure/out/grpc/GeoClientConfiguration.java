@@ -0,0 +1,64 @@
+package microarch.delivery.infrastructure.out.grpc;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.grpc.ManagedChannel;
+import io.grpc.ManagedChannelBuilder;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import microarch.delivery.domain.model.Location;
+import microarch.delivery.infrastructure.out.grpc.geo.GeoGrpc;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Connects to the geo service. The channel connects lazily, so the application starts while the
+ * service is down and lookups fail through the circuit breaker instead.
+ */
+@Configuration
+public class GeoClientConfiguration {
+
+    @Bean(destroyMethod = "shutdownNow")
+    ManagedChannel geoChannel(@Value("${delivery.geo.target:localhost:5004}") String target) {
+        return ManagedChannelBuilder.forTarget(target)
+                .usePlaintext()
+                .build();
+    }
+
+    @Bean
+    GeoClientGrpc geoClient(
+            ManagedChannel geoChannel,
+            MeterRegistry meterRegistry,
+            @Value("${delivery.geo.deadline:500ms}") Duration deadline,
+            @Value("${delivery.geo.cache.maximum-size:10000}") long maximumSize,
+            @Value("${delivery.geo.cache.expire-after-write:1h}") Duration expireAfterWrite,
+            @Value("${delivery.geo.circuit-breaker.failure-rate-threshold:50}") float failureRateThreshold,
+            @Value("${delivery.geo.circuit-breaker.sliding-window-size:20}") int slidingWindowSize,
+            @Value("${delivery.geo.circuit-breaker.wait-in-open-state:10s}") Duration waitInOpenState) {
+        AsyncCache<String, Location> cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "geo");
+
+        CircuitBreakerRegistry circuitBreakerRegistry = CircuitBreakerRegistry.of(CircuitBreakerConfig.custom()
+                .failureRateThreshold(failureRateThreshold)
+                .slidingWindowSize(slidingWindowSize)
+                .minimumNumberOfCalls(slidingWindowSize)
+                .waitDurationInOpenState(waitInOpenState)
+                .recordException(GeoClientGrpc::isServiceFailure)
+                .build());
+        TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(circuitBreakerRegistry).bindTo(meterRegistry);
+
+        return new GeoClientGrpc(GeoGrpc.newStub(geoChannel), cache, circuitBreakerRegistry.circuitBreaker("geo"),
+                meterRegistry, deadline);
+    }
+}
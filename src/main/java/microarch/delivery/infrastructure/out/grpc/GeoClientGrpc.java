@@ -0,0 +1,168 @@
+package microarch.delivery.infrastructure.out.grpc;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.stub.StreamObserver;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import microarch.delivery.application.GeoClient;
+import microarch.delivery.application.GeoLookupException;
+import microarch.delivery.application.UnresolvableAddressException;
+import microarch.delivery.domain.model.Location;
+import microarch.delivery.infrastructure.out.grpc.geo.GeoGrpc;
+import microarch.delivery.infrastructure.out.grpc.geo.GetGeolocationReply;
+import microarch.delivery.infrastructure.out.grpc.geo.GetGeolocationRequest;
+import org.springframework.util.Assert;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * {@link GeoClient} backed by the geo service over gRPC.
+ * <p>
+ * Addresses are normalised (trimmed, whitespace collapsed) and resolved through a bounded
+ * {@link AsyncCache}. The cache holds the pending call as well as the result, so concurrent lookups of
+ * the same address share one RPC; failed calls are dropped from the cache and retried by the next
+ * lookup. Every call carries a deadline and passes through a circuit breaker, which fails lookups fast
+ * while the service is unavailable.
+ * <p>
+ * Metrics: {@code delivery.geo.rpc} is a latency histogram tagged with the gRPC status, the cache
+ * reports hits and misses as {@code cache.gets} for the {@code geo} cache.
+ */
+public class GeoClientGrpc implements GeoClient {
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final GeoGrpc.GeoStub stub;
+    private final AsyncCache<String, Location> cache;
+    private final CircuitBreaker circuitBreaker;
+    private final MeterRegistry meterRegistry;
+    private final Duration deadline;
+
+    public GeoClientGrpc(GeoGrpc.GeoStub stub,
+                         AsyncCache<String, Location> cache,
+                         CircuitBreaker circuitBreaker,
+                         MeterRegistry meterRegistry,
+                         Duration deadline) {
+        Assert.notNull(stub, "stub must be not null");
+        Assert.notNull(cache, "cache must be not null");
+        Assert.notNull(circuitBreaker, "circuitBreaker must be not null");
+        Assert.notNull(meterRegistry, "meterRegistry must be not null");
+        Assert.notNull(deadline, "deadline must be not null");
+        Assert.isTrue(!deadline.isNegative() && !deadline.isZero(), "deadline must greater then 0");
+        this.stub = stub;
+        this.cache = cache;
+        this.circuitBreaker = circuitBreaker;
+        this.meterRegistry = meterRegistry;
+        this.deadline = deadline;
+    }
+
+    @Override
+    public Location getLocation(String street) {
+        Assert.hasText(street, "street must be not empty");
+        String address = WHITESPACE.matcher(street.strip()).replaceAll(" ");
+        try {
+            return cache.get(address, (key, executor) -> call(key)).join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof CallNotPermittedException) {
+                throw new GeoLookupException("Geo service circuit is open", cause);
+            }
+            if (cause instanceof StatusRuntimeException statusException) {
+                Status.Code code = statusException.getStatus().getCode();
+                if (isAddressRejection(code)) {
+                    throw new UnresolvableAddressException("Geo service can not resolve the address: " + code, cause);
+                }
+                throw new GeoLookupException("Geo lookup failed with " + code, cause);
+            }
+            if (cause instanceof IllegalArgumentException) {
+                throw new UnresolvableAddressException("Address lies outside of the grid", cause);
+            }
+            throw new GeoLookupException("Geo lookup failed", cause);
+        }
+    }
+
+    /**
+     * Failures that say the service is unhealthy; other statuses are answers about the address itself.
+     */
+    public static boolean isServiceFailure(Throwable throwable) {
+        if (!(throwable instanceof StatusRuntimeException statusException)) {
+            return false;
+        }
+        return switch (statusException.getStatus().getCode()) {
+            case UNAVAILABLE, DEADLINE_EXCEEDED, RESOURCE_EXHAUSTED, INTERNAL, UNKNOWN -> true;
+            default -> false;
+        };
+    }
+
+    private static boolean isAddressRejection(Status.Code code) {
+        return switch (code) {
+            case NOT_FOUND, INVALID_ARGUMENT, OUT_OF_RANGE -> true;
+            default -> false;
+        };
+    }
+
+    private CompletableFuture<Location> call(String address) {
+        CompletableFuture<Location> result = new CompletableFuture<>();
+        if (!circuitBreaker.tryAcquirePermission()) {
+            result.completeExceptionally(CallNotPermittedException.createCallNotPermittedException(circuitBreaker));
+            return result;
+        }
+        long started = System.nanoTime();
+        GetGeolocationRequest request = GetGeolocationRequest.newBuilder().setStreet(address).build();
+        stub.withDeadlineAfter(deadline.toNanos(), TimeUnit.NANOSECONDS)
+                .getGeolocation(request, new StreamObserver<>() {
+
+                    @Override
+                    public void onNext(GetGeolocationReply reply) {
+                        long elapsed = record(started, Status.Code.OK);
+                        circuitBreaker.onSuccess(elapsed, TimeUnit.NANOSECONDS);
+                        try {
+                            result.complete(Location.create(reply.getLocation().getX(), reply.getLocation().getY()));
+                        } catch (IllegalArgumentException e) {
+                            result.completeExceptionally(e);
+                        }
+                    }
+
+                    @Override
+                    public void onError(Throwable t) {
+                        long elapsed = record(started, Status.fromThrowable(t).getCode());
+                        circuitBreaker.onError(elapsed, TimeUnit.NANOSECONDS, t);
+                        result.completeExceptionally(t);
+                    }
+
+                    /**
+                     * A call that completes without a reply still holds its circuit breaker permission,
+                     * which must be given back as a failure.
+                     */
+                    @Override
+                    public void onCompleted() {
+                        if (!result.isDone()) {
+                            StatusRuntimeException noReply = Status.INTERNAL
+                                    .withDescription("Geo service completed without a reply")
+                                    .asRuntimeException();
+                            long elapsed = record(started, Status.Code.INTERNAL);
+                            circuitBreaker.onError(elapsed, TimeUnit.NANOSECONDS, noReply);
+                            result.completeExceptionally(noReply);
+                        }
+                    }
+                });
+        return result;
+    }
+
+    private long record(long started, Status.Code code) {
+        long elapsed = System.nanoTime() - started;
+        Timer.builder("delivery.geo.rpc")
+                .tag("status", code.name())
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(elapsed, TimeUnit.NANOSECONDS);
+        return elapsed;
+    }
+}
@@ -0,0 +1,195 @@
+package microarch.delivery.infrastructure.out.kafka;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.slf4j.Logger;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.kafka.core.KafkaOperations;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.Assert;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.BooleanSupplier;
+
+import static org.slf4j.LoggerFactory.getLogger;
+
+/**
+ * Publishes the rows of the {@code outbox} table to Kafka.
+ * <p>
+ * Every {@code pollInterval} the relay drains the table in batches. A batch is locked with
+ * {@code FOR UPDATE SKIP LOCKED}, sent to {@code <topicPrefix><aggregate type>.events} keyed by
+ * aggregate id, and deleted with one statement once Kafka acknowledged every record. If anything
+ * fails the transaction rolls back and the batch is sent again later. Delivery is at-least-once, and
+ * consumers deduplicate by the {@code event_id} header.
+ * <p>
+ * Per-aggregate order holds only while a single relay drains the table, since a second relay would
+ * skip the locked batch and send the next events of the same aggregates first. The relay therefore
+ * runs inside the {@code outbox-relay} db-scheduler task (see {@link OutboxRelayConfiguration}), which
+ * executes on one node at a time.
+ * <p>
+ * Metrics: {@code delivery.outbox.published} counts acknowledged events, and
+ * {@code delivery.outbox.publish.latency} measures the time from the outbox insert to the Kafka
+ * acknowledgement.
+ */
+public class OutboxRelay {
+
+    static final String SELECT_BATCH_SQL = """
+            select id, aggregate_type, aggregate_id, event_id, event_type, payload::text as payload, created_at
+            from outbox
+            order by id
+            limit :limit
+            for update skip locked
+            """;
+
+    static final String DELETE_SQL = """
+            delete from outbox
+            where id in (:ids)
+            """;
+
+    private static final Logger log = getLogger(OutboxRelay.class);
+
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final KafkaOperations<String, String> kafkaOperations;
+    private final String topicPrefix;
+    private final int batchSize;
+    private final Duration pollInterval;
+    private final Duration sendTimeout;
+    private final Counter published;
+    private final Timer publishLatency;
+
+    public OutboxRelay(DataSource dataSource,
+                       KafkaOperations<String, String> kafkaOperations,
+                       MeterRegistry meterRegistry,
+                       String topicPrefix,
+                       int batchSize,
+                       Duration pollInterval,
+                       Duration sendTimeout) {
+        Assert.notNull(dataSource, "dataSource must be not null");
+        Assert.notNull(kafkaOperations, "kafkaOperations must be not null");
+        Assert.notNull(meterRegistry, "meterRegistry must be not null");
+        Assert.notNull(topicPrefix, "topicPrefix must be not null");
+        Assert.isTrue(batchSize > 0, "batchSize must greater then 0");
+        Assert.notNull(pollInterval, "pollInterval must be not null");
+        Assert.notNull(sendTimeout, "sendTimeout must be not null");
+        this.namedParameterJdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+        this.transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        this.kafkaOperations = kafkaOperations;
+        this.topicPrefix = topicPrefix;
+        this.batchSize = batchSize;
+        this.pollInterval = pollInterval;
+        this.sendTimeout = sendTimeout;
+        this.published = meterRegistry.counter("delivery.outbox.published");
+        this.publishLatency = meterRegistry.timer("delivery.outbox.publish.latency");
+    }
+
+    /**
+     * Publishes batches until the outbox is empty.
+     *
+     * @return number of published events
+     */
+    public int drain() {
+        int total = 0;
+        int relayed;
+        do {
+            relayed = relayBatch();
+            total += relayed;
+        } while (relayed == batchSize);
+        return total;
+    }
+
+    int relayBatch() {
+        Integer relayed = transactionTemplate.execute(status -> {
+            List<OutboxRow> rows = namedParameterJdbcTemplate.query(
+                    SELECT_BATCH_SQL, new MapSqlParameterSource("limit", batchSize), ROW_MAPPER);
+            if (rows.isEmpty()) {
+                return 0;
+            }
+            publish(rows);
+            List<Long> ids = rows.stream().map(OutboxRow::id).toList();
+            namedParameterJdbcTemplate.update(DELETE_SQL, new MapSqlParameterSource("ids", ids));
+            return rows.size();
+        });
+        return relayed == null ? 0 : relayed;
+    }
+
+    private void publish(List<OutboxRow> rows) {
+        List<CompletableFuture<SendResult<String, String>>> sends = new ArrayList<>(rows.size());
+        for (OutboxRow row : rows) {
+            ProducerRecord<String, String> record = new ProducerRecord<>(
+                    topicPrefix + row.aggregateType() + ".events", String.valueOf(row.aggregateId()), row.payload());
+            record.headers()
+                    .add("event_id", row.eventId().getBytes(StandardCharsets.UTF_8))
+                    .add("event_type", row.eventType().getBytes(StandardCharsets.UTF_8));
+            sends.add(kafkaOperations.send(record));
+        }
+        try {
+            CompletableFuture.allOf(sends.toArray(CompletableFuture[]::new))
+                    .get(sendTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while publishing outbox events", e);
+        } catch (ExecutionException | TimeoutException e) {
+            throw new IllegalStateException("Failed to publish %d outbox events".formatted(rows.size()), e);
+        }
+        OffsetDateTime acknowledgedAt = OffsetDateTime.now();
+        for (OutboxRow row : rows) {
+            publishLatency.record(Duration.between(row.createdAt(), acknowledgedAt));
+        }
+        published.increment(rows.size());
+    }
+
+    /**
+     * Drains the outbox every {@code pollInterval} until {@code runDuration} has passed or
+     * {@code stopRequested} returns true. A failed drain is logged and retried on the next poll.
+     */
+    public void relay(Duration runDuration, BooleanSupplier stopRequested) {
+        Assert.notNull(runDuration, "runDuration must be not null");
+        Assert.notNull(stopRequested, "stopRequested must be not null");
+        long deadline = System.nanoTime() + runDuration.toNanos();
+        while (!stopRequested.getAsBoolean()) {
+            try {
+                drain();
+            } catch (RuntimeException e) {
+                log.error("Failed to relay outbox events, retrying in {}", pollInterval, e);
+            }
+            if (System.nanoTime() + pollInterval.toNanos() >= deadline) {
+                return;
+            }
+            try {
+                Thread.sleep(pollInterval);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private static final RowMapper<OutboxRow> ROW_MAPPER = (rs, i) -> new OutboxRow(
+            rs.getLong("id"),
+            rs.getString("aggregate_type"),
+            rs.getLong("aggregate_id"),
+            rs.getString("event_id"),
+            rs.getString("event_type"),
+            rs.getString("payload"),
+            rs.getObject("created_at", OffsetDateTime.class));
+
+    private record OutboxRow(long id, String aggregateType, long aggregateId, String eventId, String eventType,
+                             String payload, OffsetDateTime createdAt) {
+    }
+}
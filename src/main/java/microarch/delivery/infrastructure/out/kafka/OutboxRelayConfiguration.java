@@ -0,0 +1,48 @@
+package microarch.delivery.infrastructure.out.kafka;
+
+import com.github.kagkarlsson.scheduler.task.helper.RecurringTask;
+import com.github.kagkarlsson.scheduler.task.helper.Tasks;
+import com.github.kagkarlsson.scheduler.task.schedule.Schedules;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.core.KafkaTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Publishes outbox rows with the Boot producer, configured idempotent, lz4-compressed and
+ * linger-batched under {@code spring.kafka.producer}.
+ * <p>
+ * The relay runs as the {@code outbox-relay} db-scheduler task, so only one node drains the outbox
+ * at a time. An execution polls every {@code poll-interval} for {@code run-duration} and then hands
+ * the task back to the scheduler; if its node dies, another node picks the task up once db-scheduler
+ * declares the execution dead.
+ */
+@Configuration
+@ConditionalOnProperty(name = "delivery.outbox.relay.enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxRelayConfiguration {
+
+    @Bean
+    OutboxRelay outboxRelay(DataSource dataSource,
+                            KafkaTemplate<String, String> kafkaTemplate,
+                            MeterRegistry meterRegistry,
+                            @Value("${delivery.outbox.topic-prefix:delivery.}") String topicPrefix,
+                            @Value("${delivery.outbox.relay.batch-size:500}") int batchSize,
+                            @Value("${delivery.outbox.relay.poll-interval:100ms}") Duration pollInterval,
+                            @Value("${delivery.outbox.relay.send-timeout:30s}") Duration sendTimeout) {
+        return new OutboxRelay(dataSource, kafkaTemplate, meterRegistry, topicPrefix, batchSize, pollInterval, sendTimeout);
+    }
+
+    @Bean
+    RecurringTask<Void> outboxRelayTask(OutboxRelay outboxRelay,
+                                        @Value("${delivery.outbox.relay.poll-interval:100ms}") Duration pollInterval,
+                                        @Value("${delivery.outbox.relay.run-duration:1m}") Duration runDuration) {
+        return Tasks.recurring("outbox-relay", Schedules.fixedDelay(pollInterval))
+                .execute((instance, context) ->
+                        outboxRelay.relay(runDuration, () -> context.getSchedulerState().isShuttingDown()));
+    }
+}
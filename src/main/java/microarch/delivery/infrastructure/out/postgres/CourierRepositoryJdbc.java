@@ -2,12 +2,15 @@ package microarch.delivery.infrastructure.out.postgres;
 
 import libs.common.Timex;
 import microarch.delivery.application.CourierRepository;
+import microarch.delivery.application.VersionConflictException;
 import microarch.delivery.domain.model.Id;
 import microarch.delivery.domain.model.Location;
+import microarch.delivery.domain.model.Zone;
 import microarch.delivery.domain.model.courier.*;
 import org.jmolecules.ddd.annotation.Repository;
-import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.dao.support.DataAccessUtils;
+import org.springframework.jdbc.core.ResultSetExtractor;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
@@ -16,13 +19,92 @@ import org.springframework.jdbc.core.namedparam.SqlParameterSource;
 import javax.sql.DataSource;
 import java.sql.Types;
 import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
 
 import static libs.common.CommonUtils.mapIfNotNull;
 
 @Repository
 public class CourierRepositoryJdbc implements CourierRepository {
 
+    /**
+     * Loads couriers together with their storage places in a single round-trip.
+     * Every courier is repeated once per storage place, so callers must append a
+     * {@code where} clause and keep rows of one courier adjacent.
+     */
+    private static final String COURIER_AGGREGATE_SELECT = """
+            select cr.id, cr.name, cr.speed, cr.location_x, cr.location_y,
+                   cr.created_at, cr.created_by, cr.modified_at, cr.modified_by, cr.version,
+                   sp.id as storage_place_id, sp.place_type, sp.order_id
+            from courier cr
+            left join storage_place sp on sp.courier_id = cr.id
+            """;
+
+    static final String FIND_BY_ID_SQL = COURIER_AGGREGATE_SELECT + """
+            where cr.id = :courierId
+            """;
+
+    static final String FREE_COURIERS_SQL = COURIER_AGGREGATE_SELECT + """
+            where cr.id in (select fsp.courier_id
+                            from storage_place fsp
+                            where fsp.order_id is null)
+            order by cr.id
+            """;
+
+    static final String FREE_COURIERS_IN_ZONE_SQL = COURIER_AGGREGATE_SELECT + """
+            where cr.id in (select fsp.courier_id
+                            from storage_place fsp
+                            where fsp.order_id is null)
+              and cr.location_x between :minX and :maxX
+              and cr.location_y between :minY and :maxY
+            order by cr.id
+            """;
+
+    static final String BUSY_COURIERS_SQL = COURIER_AGGREGATE_SELECT + """
+            where cr.id in (select bsp.courier_id
+                            from storage_place bsp
+                            where bsp.order_id is not null)
+            order by cr.id
+            """;
+
+    static final String COURIERS_PAGE_SQL = COURIER_AGGREGATE_SELECT + """
+            where cr.id in (select pcr.id
+                            from courier pcr
+                            where pcr.id > :after
+                            order by pcr.id
+                            limit :limit)
+            order by cr.id
+            """;
+
+    private static final String INSERT_SQL = """
+            insert into courier (id, name, speed, location_x, location_y, created_at, created_by, modified_at, modified_by, version)
+            values (:id, :name, :speed, :locationX, :locationY, :createdAt, :createdBy, :modifiedAt, :modifiedBy, :version);
+            """;
+
+    static final String UPDATE_SQL = """
+            update courier
+            set name        = :name,
+                speed       = :speed,
+                location_x  = coalesce(:locationX, location_x),
+                location_y  = coalesce(:locationY, location_y),
+                modified_at = :modifiedAt,
+                modified_by = :modifiedBy,
+                version     = :version
+            where id = :id
+              and version = :expectedVersion;
+            """;
+
+    static final String UPDATE_STORAGE_PLACE_SQL = """
+            update storage_place
+            set order_id = :orderId
+            where id = :id
+              and courier_id = :courierId;
+            """;
+
     private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
 
     public CourierRepositoryJdbc(DataSource dataSource) {
@@ -32,14 +114,13 @@ public class CourierRepositoryJdbc implements CourierRepository {
     private final RowMapper<Courier> courierRowMapper = (rs, i) -> {
         Id courierId = Id.of(rs.getLong("id"));
         Location location = Location.create(rs.getInt("location_x"), rs.getInt("location_y"));
-        List<StoragePlace> storagePlaces = getStoragePlaceByCourierId(courierId);
 
         return CourierBuilder.courier()
                 .id(courierId)
                 .name(rs.getString("name"))
                 .speed(rs.getInt("speed"))
                 .location(location)
-                .storagePlaces(storagePlaces)
+                .storagePlaces(new ArrayList<>())
                 .createdAt(rs.getObject("created_at", OffsetDateTime.class))
                 .createdBy(rs.getString("created_by"))
                 .modifiedAt(rs.getObject("modified_at", OffsetDateTime.class))
@@ -49,98 +130,169 @@ public class CourierRepositoryJdbc implements CourierRepository {
     };
 
     private final RowMapper<StoragePlace> storagePlaceMapper = (rs, i) -> StoragePlaceBuilder.storagePlace()
-            .id(Id.of(rs.getLong("id")))
+            .id(Id.of(rs.getLong("storage_place_id")))
             .placeType(StoragePlaceType.valueOf(rs.getString("place_type")))
             .orderId(Id.ofNullable(rs.getObject("order_id", Long.class)))
             .build();
 
+    private final ResultSetExtractor<List<Courier>> courierExtractor = rs -> {
+        Map<Id, Courier> couriers = new LinkedHashMap<>();
+        int rowNum = 0;
+        while (rs.next()) {
+            Id courierId = Id.of(rs.getLong("id"));
+            Courier courier = couriers.get(courierId);
+            if (courier == null) {
+                courier = courierRowMapper.mapRow(rs, rowNum);
+                couriers.put(courierId, courier);
+            }
+            if (rs.getObject("storage_place_id") != null) {
+                courier.getStoragePlaces().add(storagePlaceMapper.mapRow(rs, rowNum));
+            }
+            rowNum++;
+        }
+        return new ArrayList<>(couriers.values());
+    };
+
     @Override
     public Courier save(Courier courier) {
-        Id courierId = courier.getId();
-        String sql = """
-                insert into courier (id, name, speed, location_x, location_y, created_at, created_by, modified_at, modified_by, version)
-                values (:id, :name, :speed, :locationX, :locationY, :createdAt, :createdBy, :modifiedAt, :modifiedBy, :version)
-                on conflict (id) do update
-                set name            = :name,
-                    speed           = :speed,
-                    location_x      = :locationX,
-                    location_y      = :locationY,
-                    modified_at     = :modifiedAt,
-                    modified_by     = :modifiedBy,
-                    version         = :version
-                where courier.version = :expectedVersion;
-                """;
-        MapSqlParameterSource params = new MapSqlParameterSource()
-                .addValue("id", courierId.id(), Types.BIGINT)
-                .addValue("name", courier.getName(), Types.VARCHAR)
-                .addValue("speed", courier.getSpeed(), Types.INTEGER)
-                .addValue("locationX", courier.getLocation().x(), Types.INTEGER)
-                .addValue("locationY", courier.getLocation().y(), Types.INTEGER)
-                .addValue("createdAt", courier.getCreatedAt(), Types.TIMESTAMP_WITH_TIMEZONE)
-                .addValue("createdBy", courier.getCreatedBy(), Types.VARCHAR)
-                .addValue("modifiedAt", courier.getModifiedAt(), Types.TIMESTAMP_WITH_TIMEZONE)
-                .addValue("modifiedBy", courier.getModifiedBy(), Types.VARCHAR)
-                .addValue("version", courier.getVersion() + 1, Types.BIGINT)
-                .addValue("expectedVersion", courier.getVersion(), Types.BIGINT);
-        int updated = namedParameterJdbcTemplate.update(sql, params);
-        if (updated == 0) {
-            throw new OptimisticLockingFailureException("Courier " + courierId + " was modified concurrently");
-        }
-        deleteStoragePlaces(courierId);
-        saveStoragePlaces(courier.getStoragePlaces(), courierId);
+        saveAll(List.of(courier));
         return courier;
     }
 
+    /**
+     * Inserts new couriers (version 0) with all their storage places. For loaded couriers only the courier row
+     * and the storage places added or changed since loading are written; the location columns are
+     * left untouched unless the courier moved. Written couriers are marked persisted, so a second save
+     * of the same instance is a versioned update. A new courier whose id is taken is reported as a
+     * {@link VersionConflictException} for every new courier of the batch.
+     */
+    @Override
+    public List<Courier> saveAll(Collection<Courier> couriers) {
+        List<Courier> batch = List.copyOf(couriers);
+        List<Courier> newCouriers = batch.stream().filter(Courier::isNew).toList();
+        List<Courier> loadedCouriers = batch.stream().filter(courier -> !courier.isNew()).toList();
+
+        insertCouriers(newCouriers);
+        updateCouriers(loadedCouriers);
+        insertStoragePlaces(Stream.concat(
+                newCouriers.stream().flatMap(courier -> storagePlaceParams(courier, courier.getStoragePlaces())),
+                loadedCouriers.stream().flatMap(courier -> storagePlaceParams(courier, courier.getAddedStoragePlaces()))
+        ).toArray(SqlParameterSource[]::new));
+        updateStoragePlaces(loadedCouriers.stream()
+                .flatMap(courier -> storagePlaceParams(courier, courier.getChangedStoragePlaces()))
+                .toArray(SqlParameterSource[]::new));
+        batch.forEach(Courier::markPersisted);
+        return batch;
+    }
+
     @Override
     public Courier findById(Id courierId) {
-        String sql = """
-                select id, name, speed, location_x, location_y, created_at, created_by, modified_at, modified_by, version
-                from courier
-                where id = :courierId
-                """;
         MapSqlParameterSource params = new MapSqlParameterSource("courierId", courierId.id());
-        List<Courier> result = namedParameterJdbcTemplate.query(sql, params, courierRowMapper);
+        List<Courier> result = namedParameterJdbcTemplate.query(FIND_BY_ID_SQL, params, courierExtractor);
         return DataAccessUtils.singleResult(result);
     }
 
     @Override
     public List<Courier> getFreeCouriers() {
-        String sql = """
-                select cr.id, name, speed, location_x, location_y, created_at, created_by, modified_at, modified_by, version
-                from courier cr
-                left join storage_place sp on cr.id = sp.courier_id
-                where sp.order_id is null
-                """;
-        return namedParameterJdbcTemplate.query(sql, courierRowMapper);
+        return namedParameterJdbcTemplate.query(FREE_COURIERS_SQL, courierExtractor);
+    }
+
+    @Override
+    public List<Courier> getFreeCouriers(Zone zone) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("minX", zone.minX(), Types.INTEGER)
+                .addValue("maxX", zone.maxX(), Types.INTEGER)
+                .addValue("minY", zone.minY(), Types.INTEGER)
+                .addValue("maxY", zone.maxY(), Types.INTEGER);
+        return namedParameterJdbcTemplate.query(FREE_COURIERS_IN_ZONE_SQL, params, courierExtractor);
+    }
+
+    @Override
+    public List<Courier> getBusyCouriers() {
+        return namedParameterJdbcTemplate.query(BUSY_COURIERS_SQL, courierExtractor);
+    }
+
+    @Override
+    public List<Courier> getCouriers(Id after, int limit) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("after", after == null ? 0L : after.id(), Types.BIGINT)
+                .addValue("limit", limit, Types.INTEGER);
+        return namedParameterJdbcTemplate.query(COURIERS_PAGE_SQL, params, courierExtractor);
+    }
+
+    private void insertCouriers(List<Courier> couriers) {
+        if (couriers.isEmpty()) {
+            return;
+        }
+        try {
+            namedParameterJdbcTemplate.batchUpdate(INSERT_SQL, courierParams(couriers));
+        } catch (DuplicateKeyException e) {
+            throw new VersionConflictException("Courier", couriers.stream().map(Courier::getId).toList(), e);
+        }
     }
 
-    private void deleteStoragePlaces(Id courierId) {
-        String sql = "delete from storage_place where courier_id = :courierId;";
-        namedParameterJdbcTemplate.update(sql, new MapSqlParameterSource().addValue("courierId", courierId.id()));
+    private void updateCouriers(List<Courier> couriers) {
+        if (couriers.isEmpty()) {
+            return;
+        }
+        int[] updated = namedParameterJdbcTemplate.batchUpdate(UPDATE_SQL, courierParams(couriers));
+
+        List<Id> conflicts = new ArrayList<>();
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] == 0) {
+                conflicts.add(couriers.get(i).getId());
+            }
+        }
+        if (!conflicts.isEmpty()) {
+            throw new VersionConflictException("Courier", conflicts);
+        }
     }
 
-    private void saveStoragePlaces(List<StoragePlace> storagePlaces, Id courierId) {
+    private void insertStoragePlaces(SqlParameterSource[] batchArgs) {
+        if (batchArgs.length == 0) {
+            return;
+        }
         String sql = """
                 insert into storage_place (id, courier_id, place_type, order_id)
                 values (:id, :courierId, :placeType, :orderId);
                 """;
-        SqlParameterSource[] batchArgs = storagePlaces.stream().map(sp ->
-                new MapSqlParameterSource()
-                        .addValue("id", sp.getId().id(), Types.BIGINT)
-                        .addValue("courierId", courierId.id(), Types.BIGINT)
-                        .addValue("placeType", sp.getPlaceType().name(), Types.VARCHAR)
-                        .addValue("orderId", mapIfNotNull(sp.getOrderId(), Id::id), Types.BIGINT)
-        ).toArray(SqlParameterSource[]::new);
         namedParameterJdbcTemplate.batchUpdate(sql, batchArgs);
     }
 
-    private List<StoragePlace> getStoragePlaceByCourierId(Id courierId) {
-        String sql = """
-                select id, courier_id, place_type, order_id
-                from storage_place
-                where courier_id = :courierId
-                """;
-        MapSqlParameterSource params = new MapSqlParameterSource("courierId", courierId.id());
-        return namedParameterJdbcTemplate.query(sql, params, storagePlaceMapper);
+    private void updateStoragePlaces(SqlParameterSource[] batchArgs) {
+        if (batchArgs.length == 0) {
+            return;
+        }
+        namedParameterJdbcTemplate.batchUpdate(UPDATE_STORAGE_PLACE_SQL, batchArgs);
+    }
+
+    private Stream<SqlParameterSource> storagePlaceParams(Courier courier, List<StoragePlace> storagePlaces) {
+        return storagePlaces.stream().map(sp -> new MapSqlParameterSource()
+                .addValue("id", sp.getId().id(), Types.BIGINT)
+                .addValue("courierId", courier.getId().id(), Types.BIGINT)
+                .addValue("placeType", sp.getPlaceType().name(), Types.VARCHAR)
+                .addValue("orderId", mapIfNotNull(sp.getOrderId(), Id::id), Types.BIGINT));
+    }
+
+    private SqlParameterSource[] courierParams(List<Courier> couriers) {
+        return couriers.stream()
+                .map(this::courierParams)
+                .toArray(SqlParameterSource[]::new);
+    }
+
+    private MapSqlParameterSource courierParams(Courier courier) {
+        boolean writeLocation = courier.isNew() || courier.isLocationChanged();
+        return new MapSqlParameterSource()
+                .addValue("id", courier.getId().id(), Types.BIGINT)
+                .addValue("name", courier.getName(), Types.VARCHAR)
+                .addValue("speed", courier.getSpeed(), Types.INTEGER)
+                .addValue("locationX", writeLocation ? courier.getLocation().x() : null, Types.INTEGER)
+                .addValue("locationY", writeLocation ? courier.getLocation().y() : null, Types.INTEGER)
+                .addValue("createdAt", courier.getCreatedAt(), Types.TIMESTAMP_WITH_TIMEZONE)
+                .addValue("createdBy", courier.getCreatedBy(), Types.VARCHAR)
+                .addValue("modifiedAt", courier.getModifiedAt(), Types.TIMESTAMP_WITH_TIMEZONE)
+                .addValue("modifiedBy", courier.getModifiedBy(), Types.VARCHAR)
+                .addValue("version", courier.getVersion() + 1, Types.BIGINT)
+                .addValue("expectedVersion", courier.getVersion(), Types.BIGINT);
     }
 }
@@ -0,0 +1,88 @@
+package microarch.delivery.infrastructure.out.postgres;
+
+import libs.common.Timex;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.Assert;
+
+import javax.sql.DataSource;
+import java.sql.Types;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+
+/**
+ * Housekeeping of the Spring Modulith event publication tables.
+ * <p>
+ * Completed publications are deleted from {@code event_publication} (completion mode "update")
+ * and {@code event_publication_archive} (completion mode "archive") in batches of {@code batchSize}
+ * rows, each in its own short transaction, so the purge never holds locks on a large part of the table.
+ */
+public class EventPublicationMaintenance {
+
+    static final String PURGE_COMPLETED_SQL = """
+            delete from %1$s
+            where id in (select id
+                         from %1$s
+                         where completion_date < :before
+                         limit :limit)
+            """;
+
+    static final String INCOMPLETE_STATS_SQL = """
+            select count(*) as backlog, min(publication_date) as oldest
+            from event_publication
+            where completion_date is null
+            """;
+
+    private static final String[] COMPLETED_TABLES = {"event_publication", "event_publication_archive"};
+
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public EventPublicationMaintenance(DataSource dataSource) {
+        Assert.notNull(dataSource, "dataSource must be not null");
+        this.namedParameterJdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+        this.transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+    }
+
+    /**
+     * Deletes publications completed more than {@code retention} ago.
+     *
+     * @return number of deleted publications
+     */
+    public int purgeCompleted(Duration retention, int batchSize) {
+        Assert.notNull(retention, "retention must be not null");
+        Assert.isTrue(batchSize > 0, "batchSize must greater then 0");
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("before", Timex.currentOffsetDateTime().minus(retention), Types.TIMESTAMP_WITH_TIMEZONE)
+                .addValue("limit", batchSize);
+        int total = 0;
+        for (String table : COMPLETED_TABLES) {
+            String sql = PURGE_COMPLETED_SQL.formatted(table);
+            int deleted;
+            do {
+                Integer batch = transactionTemplate.execute(status -> namedParameterJdbcTemplate.update(sql, params));
+                deleted = batch == null ? 0 : batch;
+                total += deleted;
+            } while (deleted == batchSize);
+        }
+        return total;
+    }
+
+    public IncompleteStats incompleteStats() {
+        return namedParameterJdbcTemplate.queryForObject(INCOMPLETE_STATS_SQL, new MapSqlParameterSource(),
+                (rs, i) -> {
+                    OffsetDateTime oldest = rs.getObject("oldest", OffsetDateTime.class);
+                    return new IncompleteStats(rs.getLong("backlog"),
+                            oldest == null ? Duration.ZERO : Duration.between(oldest, Timex.currentOffsetDateTime()));
+                });
+    }
+
+    /**
+     * @param backlog number of incomplete publications
+     * @param lag age of the oldest incomplete publication
+     */
+    public record IncompleteStats(long backlog, Duration lag) {
+    }
+}
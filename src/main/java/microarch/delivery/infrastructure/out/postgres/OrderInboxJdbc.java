@@ -0,0 +1,104 @@
+package microarch.delivery.infrastructure.out.postgres;
+
+import libs.common.Timex;
+import microarch.delivery.application.OrderInbox;
+import microarch.delivery.domain.model.Id;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.Assert;
+
+import javax.sql.DataSource;
+import java.sql.Types;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Inbox on the {@code order_inbox} table. Keys are registered with one multi-row
+ * {@code insert ... on conflict do nothing} per chunk, which returns only the new keys.
+ * <p>
+ * A key only has to outlive the redelivery window of the topic, so keys older than a retention
+ * are purged in batches by {@code received_at}, each batch in its own short transaction.
+ */
+@Component
+public class OrderInboxJdbc implements OrderInbox {
+
+    static final int CHUNK_SIZE = 1000;
+
+    static final String PURGE_SQL = """
+            delete from order_inbox
+            where message_key in (select message_key
+                                  from order_inbox
+                                  where received_at < :before
+                                  limit :limit)
+            """;
+
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public OrderInboxJdbc(DataSource dataSource) {
+        Assert.notNull(dataSource, "dataSource must be not null");
+        this.namedParameterJdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+        this.transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+    }
+
+    @Override
+    public Set<String> register(Map<String, Id> orderIdsByKey) {
+        Assert.notNull(orderIdsByKey, "orderIdsByKey must be not null");
+        List<Map.Entry<String, Id>> entries = List.copyOf(orderIdsByKey.entrySet());
+        OffsetDateTime receivedAt = Timex.currentOffsetDateTime();
+        Set<String> newKeys = new HashSet<>();
+        for (int from = 0; from < entries.size(); from += CHUNK_SIZE) {
+            newKeys.addAll(register(entries.subList(from, Math.min(from + CHUNK_SIZE, entries.size())), receivedAt));
+        }
+        return newKeys;
+    }
+
+    private List<String> register(List<Map.Entry<String, Id>> entries, OffsetDateTime receivedAt) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("receivedAt", receivedAt, Types.TIMESTAMP_WITH_TIMEZONE);
+        List<String> rows = new ArrayList<>(entries.size());
+        for (int i = 0; i < entries.size(); i++) {
+            Map.Entry<String, Id> entry = entries.get(i);
+            params.addValue("key" + i, entry.getKey(), Types.VARCHAR)
+                    .addValue("orderId" + i, entry.getValue().id(), Types.BIGINT);
+            rows.add("(:key%d, :orderId%d, :receivedAt)".formatted(i, i));
+        }
+        String sql = """
+                insert into order_inbox (message_key, order_id, received_at)
+                values %s
+                on conflict (message_key) do nothing
+                returning message_key
+                """.formatted(rows.stream().collect(Collectors.joining(", ")));
+        return namedParameterJdbcTemplate.queryForList(sql, params, String.class);
+    }
+
+    /**
+     * Deletes keys received more than {@code retention} ago.
+     *
+     * @return number of deleted keys
+     */
+    public int purge(Duration retention, int batchSize) {
+        Assert.notNull(retention, "retention must be not null");
+        Assert.isTrue(batchSize > 0, "batchSize must greater then 0");
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("before", Timex.currentOffsetDateTime().minus(retention), Types.TIMESTAMP_WITH_TIMEZONE)
+                .addValue("limit", batchSize);
+        int total = 0;
+        int deleted;
+        do {
+            Integer batch = transactionTemplate.execute(status -> namedParameterJdbcTemplate.update(PURGE_SQL, params));
+            deleted = batch == null ? 0 : batch;
+            total += deleted;
+        } while (deleted == batchSize);
+        return total;
+    }
+}
@@ -0,0 +1,147 @@
+package microarch.delivery.infrastructure.out.postgres;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.Assert;
+
+import javax.sql.DataSource;
+import java.time.OffsetDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Maintains the monthly partitions of COMPLETED orders. Partitions are created ahead of time, so rows
+ * do not end up in the default partition, and partitions past the retention period are detached from
+ * {@code orders} and moved to the {@code orders_archive} schema.
+ * <p>
+ * The default partition only receives orders completed after the month they were created in was
+ * archived. Such rows are moved to {@code orders_archive.orders_completed_default} once they pass the
+ * retention period too, so the default partition stays small. The move runs with {@code delivery.archiving}
+ * set, which keeps the {@code order_key} rows of the archived orders.
+ */
+public class OrderPartitionMaintenance {
+
+    static final String PARTITION_PREFIX = "orders_completed_p";
+    static final String ARCHIVE_SCHEMA = "orders_archive";
+
+    static final String ARCHIVE_DEFAULT_BATCH_SQL = """
+            with moved as (
+                delete from orders_completed_default
+                where ctid in (select ctid
+                               from orders_completed_default
+                               where created_at < ?
+                               limit ?)
+                returning *
+            )
+            insert into orders_archive.orders_completed_default
+            select * from moved
+            """;
+
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public OrderPartitionMaintenance(DataSource dataSource) {
+        Assert.notNull(dataSource, "dataSource must be not null");
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+    }
+
+    /**
+     * Creates missing partitions for {@code from} and the following {@code monthsAhead} months.
+     *
+     * @return names of the created partitions
+     */
+    public List<String> createPartitions(YearMonth from, int monthsAhead) {
+        Assert.notNull(from, "from must be not null");
+        Assert.isTrue(monthsAhead >= 0, "monthsAhead must be not negative");
+        List<String> created = new ArrayList<>();
+        for (int i = 0; i <= monthsAhead; i++) {
+            YearMonth month = from.plusMonths(i);
+            String partition = partitionName(month);
+            Boolean exists = jdbcTemplate.queryForObject("select to_regclass(?) is not null", Boolean.class, partition);
+            if (Boolean.TRUE.equals(exists)) {
+                continue;
+            }
+            jdbcTemplate.execute("create table %s partition of orders_completed for values from ('%s') to ('%s')"
+                    .formatted(partition, monthStart(month), monthStart(month.plusMonths(1))));
+            created.add(partition);
+        }
+        return created;
+    }
+
+    /**
+     * Detaches every monthly partition older than {@code before} and moves it to the archive schema.
+     *
+     * @return names of the archived partitions
+     */
+    public List<String> archivePartitions(YearMonth before) {
+        Assert.notNull(before, "before must be not null");
+        String cutoff = partitionName(before);
+        List<String> partitions = jdbcTemplate.queryForList("""
+                select c.relname
+                from pg_inherits i
+                join pg_class c on c.oid = i.inhrelid
+                where i.inhparent = 'orders_completed'::regclass
+                  and c.relname like 'orders_completed_p%'
+                order by c.relname
+                """, String.class);
+
+        List<String> archived = new ArrayList<>();
+        for (String partition : partitions) {
+            if (partition.compareTo(cutoff) >= 0) {
+                break;
+            }
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.execute("alter table orders_completed detach partition " + partition);
+                jdbcTemplate.execute("alter table " + partition + " set schema " + ARCHIVE_SCHEMA);
+            });
+            archived.add(partition);
+        }
+        return archived;
+    }
+
+    /**
+     * Moves rows of the default partition created before {@code before} to the archive, {@code batchSize}
+     * rows per transaction.
+     *
+     * @return number of archived rows
+     */
+    public int archiveDefaultPartition(YearMonth before, int batchSize) {
+        Assert.notNull(before, "before must be not null");
+        Assert.isTrue(batchSize > 0, "batchSize must greater then 0");
+        OffsetDateTime cutoff = before.atDay(1).atStartOfDay().atOffset(ZoneOffset.UTC);
+        int total = 0;
+        int moved;
+        do {
+            Integer batch = transactionTemplate.execute(status -> {
+                jdbcTemplate.queryForObject("select set_config('delivery.archiving', 'on', true)", String.class);
+                return jdbcTemplate.update(ARCHIVE_DEFAULT_BATCH_SQL, cutoff, batchSize);
+            });
+            moved = batch == null ? 0 : batch;
+            total += moved;
+        } while (moved == batchSize);
+        return total;
+    }
+
+    /**
+     * @return number of rows in the default partition; anything but a handful means partitions are missing
+     */
+    public long countDefaultPartitionRows() {
+        Long count = jdbcTemplate.queryForObject("select count(*) from orders_completed_default", Long.class);
+        return count == null ? 0 : count;
+    }
+
+    static String partitionName(YearMonth month) {
+        return PARTITION_PREFIX + month.format(PARTITION_SUFFIX);
+    }
+
+    private static String monthStart(YearMonth month) {
+        return month.atDay(1).atStartOfDay().atOffset(ZoneOffset.UTC).toString();
+    }
+}
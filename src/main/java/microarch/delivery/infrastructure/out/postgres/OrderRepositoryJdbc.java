@@ -1,32 +1,154 @@
 package microarch.delivery.infrastructure.out.postgres;
 
+import microarch.delivery.application.OrderCursor;
 import microarch.delivery.application.OrderRepository;
+import microarch.delivery.application.VersionConflictException;
 import microarch.delivery.domain.model.Id;
 import microarch.delivery.domain.model.Location;
+import microarch.delivery.domain.model.Zone;
 import microarch.delivery.domain.model.order.Order;
 import microarch.delivery.domain.model.order.OrderBuilder;
 import microarch.delivery.domain.model.order.OrderStatus;
 import org.jmolecules.ddd.annotation.Repository;
-import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.dao.support.DataAccessUtils;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.util.Assert;
 
 import javax.sql.DataSource;
 import java.sql.Types;
+import java.time.Duration;
 import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.List;
+import java.util.function.Consumer;
 
 import static libs.common.CommonUtils.mapIfNotNull;
 
 @Repository
 public class OrderRepositoryJdbc implements OrderRepository {
 
+    private static final String INSERT_SQL = """
+            insert into orders (id, volume, status, location_x, location_y, courier_id, created_at, created_by, modified_at, modified_by, version)
+            values (:id, :volume, :status, :locationX, :locationY, :courierId, :createdAt, :createdBy, :modifiedAt, :modifiedBy, :version);
+            """;
+
+    /**
+     * {@code created_at} never changes, matching on it prunes the COMPLETED partitions to a single month.
+     */
+    static final String UPDATE_SQL = """
+            update orders
+            set volume      = :volume,
+                status      = :status,
+                location_x  = :locationX,
+                location_y  = :locationY,
+                courier_id  = :courierId,
+                modified_at = :modifiedAt,
+                modified_by = :modifiedBy,
+                version     = :version
+            where id = :id
+              and created_at = :createdAt
+              and version = :expectedVersion;
+            """;
+
+    /**
+     * {@code order_key} supplies {@code created_at}, so only the active partition and a single COMPLETED
+     * month are probed however long the history grows.
+     */
+    static final String FIND_BY_ID_SQL = """
+            select id, volume, status, location_x, location_y, courier_id, created_at, created_by, modified_at, modified_by, version
+            from orders
+            where id = :orderId
+              and created_at = (select created_at from order_key where id = :orderId)
+            """;
+
+    static final String NEW_CREATED_ORDER_SQL = """
+            select id, volume, status, location_x, location_y, courier_id, created_at, created_by, modified_at, modified_by, version
+            from orders
+            where status = 'CREATED'
+            order by created_at desc
+            limit 1;
+            """;
+
+    static final String CREATED_ORDERS_SQL = """
+            select id, volume, status, location_x, location_y, courier_id, created_at, created_by, modified_at, modified_by, version
+            from orders
+            where status = 'CREATED'
+            order by created_at
+            limit :limit;
+            """;
+
+    static final String CLAIM_CREATED_ORDERS_SQL = """
+            update orders
+            set lease_owner = :owner,
+                lease_until = now() + :leaseMillis * interval '1 millisecond'
+            where id in (select id
+                         from orders
+                         where status = 'CREATED'
+                           and (lease_until is null or lease_until < now())
+                           and location_x between :minX and :maxX
+                           and location_y between :minY and :maxY
+                         order by created_at
+                         limit :limit
+                         for update skip locked)
+              and status = 'CREATED'
+            returning id, volume, status, location_x, location_y, courier_id, created_at, created_by, modified_at, modified_by, version;
+            """;
+
+    static final String COUNT_CREATED_ORDERS_SQL = """
+            select count(*)
+            from orders
+            where status = 'CREATED';
+            """;
+
+    static final String ORDERS_BY_STATUS_SQL = """
+            select id, volume, status, location_x, location_y, courier_id, created_at, created_by, modified_at, modified_by, version
+            from orders
+            where status = :status;
+            """;
+
+    static final String ORDERS_BY_STATUS_FIRST_PAGE_SQL = """
+            select id, volume, status, location_x, location_y, courier_id, created_at, created_by, modified_at, modified_by, version
+            from orders
+            where status = :status
+            order by created_at, id
+            limit :limit;
+            """;
+
+    static final String ORDERS_BY_STATUS_NEXT_PAGE_SQL = """
+            select id, volume, status, location_x, location_y, courier_id, created_at, created_by, modified_at, modified_by, version
+            from orders
+            where status = :status
+              and (created_at, id) > (:createdAt, :id)
+            order by created_at, id
+            limit :limit;
+            """;
+
+    static final String AGGREGATE_TYPE = "order";
+
+    private static final int DEFAULT_FETCH_SIZE = 1000;
+
     private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final NamedParameterJdbcTemplate streamingJdbcTemplate;
+    private final OutboxWriter outboxWriter;
 
     public OrderRepositoryJdbc(DataSource dataSource) {
+        this(dataSource, DEFAULT_FETCH_SIZE);
+    }
+
+    public OrderRepositoryJdbc(DataSource dataSource, int fetchSize) {
+        Assert.isTrue(fetchSize > 0, "fetchSize must be positive");
         this.namedParameterJdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+        JdbcTemplate streamingTemplate = new JdbcTemplate(dataSource);
+        streamingTemplate.setFetchSize(fetchSize);
+        this.streamingJdbcTemplate = new NamedParameterJdbcTemplate(streamingTemplate);
+        this.outboxWriter = new OutboxWriter(namedParameterJdbcTemplate);
     }
 
     private final RowMapper<Order> orderRowMapper = (rs, i) -> {
@@ -49,77 +171,139 @@ public class OrderRepositoryJdbc implements OrderRepository {
 
     @Override
     public Order save(Order order) {
-        String sql = """
-                insert into orders (id, volume, status, location_x, location_y, courier_id, created_at, created_by, modified_at, modified_by, version)
-                values (:id, :volume, :status, :locationX, :locationY, :courierId, :createdAt, :createdBy,:modifiedAt, :modifiedBy, :version)
-                on conflict (id) do update
-                set
-                    volume        = :volume,
-                    status        = :status,
-                    location_x    = :locationX,
-                    location_y    = :locationY,
-                    courier_id    = :courierId,
-                    modified_at   = :modifiedAt,
-                    modified_by   = :modifiedBy,
-                    version       = :version
-                where orders.version = :expectedVersion;
-                """;
-        MapSqlParameterSource params = new MapSqlParameterSource()
-                .addValue("id", order.getId().id(), Types.BIGINT)
-                .addValue("volume", order.getVolume(), Types.INTEGER)
-                .addValue("status", order.getStatus().name(), Types.VARCHAR)
-                .addValue("locationX", order.getLocation().x(), Types.INTEGER)
-                .addValue("locationY", order.getLocation().y(), Types.INTEGER)
-                .addValue("courierId", mapIfNotNull(order.getCourierId(), Id::id), Types.BIGINT)
-                .addValue("createdAt", order.getCreatedAt(), Types.TIMESTAMP_WITH_TIMEZONE)
-                .addValue("createdBy", order.getCreatedBy(), Types.VARCHAR)
-                .addValue("modifiedAt", order.getModifiedAt(), Types.TIMESTAMP_WITH_TIMEZONE)
-                .addValue("modifiedBy", order.getModifiedBy(), Types.VARCHAR)
-                .addValue("version", order.getVersion() + 1, Types.BIGINT)
-                .addValue("expectedVersion", order.getVersion(), Types.BIGINT);
+        saveAll(List.of(order));
+        return order;
+    }
 
-        int updated = namedParameterJdbcTemplate.update(sql, params);
+    /**
+     * New orders (version 0) are written with a plain multi-row friendly INSERT, loaded ones with a
+     * versioned UPDATE whose per-row counts reveal every order that failed the version check.
+     * Raised domain events go to the outbox in the same transaction and are then cleared.
+     */
+    @Override
+    public List<Order> saveAll(Collection<Order> orders) {
+        List<Order> batch = List.copyOf(orders);
+        List<Order> newOrders = batch.stream().filter(order -> order.getVersion() == 0).toList();
+        List<Order> loadedOrders = batch.stream().filter(order -> order.getVersion() != 0).toList();
 
-        if (updated == 0) {
-            throw new OptimisticLockingFailureException("Order " + order.getId() + " was modified concurrently");
+        if (!newOrders.isEmpty()) {
+            namedParameterJdbcTemplate.batchUpdate(INSERT_SQL, orderParams(newOrders));
         }
-
-        return order;
+        if (!loadedOrders.isEmpty()) {
+            int[] updated = namedParameterJdbcTemplate.batchUpdate(UPDATE_SQL, orderParams(loadedOrders));
+            List<Id> conflicts = new ArrayList<>();
+            for (int i = 0; i < updated.length; i++) {
+                if (updated[i] == 0) {
+                    conflicts.add(loadedOrders.get(i).getId());
+                }
+            }
+            if (!conflicts.isEmpty()) {
+                throw new VersionConflictException("Order", conflicts);
+            }
+        }
+        List<OutboxWriter.Event> events = new ArrayList<>();
+        for (Order order : batch) {
+            order.getDomainEvents().forEach(event -> events.add(new OutboxWriter.Event(order.getId(), event)));
+        }
+        outboxWriter.append(AGGREGATE_TYPE, events);
+        batch.forEach(Order::clearDomainEvents);
+        return batch;
     }
 
     @Override
     public Order findById(Id orderId) {
-        String sql = """
-                select id, volume, status, location_x, location_y, courier_id, created_at, created_by, modified_at, modified_by, version
-                from orders
-                where id = :orderId
-                """;
         MapSqlParameterSource params = new MapSqlParameterSource("orderId", orderId.id());
-        List<Order> result = namedParameterJdbcTemplate.query(sql, params, orderRowMapper);
+        List<Order> result = namedParameterJdbcTemplate.query(FIND_BY_ID_SQL, params, orderRowMapper);
         return DataAccessUtils.singleResult(result);
     }
 
     @Override
     public Order getNewCreatedOrder() {
-        String sql = """
-                select id, volume, status, location_x, location_y, courier_id, created_at, created_by, modified_at, modified_by, version
-                from orders
-                where status = 'CREATED'
-                order by created_at desc
-                limit 1;
-                """;
-        List<Order> result = namedParameterJdbcTemplate.query(sql, orderRowMapper);
+        List<Order> result = namedParameterJdbcTemplate.query(NEW_CREATED_ORDER_SQL, orderRowMapper);
         return DataAccessUtils.singleResult(result);
     }
 
+    @Override
+    public List<Order> getCreatedOrders(int limit) {
+        MapSqlParameterSource params = new MapSqlParameterSource("limit", limit);
+        return namedParameterJdbcTemplate.query(CREATED_ORDERS_SQL, params, orderRowMapper);
+    }
+
+    @Override
+    public List<Order> claimCreatedOrders(String owner, int limit, Duration leaseTimeout) {
+        return claimCreatedOrders(owner, limit, leaseTimeout, Zone.wholeGrid());
+    }
+
+    @Override
+    public List<Order> claimCreatedOrders(String owner, int limit, Duration leaseTimeout, Zone zone) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("owner", owner, Types.VARCHAR)
+                .addValue("leaseMillis", leaseTimeout.toMillis(), Types.BIGINT)
+                .addValue("limit", limit, Types.INTEGER)
+                .addValue("minX", zone.minX(), Types.INTEGER)
+                .addValue("maxX", zone.maxX(), Types.INTEGER)
+                .addValue("minY", zone.minY(), Types.INTEGER)
+                .addValue("maxY", zone.maxY(), Types.INTEGER);
+        return namedParameterJdbcTemplate.query(CLAIM_CREATED_ORDERS_SQL, params, orderRowMapper).stream()
+                .sorted(Comparator.comparing(Order::getCreatedAt))
+                .toList();
+    }
+
+    @Override
+    public long countCreatedOrders() {
+        Long count = namedParameterJdbcTemplate.getJdbcTemplate().queryForObject(COUNT_CREATED_ORDERS_SQL, Long.class);
+        return count != null ? count : 0;
+    }
+
     @Override
     public List<Order> getOrdersByStatus(OrderStatus orderStatus) {
-        String sql = """
-                select id, volume, status, location_x, location_y, courier_id, created_at, created_by, modified_at, modified_by, version
-                from orders
-                where status = :status;
-                """;
         MapSqlParameterSource params = new MapSqlParameterSource("status", orderStatus.name());
-        return namedParameterJdbcTemplate.query(sql, params, orderRowMapper);
+        return namedParameterJdbcTemplate.query(ORDERS_BY_STATUS_SQL, params, orderRowMapper);
+    }
+
+    /**
+     * The driver only fetches rows in chunks of the fetch size inside a transaction,
+     * outside of one the whole result is buffered.
+     */
+    @Override
+    public void forEachOrderByStatus(OrderStatus orderStatus, Consumer<Order> action) {
+        MapSqlParameterSource params = new MapSqlParameterSource("status", orderStatus.name());
+        streamingJdbcTemplate.query(ORDERS_BY_STATUS_SQL, params, (RowCallbackHandler) rs ->
+                action.accept(orderRowMapper.mapRow(rs, rs.getRow())));
+    }
+
+    @Override
+    public List<Order> getOrdersByStatus(OrderStatus orderStatus, OrderCursor after, int limit) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("status", orderStatus.name(), Types.VARCHAR)
+                .addValue("limit", limit, Types.INTEGER);
+        if (after != null) {
+            params.addValue("createdAt", after.createdAt(), Types.TIMESTAMP_WITH_TIMEZONE)
+                    .addValue("id", after.id().id(), Types.BIGINT);
+        }
+        return namedParameterJdbcTemplate.query(
+                after == null ? ORDERS_BY_STATUS_FIRST_PAGE_SQL : ORDERS_BY_STATUS_NEXT_PAGE_SQL, params, orderRowMapper);
+    }
+
+    private SqlParameterSource[] orderParams(List<Order> orders) {
+        return orders.stream()
+                .map(this::orderParams)
+                .toArray(SqlParameterSource[]::new);
+    }
+
+    private MapSqlParameterSource orderParams(Order order) {
+        return new MapSqlParameterSource()
+                .addValue("id", order.getId().id(), Types.BIGINT)
+                .addValue("volume", order.getVolume(), Types.INTEGER)
+                .addValue("status", order.getStatus().name(), Types.VARCHAR)
+                .addValue("locationX", order.getLocation().x(), Types.INTEGER)
+                .addValue("locationY", order.getLocation().y(), Types.INTEGER)
+                .addValue("courierId", mapIfNotNull(order.getCourierId(), Id::id), Types.BIGINT)
+                .addValue("createdAt", order.getCreatedAt(), Types.TIMESTAMP_WITH_TIMEZONE)
+                .addValue("createdBy", order.getCreatedBy(), Types.VARCHAR)
+                .addValue("modifiedAt", order.getModifiedAt(), Types.TIMESTAMP_WITH_TIMEZONE)
+                .addValue("modifiedBy", order.getModifiedBy(), Types.VARCHAR)
+                .addValue("version", order.getVersion() + 1, Types.BIGINT)
+                .addValue("expectedVersion", order.getVersion(), Types.BIGINT);
     }
 }
@@ -0,0 +1,93 @@
+package microarch.delivery.infrastructure.out.postgres;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import libs.ddd.DomainEvent;
+import microarch.delivery.domain.model.Id;
+import microarch.delivery.domain.model.order.OrderAssignedEvent;
+import microarch.delivery.domain.model.order.OrderCompletedEvent;
+import microarch.delivery.domain.model.order.OrderCreatedEvent;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+
+import java.sql.Types;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Appends domain events to the {@code outbox} table in the caller's transaction.
+ * Payloads are flat JSON documents, so consumers do not depend on the domain classes.
+ */
+class OutboxWriter {
+
+    private static final String INSERT_SQL = """
+            insert into outbox (aggregate_type, aggregate_id, event_id, event_type, payload, occurred_at)
+            values (:aggregateType, :aggregateId, :eventId, :eventType, cast(:payload as jsonb), :occurredAt)
+            """;
+
+    private static final JsonMapper JSON = JsonMapper.builder()
+            .findAndAddModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    OutboxWriter(NamedParameterJdbcTemplate namedParameterJdbcTemplate) {
+        this.namedParameterJdbcTemplate = namedParameterJdbcTemplate;
+    }
+
+    void append(String aggregateType, List<Event> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        List<SqlParameterSource> params = new ArrayList<>(events.size());
+        for (Event event : events) {
+            params.add(new MapSqlParameterSource()
+                    .addValue("aggregateType", aggregateType, Types.VARCHAR)
+                    .addValue("aggregateId", event.aggregateId().id(), Types.BIGINT)
+                    .addValue("eventId", event.domainEvent().getEventId(), Types.OTHER)
+                    .addValue("eventType", eventType(event.domainEvent()), Types.VARCHAR)
+                    .addValue("payload", payload(event.domainEvent()), Types.VARCHAR)
+                    .addValue("occurredAt", OffsetDateTime.ofInstant(event.domainEvent().getOccurredOnUtc(), ZoneOffset.UTC),
+                            Types.TIMESTAMP_WITH_TIMEZONE));
+        }
+        namedParameterJdbcTemplate.batchUpdate(INSERT_SQL, params.toArray(SqlParameterSource[]::new));
+    }
+
+    private static String eventType(DomainEvent event) {
+        String name = event.getClass().getSimpleName();
+        return name.endsWith("Event") ? name.substring(0, name.length() - "Event".length()) : name;
+    }
+
+    private static String payload(DomainEvent event) {
+        Object payload = switch (event) {
+            case OrderCreatedEvent created -> new OrderCreatedPayload(created.getEventId(), created.getOccurredOnUtc(),
+                    created.getOrderId().id(), created.getLocation().x(), created.getLocation().y(), created.getVolume());
+            case OrderAssignedEvent assigned -> new OrderCourierPayload(assigned.getEventId(), assigned.getOccurredOnUtc(),
+                    assigned.getOrderId().id(), assigned.getCourierId().id());
+            case OrderCompletedEvent completed -> new OrderCourierPayload(completed.getEventId(), completed.getOccurredOnUtc(),
+                    completed.getOrderId().id(), completed.getCourierId().id());
+            default -> throw new IllegalArgumentException("Unsupported domain event " + event.getClass().getName());
+        };
+        try {
+            return JSON.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize " + event.getClass().getSimpleName(), e);
+        }
+    }
+
+    record Event(Id aggregateId, DomainEvent domainEvent) {
+    }
+
+    private record OrderCreatedPayload(UUID eventId, Instant occurredAt, long orderId, int x, int y, int volume) {
+    }
+
+    private record OrderCourierPayload(UUID eventId, Instant occurredAt, long orderId, long courierId) {
+    }
+}
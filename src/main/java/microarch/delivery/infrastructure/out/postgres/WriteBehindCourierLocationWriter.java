@@ -0,0 +1,184 @@
+package microarch.delivery.infrastructure.out.postgres;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import microarch.delivery.application.CourierLocationWriter;
+import microarch.delivery.domain.model.Id;
+import microarch.delivery.domain.model.Location;
+import org.slf4j.Logger;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.util.Assert;
+
+import javax.sql.DataSource;
+import java.sql.Types;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import static org.slf4j.LoggerFactory.getLogger;
+
+/**
+ * Write-behind buffer for courier positions.
+ * <p>
+ * Only the latest position of every courier is kept and all of them are flushed every
+ * {@code flushInterval} with {@code UPDATE ... FROM (VALUES ...)} statements, so a position is
+ * persisted at most one interval plus one flush later. When the buffer holds {@code maxPending}
+ * couriers, a caller adding another one flushes the buffer itself before continuing.
+ * The buffer is flushed on shutdown.
+ * <p>
+ * Every row binds three parameters and Postgres accepts at most 32767 per statement, which bounds
+ * {@code batchSize} by {@link #MAX_BATCH_SIZE}.
+ */
+public class WriteBehindCourierLocationWriter implements CourierLocationWriter, SmartLifecycle {
+
+    static final int MAX_BATCH_SIZE = Short.MAX_VALUE / 3;
+
+    private static final Logger log = getLogger(WriteBehindCourierLocationWriter.class);
+
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final Duration flushInterval;
+    private final int maxPending;
+    private final int batchSize;
+    private final Consumer<Collection<Id>> onFlushed;
+    private final Timer flushTimer;
+    private final Map<Id, Location> pending = new ConcurrentHashMap<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    private ScheduledExecutorService scheduler;
+    private volatile boolean running;
+
+    public WriteBehindCourierLocationWriter(DataSource dataSource,
+                                            MeterRegistry meterRegistry,
+                                            Duration flushInterval,
+                                            int maxPending,
+                                            int batchSize,
+                                            Consumer<Collection<Id>> onFlushed) {
+        Assert.notNull(dataSource, "dataSource must be not null");
+        Assert.notNull(meterRegistry, "meterRegistry must be not null");
+        Assert.notNull(flushInterval, "flushInterval must be not null");
+        Assert.isTrue(maxPending > 0, "maxPending must greater then 0");
+        Assert.isTrue(batchSize > 0, "batchSize must greater then 0");
+        Assert.isTrue(batchSize <= MAX_BATCH_SIZE, "batchSize must be not greater then " + MAX_BATCH_SIZE);
+        Assert.notNull(onFlushed, "onFlushed must be not null");
+        this.namedParameterJdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+        this.flushInterval = flushInterval;
+        this.maxPending = maxPending;
+        this.batchSize = batchSize;
+        this.onFlushed = onFlushed;
+        this.flushTimer = meterRegistry.timer("delivery.courier.locations.flush");
+        meterRegistry.gauge("delivery.courier.locations.pending", pending, Map::size);
+    }
+
+    @Override
+    public void updateLocation(Id courierId, Location location) {
+        Assert.notNull(courierId, "courierId must be not null");
+        Assert.notNull(location, "location must be not null");
+        if (pending.size() >= maxPending && !pending.containsKey(courierId)) {
+            flush();
+        }
+        pending.put(courierId, location);
+    }
+
+    /**
+     * Writes every buffered position. Positions updated while flushing stay buffered.
+     */
+    public void flush() {
+        flushLock.lock();
+        try {
+            if (pending.isEmpty()) {
+                return;
+            }
+            flushTimer.record(this::flushPending);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void flushPending() {
+        List<Map.Entry<Id, Location>> entries = List.copyOf(pending.entrySet());
+        for (int from = 0; from < entries.size(); from += batchSize) {
+            List<Map.Entry<Id, Location>> chunk = entries.subList(from, Math.min(from + batchSize, entries.size()));
+            writeLocations(chunk);
+            List<Id> flushed = new ArrayList<>(chunk.size());
+            for (Map.Entry<Id, Location> entry : chunk) {
+                pending.remove(entry.getKey(), entry.getValue());
+                flushed.add(entry.getKey());
+            }
+            onFlushed.accept(flushed);
+        }
+    }
+
+    private void writeLocations(List<Map.Entry<Id, Location>> entries) {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        List<String> rows = new ArrayList<>(entries.size());
+        for (int i = 0; i < entries.size(); i++) {
+            Map.Entry<Id, Location> entry = entries.get(i);
+            params.addValue("id" + i, entry.getKey().id(), Types.BIGINT)
+                    .addValue("x" + i, entry.getValue().x(), Types.INTEGER)
+                    .addValue("y" + i, entry.getValue().y(), Types.INTEGER);
+            rows.add("(:id%d, :x%d, :y%d)".formatted(i, i, i));
+        }
+        String sql = """
+                update courier cr
+                set location_x = v.x,
+                    location_y = v.y
+                from (values %s) as v (id, x, y)
+                where cr.id = v.id
+                """.formatted(rows.stream().collect(Collectors.joining(", ")));
+        namedParameterJdbcTemplate.update(sql, params);
+    }
+
+    @Override
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "courier-location-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMillis = flushInterval.toMillis();
+        scheduler.scheduleWithFixedDelay(this::scheduledFlush, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        running = true;
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        scheduler.shutdown();
+        try {
+            scheduler.awaitTermination(flushInterval.toMillis() * 2, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void scheduledFlush() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.error("Failed to flush {} courier locations", pending.size(), e);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package microarch.delivery.infrastructure.out.postgres;
+
+import microarch.delivery.application.ZoneLock;
+import microarch.delivery.domain.model.Zone;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.Assert;
+
+import javax.sql.DataSource;
+
+/**
+ * Zone ownership on top of transaction-level Postgres advisory locks keyed by
+ * ({@link #LOCK_NAMESPACE}, zone index). The lock is released by commit or rollback,
+ * so a crashed node never keeps a zone.
+ */
+@Component
+public class ZoneLockJdbc implements ZoneLock {
+
+    public static final int LOCK_NAMESPACE = 0x5A4F4E45;
+
+    private static final String TRY_LOCK_SQL = """
+            select pg_try_advisory_xact_lock(:namespace, :zone)
+            """;
+
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    public ZoneLockJdbc(DataSource dataSource) {
+        Assert.notNull(dataSource, "dataSource must be not null");
+        this.namedParameterJdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+    }
+
+    @Override
+    public boolean tryAcquire(Zone zone) {
+        Assert.notNull(zone, "zone must be not null");
+        Assert.state(TransactionSynchronizationManager.isActualTransactionActive(),
+                "zone lock must be acquired inside a transaction");
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("namespace", LOCK_NAMESPACE)
+                .addValue("zone", zone.index());
+        return Boolean.TRUE.equals(namedParameterJdbcTemplate.queryForObject(TRY_LOCK_SQL, params, Boolean.class));
+    }
+}
@@ -0,0 +1,8 @@
+-- Keys of incoming messages that already created an order; redeliveries are skipped.
+create table order_inbox (
+    message_key text primary key,
+    order_id bigint not null,
+    received_at timestamptz not null
+);
+
+create index order_inbox_received_at_idx on order_inbox (received_at);
@@ -0,0 +1,15 @@
+-- Domain events waiting to be published; rows are written in the transaction that changes
+-- the aggregate and deleted by the relay once Kafka acknowledged them.
+create table outbox (
+    id bigserial primary key,
+    aggregate_type text not null,
+    aggregate_id bigint not null,
+    event_id uuid not null,
+    event_type text not null,
+    payload jsonb not null,
+    occurred_at timestamptz not null,
+    created_at timestamptz not null default clock_timestamp()
+);
+
+-- The table is a queue with a high delete rate, vacuum it long before the default 20% of dead rows.
+alter table outbox set (autovacuum_vacuum_scale_factor = 0.01, autovacuum_vacuum_threshold = 1000);
@@ -0,0 +1,29 @@
+-- Spring Modulith JDBC event publication registry, managed by Flyway instead of the registry itself.
+create table event_publication (
+    id uuid primary key,
+    listener_id text not null,
+    event_type text not null,
+    serialized_event text not null,
+    publication_date timestamptz not null,
+    completion_date timestamptz
+);
+
+-- Completion looks publications up by the serialized event.
+create index event_publication_serialized_event_hash_idx on event_publication using hash (serialized_event);
+-- Incomplete publications are a small subset of the table, the resubmission and backlog
+-- queries read them through this partial index instead of scanning every completed row.
+create index event_publication_incomplete_idx on event_publication (publication_date) where completion_date is null;
+-- Completed publications kept by completion-mode "update" are purged by completion date.
+create index event_publication_completion_date_idx on event_publication (completion_date) where completion_date is not null;
+
+-- Completed publications moved here by completion-mode "archive".
+create table event_publication_archive (
+    id uuid primary key,
+    listener_id text not null,
+    event_type text not null,
+    serialized_event text not null,
+    publication_date timestamptz not null,
+    completion_date timestamptz
+);
+
+create index event_publication_archive_completion_date_idx on event_publication_archive (completion_date);
@@ -0,0 +1,17 @@
+-- orders is partitioned by status, so a status change that moves a row to another partition runs as a
+-- DELETE plus an INSERT and fires the AFTER DELETE and AFTER INSERT triggers instead of AFTER UPDATE.
+-- AFTER row triggers fire once the statement is done, so the moved row is already visible: such a
+-- DELETE is not reported, the INSERT reports the new version.
+
+create or replace function notify_order_change() returns trigger as $$
+begin
+    if tg_op = 'DELETE' then
+        if not exists (select 1 from orders where id = old.id) then
+            perform pg_notify('delivery_changes', format('order:%s:deleted', old.id));
+        end if;
+    else
+        perform pg_notify('delivery_changes', format('order:%s:%s', new.id, new.version));
+    end if;
+    return null;
+end
+$$ language plpgsql;
@@ -0,0 +1,16 @@
+-- Positions flushed by the write-behind location writer do not bump the courier version, so a
+-- "courier:<id>:<version>" payload would repeat a version other nodes already know. Such updates are
+-- published as "courier:<id>:location" and evict the courier regardless of its version.
+
+create or replace function notify_courier_change() returns trigger as $$
+begin
+    if tg_op = 'DELETE' then
+        perform pg_notify('delivery_changes', format('courier:%s:deleted', old.id));
+    elsif tg_op = 'UPDATE' and new.version = old.version then
+        perform pg_notify('delivery_changes', format('courier:%s:location', new.id));
+    else
+        perform pg_notify('delivery_changes', format('courier:%s:%s', new.id, new.version));
+    end if;
+    return null;
+end
+$$ language plpgsql;
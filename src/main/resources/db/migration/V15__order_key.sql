@@ -0,0 +1,52 @@
+-- orders is partitioned and can only enforce uniqueness over (id, status, created_at). order_key holds
+-- one row per order id and restores both the uniqueness of orders.id and the storage_place.order_id
+-- foreign key. It also stores the immutable created_at, so a lookup by id can be pruned to the active
+-- partition and a single COMPLETED month.
+--
+-- The table is maintained by a trigger on orders. A status change that moves a row to another partition
+-- fires AFTER DELETE and AFTER INSERT (see V13); both triggers run once the statement is done, so the
+-- moved row is already visible and its key is kept. Keys of archived orders stay as well, so an archived
+-- id can not be inserted again: detaching a partition fires no triggers, and
+-- OrderPartitionMaintenance sets delivery.archiving while it moves rows out of the default partition.
+
+create table order_key (
+    id bigint primary key,
+    created_at timestamptz not null
+);
+
+insert into order_key (id, created_at)
+select id, created_at
+from orders;
+
+create function maintain_order_key() returns trigger as $$
+declare
+    known_created_at timestamptz;
+begin
+    if tg_op = 'INSERT' then
+        insert into order_key (id, created_at)
+        values (new.id, new.created_at)
+        on conflict (id) do nothing;
+        if not found then
+            select created_at into known_created_at from order_key where id = new.id;
+            if known_created_at <> new.created_at
+                    or (select count(*) from orders where id = new.id and created_at = new.created_at) > 1 then
+                raise exception 'duplicate key value violates unique constraint "order_key_pkey"'
+                    using errcode = 'unique_violation',
+                          constraint = 'order_key_pkey',
+                          detail = format('Key (id)=(%s) already exists.', new.id);
+            end if;
+        end if;
+    elsif current_setting('delivery.archiving', true) is distinct from 'on'
+            and not exists (select 1 from orders where id = old.id and created_at = old.created_at) then
+        delete from order_key where id = old.id;
+    end if;
+    return null;
+end
+$$ language plpgsql;
+
+create trigger orders_maintain_key
+    after insert or delete on orders
+    for each row execute function maintain_order_key();
+
+alter table storage_place
+    add constraint storage_place_order_id_fkey foreign key (order_id) references order_key (id);
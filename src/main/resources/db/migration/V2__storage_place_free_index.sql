@@ -0,0 +1,3 @@
+create index storage_place_free_courier_idx
+    on storage_place (courier_id) include (place_type)
+    where order_id is null;
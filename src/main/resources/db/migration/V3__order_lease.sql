@@ -0,0 +1,3 @@
+alter table orders
+    add column lease_owner text,
+    add column lease_until timestamptz;
@@ -0,0 +1,2 @@
+create index orders_status_created_at_id_idx
+    on orders (status, created_at, id);
@@ -0,0 +1,16 @@
+-- CREATED orders are a small queue inside a large table: getNewCreatedOrder, getCreatedOrders
+-- and claimCreatedOrders read it by creation time.
+create index orders_created_queue_idx
+    on orders (created_at)
+    where status = 'CREATED';
+
+-- Foreign keys: lookups of a courier's orders and the checks run when a courier or order is deleted.
+create index orders_courier_id_idx
+    on orders (courier_id)
+    where courier_id is not null;
+
+create index storage_place_order_id_idx
+    on storage_place (order_id)
+    where order_id is not null;
+
+-- storage_place (courier_id) is served by the storage_place_unique (courier_id, place_type) constraint.
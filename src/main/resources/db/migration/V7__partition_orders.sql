@@ -0,0 +1,82 @@
+-- Orders are list-partitioned by status: CREATED and ASSIGNED orders live in the small orders_active
+-- partition, COMPLETED orders are range-partitioned by month of created_at and archived by
+-- OrderPartitionMaintenance. A partitioned table can only enforce uniqueness over its partition keys,
+-- so storage_place.order_id no longer references orders.
+
+alter table storage_place drop constraint storage_place_order_id_fkey;
+
+alter table orders rename to orders_unpartitioned;
+alter table orders_unpartitioned rename constraint orders_pkey to orders_unpartitioned_pkey;
+alter table orders_unpartitioned rename constraint orders_courier_id_fkey to orders_unpartitioned_courier_id_fkey;
+drop index orders_status_created_at_id_idx;
+drop index orders_created_queue_idx;
+drop index orders_courier_id_idx;
+
+create table orders (
+    id bigint not null,
+    volume int not null,
+    status text not null,
+    location_x int not null,
+    location_y int not null,
+    courier_id bigint references courier(id),
+    created_at timestamptz not null,
+    created_by text not null,
+    modified_at timestamptz,
+    modified_by text,
+    version bigint not null,
+    lease_owner text,
+    lease_until timestamptz,
+    constraint orders_pkey primary key (id, status, created_at)
+) partition by list (status);
+
+create table orders_active partition of orders for values in ('CREATED', 'ASSIGNED');
+
+create table orders_completed partition of orders for values in ('COMPLETED')
+    partition by range (created_at);
+
+create table orders_completed_default partition of orders_completed default;
+
+-- Monthly partitions cover every existing order, including CREATED and ASSIGNED ones that complete
+-- later, so history does not land in the default partition; it only receives orders created in months
+-- that were already archived, and OrderPartitionMaintenance moves them to the archive once expired.
+do $$
+declare
+    current_month timestamp := date_trunc('month', now() at time zone 'UTC');
+    first_month timestamp := least(
+            current_month - interval '1 month',
+            (select date_trunc('month', min(created_at) at time zone 'UTC') from orders_unpartitioned));
+    month timestamp := first_month;
+begin
+    while month <= current_month + interval '3 months' loop
+        execute format(
+                'create table %I partition of orders_completed for values from (%L) to (%L)',
+                'orders_completed_p' || to_char(month, 'YYYYMM'),
+                month at time zone 'UTC',
+                (month + interval '1 month') at time zone 'UTC');
+        month := month + interval '1 month';
+    end loop;
+end
+$$;
+
+insert into orders (id, volume, status, location_x, location_y, courier_id, created_at, created_by,
+                    modified_at, modified_by, version, lease_owner, lease_until)
+select id, volume, status, location_x, location_y, courier_id, created_at, created_by,
+       modified_at, modified_by, version, lease_owner, lease_until
+from orders_unpartitioned;
+
+drop table orders_unpartitioned;
+
+create index orders_status_created_at_id_idx
+    on orders (status, created_at, id);
+
+create index orders_created_queue_idx
+    on orders_active (created_at)
+    where status = 'CREATED';
+
+create index orders_courier_id_idx
+    on orders (courier_id)
+    where courier_id is not null;
+
+create schema orders_archive;
+
+create table orders_archive.orders_completed_default (like orders_completed);
@@ -0,0 +1,52 @@
+-- Every committed change of a courier or an order is published on the delivery_changes channel
+-- as "<aggregate>:<id>:<version>", or "<aggregate>:<id>:deleted". Storage places belong to the courier aggregate and report
+-- the courier version. NOTIFY drops duplicate payloads within one transaction.
+
+create function notify_courier_change() returns trigger as $$
+begin
+    if tg_op = 'DELETE' then
+        perform pg_notify('delivery_changes', format('courier:%s:deleted', old.id));
+    else
+        perform pg_notify('delivery_changes', format('courier:%s:%s', new.id, new.version));
+    end if;
+    return null;
+end
+$$ language plpgsql;
+
+create function notify_order_change() returns trigger as $$
+begin
+    if tg_op = 'DELETE' then
+        perform pg_notify('delivery_changes', format('order:%s:deleted', old.id));
+    else
+        perform pg_notify('delivery_changes', format('order:%s:%s', new.id, new.version));
+    end if;
+    return null;
+end
+$$ language plpgsql;
+
+create function notify_storage_place_change() returns trigger as $$
+declare
+    changed_courier_id bigint;
+begin
+    if tg_op = 'DELETE' then
+        changed_courier_id := old.courier_id;
+    else
+        changed_courier_id := new.courier_id;
+    end if;
+    perform pg_notify('delivery_changes', format('courier:%s:%s', changed_courier_id,
+            coalesce((select version from courier where id = changed_courier_id), 0)));
+    return null;
+end
+$$ language plpgsql;
+
+create trigger courier_change_notify
+    after insert or update or delete on courier
+    for each row execute function notify_courier_change();
+
+create trigger orders_change_notify
+    after insert or update or delete on orders
+    for each row execute function notify_order_change();
+
+create trigger storage_place_change_notify
+    after insert or update or delete on storage_place
+    for each row execute function notify_storage_place_change();
@@ -0,0 +1,3 @@
+create index storage_place_busy_courier_idx
+    on storage_place (courier_id)
+    where order_id is not null;
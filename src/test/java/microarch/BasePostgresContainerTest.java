@@ -13,7 +13,8 @@ public abstract class BasePostgresContainerTest {
     static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16.3")
             .withDatabaseName("testdb")
             .withUsername("admin")
-            .withPassword("admin");
+            .withPassword("admin")
+            .withUrlParam("reWriteBatchedInserts", "true");
 
     @DynamicPropertySource
     static void configureDataSource(DynamicPropertyRegistry registry) {
@@ -3,13 +3,18 @@ package microarch;
 import libs.common.Timex;
 import microarch.delivery.domain.model.Id;
 import microarch.delivery.domain.model.Location;
+import microarch.delivery.domain.model.courier.Courier;
 import microarch.delivery.domain.model.courier.CourierBuilder;
+import microarch.delivery.domain.model.courier.StoragePlace;
 import microarch.delivery.domain.model.courier.StoragePlaceBuilder;
 import microarch.delivery.domain.model.courier.StoragePlaceType;
+import microarch.delivery.domain.model.order.Order;
 import microarch.delivery.domain.model.order.OrderBuilder;
 import microarch.delivery.domain.model.order.OrderStatus;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
 
 public class TestHelper {
 
@@ -55,4 +60,56 @@ public class TestHelper {
                 .modifiedBy(DEFAULT_USER)
                 .version(0);
     }
+
+    public static List<Courier> randomCouriers(Random random, int count) {
+        List<Courier> couriers = new ArrayList<>();
+        for (int i = 1; i <= count; i++) {
+            List<StoragePlace> storagePlaces = new ArrayList<>();
+            storagePlaces.add(randomStoragePlace(Id.of(i * 10L), StoragePlaceType.BACKPACK, random));
+            if (random.nextBoolean()) {
+                storagePlaces.add(randomStoragePlace(Id.of(i * 10L + 1), StoragePlaceType.TRUNK, random));
+            }
+            couriers.add(CourierBuilder.courier()
+                    .id(Id.of(i))
+                    .name("courier-" + i)
+                    .speed(1 + random.nextInt(4))
+                    .location(randomLocation(random))
+                    .storagePlaces(storagePlaces)
+                    .createdAt(Timex.currentOffsetDateTime())
+                    .createdBy(DEFAULT_USER)
+                    .version(0)
+                    .build());
+        }
+        return couriers;
+    }
+
+    private static StoragePlace randomStoragePlace(Id id, StoragePlaceType type, Random random) {
+        return StoragePlaceBuilder.storagePlace()
+                .id(id)
+                .placeType(type)
+                .orderId(random.nextInt(4) == 0 ? Id.of(1_000_000L + id.id()) : null)
+                .build();
+    }
+
+    public static List<Order> randomOrders(Random random, int count) {
+        List<Order> orders = new ArrayList<>();
+        for (int i = 1; i <= count; i++) {
+            orders.add(OrderBuilder.order()
+                    .id(Id.of(i))
+                    .location(randomLocation(random))
+                    .volume(1 + random.nextInt(130))
+                    .status(OrderStatus.CREATED)
+                    .createdAt(Timex.currentOffsetDateTime())
+                    .createdBy(DEFAULT_USER)
+                    .version(0)
+                    .build());
+        }
+        return orders;
+    }
+
+    public static Location randomLocation(Random random) {
+        return Location.create(
+                Location.MIN_VALUE + random.nextInt(Location.MAX_VALUE),
+                Location.MIN_VALUE + random.nextInt(Location.MAX_VALUE));
+    }
 }
@@ -0,0 +1,132 @@
+package microarch.delivery.application;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import microarch.BasePostgresContainerTest;
+import microarch.delivery.domain.model.Id;
+import microarch.delivery.domain.model.courier.Courier;
+import microarch.delivery.infrastructure.out.postgres.CourierRepositoryJdbc;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.jdbc.JdbcTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+import static microarch.TestHelper.randomLocation;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Many writers move the same few couriers. Compares goodput and tail latency of
+ * commands that fail on the first conflict with commands run through {@link OptimisticLockRetry}.
+ */
+@Tag("benchmark")
+@JdbcTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OptimisticLockRetryBenchmarkTest extends BasePostgresContainerTest {
+
+    private static final int COURIER_COUNT = 4;
+    private static final int THREADS = 16;
+    private static final int COMMANDS_PER_THREAD = 200;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    private CourierRepositoryJdbc courierRepository;
+    private final List<Id> courierIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        courierRepository = new CourierRepositoryJdbc(jdbcTemplate.getDataSource());
+        Random random = new Random(42);
+        for (int i = 0; i < COURIER_COUNT; i++) {
+            Courier courier = Courier.create("courier-" + i, 1, randomLocation(random));
+            courierRepository.save(courier);
+            courierIds.add(courier.getId());
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        JdbcTestUtils.deleteFromTables(jdbcTemplate, "storage_place", "courier");
+    }
+
+    @Test
+    void benchmark_ContendedCourierMoves() throws Exception {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        OptimisticLockRetry retry = new OptimisticLockRetry(transactionTemplate, new SimpleMeterRegistry(),
+                10, Duration.ofMillis(2), Duration.ofMillis(100));
+
+        Stats withoutRetry = run(command -> transactionTemplate.executeWithoutResult(status -> command.run()));
+        Stats withRetry = run(retry::execute);
+
+        System.out.printf("Without retry: %s%nWith retry:    %s%n", withoutRetry, withRetry);
+        assertThat(withRetry.succeeded()).isGreaterThan(withoutRetry.succeeded());
+    }
+
+    private Stats run(Consumer<Runnable> executor) throws Exception {
+        List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+        ExecutorService threads = Executors.newFixedThreadPool(THREADS);
+        long started = System.nanoTime();
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                Random random = new Random(t);
+                futures.add(threads.submit(() -> {
+                    for (int i = 0; i < COMMANDS_PER_THREAD; i++) {
+                        Id courierId = courierIds.get(random.nextInt(COURIER_COUNT));
+                        long commandStarted = System.nanoTime();
+                        try {
+                            executor.accept(() -> {
+                                Courier courier = courierRepository.findById(courierId);
+                                courier.move(randomLocation(random));
+                                courierRepository.save(courier);
+                            });
+                            latencies.add(System.nanoTime() - commandStarted);
+                        } catch (OptimisticLockingFailureException e) {
+                            // counted as lost goodput
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            threads.shutdownNow();
+        }
+        double seconds = (System.nanoTime() - started) / 1e9;
+        List<Long> sorted = latencies.stream().sorted().toList();
+        long p99 = sorted.isEmpty() ? 0 : sorted.get((int) Math.ceil(sorted.size() * 0.99) - 1);
+        return new Stats(sorted.size(), THREADS * COMMANDS_PER_THREAD, sorted.size() / seconds, p99 / 1_000_000.0);
+    }
+
+    private record Stats(int succeeded, int total, double goodput, double p99Ms) {
+
+        @Override
+        public String toString() {
+            return "%d/%d succeeded, %.0f commands/sec, p99 %.1f ms".formatted(succeeded, total, goodput, p99Ms);
+        }
+    }
+}
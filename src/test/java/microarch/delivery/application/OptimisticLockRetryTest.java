@@ -0,0 +1,75 @@
+package microarch.delivery.application;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import microarch.delivery.domain.model.Id;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OptimisticLockRetryTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final OptimisticLockRetry retry = new OptimisticLockRetry(TransactionOperations.withoutTransaction(),
+            meterRegistry, 3, Duration.ofMillis(1), Duration.ofMillis(4));
+
+    @Test
+    void should_ReturnResult_when_LaterAttemptSucceeds() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        String result = retry.execute(() -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw new VersionConflictException("Courier", List.of(Id.of(1L)));
+            }
+            return "done";
+        });
+
+        assertThat(result).isEqualTo("done");
+        assertThat(attempts).hasValue(3);
+        assertThat(conflicts("courier", "retried")).isEqualTo(2);
+    }
+
+    @Test
+    void should_RethrowConflict_when_AttemptsAreExhausted() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThatThrownBy(() -> retry.execute(() -> {
+            attempts.incrementAndGet();
+            throw new VersionConflictException("Order", List.of(Id.of(1L)));
+        })).isInstanceOf(VersionConflictException.class);
+
+        assertThat(attempts).hasValue(3);
+        assertThat(conflicts("order", "retried")).isEqualTo(2);
+        assertThat(conflicts("order", "exhausted")).isEqualTo(1);
+    }
+
+    @Test
+    void should_NotRetry_when_FailureIsNotConflict() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThatThrownBy(() -> retry.execute(() -> {
+            attempts.incrementAndGet();
+            throw new IllegalArgumentException("broken");
+        })).isInstanceOf(IllegalArgumentException.class);
+
+        assertThat(attempts).hasValue(1);
+    }
+
+    @Test
+    void should_KeepBackoffWithinGrowingCap() {
+        for (int i = 0; i < 1000; i++) {
+            assertThat(retry.backoff(1)).isBetween(0L, Duration.ofMillis(1).toNanos());
+            assertThat(retry.backoff(2)).isBetween(0L, Duration.ofMillis(2).toNanos());
+            assertThat(retry.backoff(40)).isBetween(0L, Duration.ofMillis(4).toNanos());
+        }
+    }
+
+    private double conflicts(String aggregate, String outcome) {
+        return meterRegistry.counter(OptimisticLockRetry.CONFLICTS_METER, "aggregate", aggregate, "outcome", outcome).count();
+    }
+}
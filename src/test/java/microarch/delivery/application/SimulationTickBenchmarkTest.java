@@ -0,0 +1,64 @@
+package microarch.delivery.application;
+
+import microarch.BasePostgresContainerTest;
+import microarch.delivery.infrastructure.out.postgres.CourierRepositoryJdbc;
+import microarch.delivery.infrastructure.out.postgres.OrderRepositoryJdbc;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Tag("benchmark")
+@JdbcTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class SimulationTickBenchmarkTest extends BasePostgresContainerTest {
+
+    private static final int COURIER_COUNT = 50_000;
+    private static final int TICKS = 3;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    private SimulationTick simulationTick;
+
+    @BeforeEach
+    void setUp() {
+        simulationTick = new SimulationTick(
+                new CourierRepositoryJdbc(jdbcTemplate.getDataSource()),
+                new OrderRepositoryJdbc(jdbcTemplate.getDataSource()),
+                0);
+        jdbcTemplate.update("""
+                insert into courier (id, name, speed, location_x, location_y, created_at, created_by, version)
+                select g, 'courier-' || g, 1, 1, 1, now(), 'benchmark', 1
+                from generate_series(1, ?) g
+                """, COURIER_COUNT);
+        jdbcTemplate.update("""
+                insert into orders (id, volume, status, location_x, location_y, courier_id, created_at, created_by, version)
+                select g, 5, 'ASSIGNED', 10, 10, g, now(), 'benchmark', 1
+                from generate_series(1, ?) g
+                """, COURIER_COUNT);
+        jdbcTemplate.update("""
+                insert into storage_place (id, courier_id, place_type, order_id)
+                select g, g, 'BACKPACK', g
+                from generate_series(1, ?) g
+                """, COURIER_COUNT);
+        jdbcTemplate.execute("analyze");
+    }
+
+    @Test
+    void benchmark_TickFiftyThousandCouriers() {
+        long started = System.nanoTime();
+        for (int i = 0; i < TICKS; i++) {
+            SimulationTick.Result result = simulationTick.tick();
+            assertThat(result.couriers()).isEqualTo(COURIER_COUNT);
+        }
+        long elapsedMs = (System.nanoTime() - started) / 1_000_000 / TICKS;
+
+        System.out.printf("Simulation tick over %d couriers: %d ms/tick%n", COURIER_COUNT, elapsedMs);
+    }
+}
@@ -0,0 +1,116 @@
+package microarch.delivery.application;
+
+import microarch.BasePostgresContainerTest;
+import microarch.delivery.domain.model.Location;
+import microarch.delivery.domain.model.courier.Courier;
+import microarch.delivery.domain.model.order.Order;
+import microarch.delivery.domain.model.order.OrderStatus;
+import microarch.delivery.infrastructure.out.postgres.CourierRepositoryJdbc;
+import microarch.delivery.infrastructure.out.postgres.OrderRepositoryJdbc;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@JdbcTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class SimulationTickTest extends BasePostgresContainerTest {
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    private CourierRepositoryJdbc courierRepository;
+    private OrderRepositoryJdbc orderRepository;
+    private SimulationTick simulationTick;
+
+    @BeforeEach
+    void setUp() {
+        courierRepository = new CourierRepositoryJdbc(jdbcTemplate.getDataSource());
+        orderRepository = new OrderRepositoryJdbc(jdbcTemplate.getDataSource());
+        simulationTick = new SimulationTick(courierRepository, orderRepository, 4);
+    }
+
+    @Test
+    void should_MoveCourierTowardsOrder() {
+        Courier courier = Courier.create("John", 2, Location.create(1, 1));
+        Order order = Order.create(Location.create(5, 1), 5);
+        assign(courier, order);
+
+
+        SimulationTick.Result result = simulationTick.tick();
+
+
+        assertThat(result).isEqualTo(new SimulationTick.Result(1, 0));
+        assertThat(courierRepository.findById(courier.getId()).getLocation()).isEqualTo(Location.create(3, 1));
+        assertThat(orderRepository.findById(order.getId()).getStatus()).isEqualTo(OrderStatus.ASSIGNED);
+    }
+
+    @Test
+    void should_CompleteOrder_when_CourierArrives() {
+        Courier courier = Courier.create("John", 3, Location.create(1, 1));
+        Order order = Order.create(Location.create(3, 2), 5);
+        assign(courier, order);
+
+
+        SimulationTick.Result result = simulationTick.tick();
+
+
+        Courier movedCourier = courierRepository.findById(courier.getId());
+        assertThat(result).isEqualTo(new SimulationTick.Result(1, 1));
+        assertThat(movedCourier.getLocation()).isEqualTo(Location.create(3, 2));
+        assertThat(movedCourier.getStoragePlaces()).allMatch(place -> place.isEmpty());
+        assertThat(orderRepository.findById(order.getId()).getStatus()).isEqualTo(OrderStatus.COMPLETED);
+        assertThat(courierRepository.getBusyCouriers()).isEmpty();
+    }
+
+    @Test
+    void should_AdvanceEveryBusyCourier() {
+        List<Courier> couriers = List.of(
+                Courier.create("First", 1, Location.create(1, 1)),
+                Courier.create("Second", 1, Location.create(10, 10)),
+                Courier.create("Idle", 1, Location.create(5, 5)));
+        assign(couriers.get(0), Order.create(Location.create(1, 3), 5));
+        assign(couriers.get(1), Order.create(Location.create(10, 8), 5));
+        courierRepository.save(couriers.get(2));
+
+
+        SimulationTick.Result result = simulationTick.tick();
+
+
+        assertThat(result.couriers()).isEqualTo(2);
+        assertThat(courierRepository.findById(couriers.get(0).getId()).getLocation()).isEqualTo(Location.create(1, 2));
+        assertThat(courierRepository.findById(couriers.get(1).getId()).getLocation()).isEqualTo(Location.create(10, 9));
+        assertThat(courierRepository.findById(couriers.get(2).getId()).getVersion()).isEqualTo(1);
+    }
+
+    @Test
+    void should_NotSaveCourier_when_TickLeavesItUnchanged() {
+        Courier courier = Courier.create("John", 2, Location.create(1, 1));
+        Order order = Order.create(Location.create(5, 1), 5);
+        courier.takeOrder(order);
+        orderRepository.save(order);
+        courierRepository.save(courier);
+
+
+        SimulationTick.Result result = simulationTick.tick();
+
+
+        Courier storedCourier = courierRepository.findById(courier.getId());
+        assertThat(result).isEqualTo(new SimulationTick.Result(1, 0));
+        assertThat(storedCourier.getLocation()).isEqualTo(Location.create(1, 1));
+        assertThat(storedCourier.getVersion()).isEqualTo(1);
+    }
+
+    private void assign(Courier courier, Order order) {
+        courier.takeOrder(order);
+        order.assign(courier.getId());
+        orderRepository.save(order);
+        courierRepository.save(courier);
+    }
+}
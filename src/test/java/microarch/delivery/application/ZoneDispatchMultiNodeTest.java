@@ -0,0 +1,117 @@
+package microarch.delivery.application;
+
+import microarch.BasePostgresContainerTest;
+import microarch.delivery.domain.model.Zone;
+import microarch.delivery.domain.model.courier.Courier;
+import microarch.delivery.domain.model.order.Order;
+import microarch.delivery.domain.model.order.OrderStatus;
+import microarch.delivery.domain.services.OrderDispatcherImpl;
+import microarch.delivery.infrastructure.out.postgres.CourierRepositoryJdbc;
+import microarch.delivery.infrastructure.out.postgres.OrderRepositoryJdbc;
+import microarch.delivery.infrastructure.out.postgres.ZoneLockJdbc;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.jdbc.JdbcTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static microarch.TestHelper.randomLocation;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Two nodes dispatch every zone concurrently against one database, the way db-scheduler
+ * would after a missed heartbeat or with manually triggered runs.
+ */
+@JdbcTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ZoneDispatchMultiNodeTest extends BasePostgresContainerTest {
+
+    private static final int COURIER_COUNT = 400;
+    private static final int ORDER_COUNT = 300;
+    private static final int NODES = 2;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void tearDown() {
+        JdbcTestUtils.deleteFromTables(jdbcTemplate, "storage_place", "orders", "courier");
+    }
+
+    @Test
+    void should_DispatchAllOrdersWithoutConflicts_when_NodesShareZones() throws Exception {
+        CourierRepositoryJdbc courierRepository = new CourierRepositoryJdbc(jdbcTemplate.getDataSource());
+        OrderRepositoryJdbc orderRepository = new OrderRepositoryJdbc(jdbcTemplate.getDataSource());
+        Random random = new Random(42);
+        List<Courier> couriers = new ArrayList<>();
+        for (int i = 0; i < COURIER_COUNT; i++) {
+            couriers.add(Courier.create("courier-" + i, 1 + random.nextInt(3), randomLocation(random)));
+        }
+        courierRepository.saveAll(couriers);
+        List<Order> orders = new ArrayList<>();
+        for (int i = 0; i < ORDER_COUNT; i++) {
+            orders.add(Order.create(randomLocation(random), 1 + random.nextInt(30)));
+        }
+        orderRepository.saveAll(orders);
+
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        AtomicInteger conflicts = new AtomicInteger();
+        AtomicInteger assigned = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(NODES);
+        try {
+            List<Future<?>> nodes = new ArrayList<>();
+            for (int node = 0; node < NODES; node++) {
+                ZoneDispatch zoneDispatch = new ZoneDispatch(orderRepository, courierRepository, new OrderDispatcherImpl(),
+                        new ZoneLockJdbc(jdbcTemplate.getDataSource()), 4, "node-" + node, 20, Duration.ofMillis(200));
+                List<Zone> zones = new ArrayList<>(zoneDispatch.zones());
+                if (node % 2 == 1) {
+                    zones = zones.reversed();
+                }
+                List<Zone> nodeZones = zones;
+                nodes.add(executor.submit(() -> {
+                    long deadline = System.nanoTime() + Duration.ofSeconds(20).toNanos();
+                    while (orderRepository.countCreatedOrders() > 0 && System.nanoTime() < deadline) {
+                        for (Zone zone : nodeZones) {
+                            try {
+                                ZoneDispatch.Result result = transactionTemplate.execute(status -> zoneDispatch.dispatch(zone));
+                                assigned.addAndGet(result.assigned());
+                            } catch (OptimisticLockingFailureException e) {
+                                conflicts.incrementAndGet();
+                            }
+                        }
+                    }
+                }));
+            }
+            for (Future<?> node : nodes) {
+                node.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+
+        assertThat(conflicts).hasValue(0);
+        assertThat(assigned).hasValue(ORDER_COUNT);
+        assertThat(orderRepository.getOrdersByStatus(OrderStatus.CREATED)).isEmpty();
+    }
+}
@@ -0,0 +1,157 @@
+package microarch.delivery.application;
+
+import microarch.BasePostgresContainerTest;
+import microarch.delivery.domain.model.Location;
+import microarch.delivery.domain.model.Zone;
+import microarch.delivery.domain.model.courier.Courier;
+import microarch.delivery.domain.model.order.Order;
+import microarch.delivery.domain.model.order.OrderStatus;
+import microarch.delivery.domain.services.OrderDispatcherImpl;
+import microarch.delivery.infrastructure.out.postgres.CourierRepositoryJdbc;
+import microarch.delivery.infrastructure.out.postgres.OrderRepositoryJdbc;
+import microarch.delivery.infrastructure.out.postgres.ZoneLockJdbc;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@JdbcTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class ZoneDispatchTest extends BasePostgresContainerTest {
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    private CourierRepositoryJdbc courierRepository;
+    private OrderRepositoryJdbc orderRepository;
+    private ZoneDispatch zoneDispatch;
+    private List<Zone> zones;
+
+    @BeforeEach
+    void setUp() {
+        courierRepository = new CourierRepositoryJdbc(jdbcTemplate.getDataSource());
+        orderRepository = new OrderRepositoryJdbc(jdbcTemplate.getDataSource());
+        zoneDispatch = new ZoneDispatch(orderRepository, courierRepository, new OrderDispatcherImpl(),
+                new ZoneLockJdbc(jdbcTemplate.getDataSource()), 2, "node-1", 100, Duration.ofSeconds(30));
+        zones = zoneDispatch.zones();
+    }
+
+    @Test
+    void should_AssignOrdersToCouriersOfSameZone() {
+        Courier west = Courier.create("West", 2, Location.create(2, 2));
+        Courier east = Courier.create("East", 2, Location.create(9, 9));
+        courierRepository.saveAll(List.of(west, east));
+        Order westOrder = Order.create(Location.create(4, 4), 5);
+        Order eastOrder = Order.create(Location.create(7, 7), 5);
+        orderRepository.saveAll(List.of(westOrder, eastOrder));
+
+
+        ZoneDispatch.Result result = zoneDispatch.dispatch(zones.get(0));
+
+
+        assertThat(result.claimed()).isEqualTo(1);
+        assertThat(result.assigned()).isEqualTo(1);
+        Order assigned = orderRepository.findById(westOrder.getId());
+        assertThat(assigned.getStatus()).isEqualTo(OrderStatus.ASSIGNED);
+        assertThat(assigned.getCourierId()).isEqualTo(west.getId());
+        assertThat(orderRepository.findById(eastOrder.getId()).getStatus()).isEqualTo(OrderStatus.CREATED);
+        assertThat(courierRepository.getFreeCouriers(zones.get(1))).extracting(Courier::getId).containsExactly(east.getId());
+    }
+
+    @Test
+    void should_AssignOrderToNeighbourZone_when_ZoneHasNoFreeCouriers() {
+        Courier east = Courier.create("East", 2, Location.create(9, 9));
+        courierRepository.save(east);
+        Order order = Order.create(Location.create(2, 2), 5);
+        orderRepository.save(order);
+
+
+        ZoneDispatch.Result result = zoneDispatch.dispatch(zones.get(0));
+
+
+        assertThat(result.assigned()).isEqualTo(1);
+        assertThat(orderRepository.findById(order.getId()).getCourierId()).isEqualTo(east.getId());
+    }
+
+    @Test
+    void should_AssignOrderToDistantZone_when_NeighbourZonesHaveNoFreeCouriers() {
+        ZoneDispatch fourZoneDispatch = new ZoneDispatch(orderRepository, courierRepository, new OrderDispatcherImpl(),
+                new ZoneLockJdbc(jdbcTemplate.getDataSource()), 4, "node-1", 100, Duration.ofSeconds(30));
+        Zone west = fourZoneDispatch.zones().get(0);
+        Courier distant = Courier.create("Distant", 2, Location.create(7, 7));
+        courierRepository.save(distant);
+        assertThat(fourZoneDispatch.zones().get(2).contains(distant.getLocation())).isTrue();
+        Order order = Order.create(Location.create(1, 1), 5);
+        orderRepository.save(order);
+
+
+        ZoneDispatch.Result result = fourZoneDispatch.dispatch(west);
+
+
+        assertThat(result.claimed()).isEqualTo(1);
+        assertThat(result.assigned()).isEqualTo(1);
+        assertThat(orderRepository.findById(order.getId()).getCourierId()).isEqualTo(distant.getId());
+    }
+
+    @Test
+    void should_LeaveOrderCreated_when_NeighbourZoneIsOwnedElsewhere() throws SQLException {
+        courierRepository.save(Courier.create("East", 2, Location.create(9, 9)));
+        Order order = Order.create(Location.create(2, 2), 5);
+        orderRepository.save(order);
+
+
+        ZoneDispatch.Result result = whileLockedElsewhere(zones.get(1), () -> zoneDispatch.dispatch(zones.get(0)));
+
+
+        assertThat(result.claimed()).isEqualTo(1);
+        assertThat(result.assigned()).isZero();
+        assertThat(orderRepository.findById(order.getId()).getStatus()).isEqualTo(OrderStatus.CREATED);
+    }
+
+    @Test
+    void should_SkipZone_when_ZoneIsOwnedElsewhere() throws SQLException {
+        courierRepository.save(Courier.create("West", 2, Location.create(2, 2)));
+        Order order = Order.create(Location.create(2, 2), 5);
+        orderRepository.save(order);
+
+
+        ZoneDispatch.Result result = whileLockedElsewhere(zones.get(0), () -> zoneDispatch.dispatch(zones.get(0)));
+
+
+        assertThat(result).isEqualTo(ZoneDispatch.Result.NOT_OWNED);
+        assertThat(orderRepository.findById(order.getId()).getStatus()).isEqualTo(OrderStatus.CREATED);
+    }
+
+    @Test
+    void should_ReturnEmptyResult_when_ZoneHasNoOrders() {
+        ZoneDispatch.Result result = zoneDispatch.dispatch(zones.get(1));
+
+        assertThat(result).isEqualTo(new ZoneDispatch.Result(true, 0, 0, Duration.ZERO));
+    }
+
+    /**
+     * Holds a session lock on the zone from a connection outside the test transaction.
+     */
+    private <T> T whileLockedElsewhere(Zone zone, Supplier<T> action) throws SQLException {
+        try (Connection connection = jdbcTemplate.getDataSource().getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("select pg_advisory_lock(%d, %d)".formatted(ZoneLockJdbc.LOCK_NAMESPACE, zone.index()));
+            try {
+                return action.get();
+            } finally {
+                statement.execute("select pg_advisory_unlock(%d, %d)".formatted(ZoneLockJdbc.LOCK_NAMESPACE, zone.index()));
+            }
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package microarch.delivery.domain.model;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ZoneTest {
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 3, 4, 7, 10})
+    void shouldCoverEveryLocationExactlyOnce(int count) {
+        List<Zone> zones = Zone.split(count);
+
+        assertEquals(count, zones.size());
+        for (int x = Location.MIN_VALUE; x <= Location.MAX_VALUE; x++) {
+            for (int y = Location.MIN_VALUE; y <= Location.MAX_VALUE; y++) {
+                Location location = Location.create(x, y);
+                assertEquals(1, zones.stream().filter(zone -> zone.contains(location)).count(), location.toString());
+            }
+        }
+    }
+
+    @Test
+    void shouldNumberZonesInOrder() {
+        List<Zone> zones = Zone.split(4);
+
+        assertEquals(List.of(0, 1, 2, 3), zones.stream().map(Zone::index).toList());
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {0, -1, 11})
+    void shouldNotSplit_when_CountIsOutOfRange(int count) {
+        assertThrows(IllegalArgumentException.class, () -> Zone.split(count));
+    }
+
+    @Test
+    void shouldNotCreateZone_when_BoundsLeaveGrid() {
+        assertThrows(IllegalArgumentException.class, () -> new Zone(0, 0, 5, 1, 10));
+        assertThrows(IllegalArgumentException.class, () -> new Zone(0, 6, 5, 1, 10));
+    }
+}
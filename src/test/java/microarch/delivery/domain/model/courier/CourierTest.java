@@ -1,5 +1,6 @@
 package microarch.delivery.domain.model.courier;
 
+import microarch.delivery.domain.model.Id;
 import microarch.delivery.domain.model.Location;
 import microarch.delivery.domain.model.courier.Courier;
 import microarch.delivery.domain.model.courier.StoragePlace;
@@ -7,6 +8,8 @@ import microarch.delivery.domain.model.order.Order;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.BeforeEach;
 
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 public class CourierTest {
@@ -165,4 +168,49 @@ public class CourierTest {
 
         assertThrows(IllegalArgumentException.class, () -> courier.completeOrder(order));
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldTrackLocationChange_when_Moved() {
+        courier.move(Location.create(3, 1));
+
+        assertTrue(courier.isLocationChanged());
+    }
+
+    @Test
+    void shouldNotTrackLocationChange_when_AlreadyAtTarget() {
+        courier.move(start);
+
+        assertFalse(courier.isLocationChanged());
+    }
+
+    @Test
+    void shouldTrackAddedStoragePlace() {
+        courier.addStoragePlace(StoragePlaceType.TRUNK);
+
+        assertEquals(1, courier.getAddedStoragePlaces().size());
+        assertEquals(StoragePlaceType.TRUNK, courier.getAddedStoragePlaces().get(0).getPlaceType());
+        assertTrue(courier.getChangedStoragePlaces().isEmpty());
+    }
+
+    @Test
+    void shouldTrackChangedStoragePlace_when_OrderTakenAndCompleted() {
+        Order order = Order.create(start, 2);
+        order.assign(courier.getId());
+
+        courier.takeOrder(order);
+        courier.completeOrder(order);
+
+        assertEquals(List.of(courier.getStoragePlaces().get(0)), courier.getChangedStoragePlaces());
+    }
+
+    @Test
+    void shouldCompleteOrder_when_CourierIdIsEqualButNotSameInstance() {
+        Order order = Order.create(start, 2);
+        order.assign(Id.of(courier.getId().id()));
+        courier.takeOrder(order);
+
+        courier.completeOrder(order);
+
+        assertNull(courier.getStoragePlaces().get(0).getOrderId());
+    }
+}
@@ -6,6 +6,8 @@ import microarch.delivery.domain.model.order.Order;
 import microarch.delivery.domain.model.order.OrderStatus;
 import org.junit.jupiter.api.Test;
 
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class OrderTest {
@@ -100,4 +102,26 @@ class OrderTest {
 
         assertEquals("only assigned orders can be completed", ex.getMessage());
     }
+
+    @Test
+    void shouldRaiseEventForEveryStatusChange() {
+        Order order = Order.create(Location.create(1, 2), 30);
+        Id courierId = Id.generate();
+        order.assign(courierId);
+        order.complete();
+
+        assertEquals(
+                List.of(OrderCreatedEvent.class, OrderAssignedEvent.class, OrderCompletedEvent.class),
+                order.getDomainEvents().stream().map(Object::getClass).toList());
+        assertEquals(courierId, ((OrderCompletedEvent) order.getDomainEvents().get(2)).getCourierId());
+    }
+
+    @Test
+    void shouldForgetEvents_when_Cleared() {
+        Order order = Order.create(Location.create(1, 2), 30);
+
+        order.clearDomainEvents();
+
+        assertTrue(order.getDomainEvents().isEmpty());
+    }
 }
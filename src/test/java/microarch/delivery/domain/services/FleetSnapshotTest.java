@@ -0,0 +1,79 @@
+package microarch.delivery.domain.services;
+
+import com.sun.management.ThreadMXBean;
+import microarch.delivery.domain.model.Location;
+import microarch.delivery.domain.model.courier.Courier;
+import microarch.delivery.domain.model.order.Order;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.Random;
+
+import static microarch.TestHelper.randomCouriers;
+import static org.junit.jupiter.api.Assertions.*;
+
+class FleetSnapshotTest {
+
+    @Test
+    void shouldFindFastestCourierWithFreePlace() {
+        Courier slow = Courier.create("Slow", 1, Location.create(1, 1));
+        Courier fast = Courier.create("Fast", 5, Location.create(1, 1));
+        FleetSnapshot snapshot = FleetSnapshot.of(List.of(slow, fast));
+
+        int row = snapshot.findFastest(10, 1, 5);
+
+        assertEquals(fast, snapshot.courierAt(row));
+        assertEquals(fast.getId().id(), snapshot.idAt(row));
+    }
+
+    @Test
+    void shouldNotFindCourier_when_VolumeDoesNotFit() {
+        FleetSnapshot snapshot = FleetSnapshot.of(List.of(Courier.create("John", 1, Location.create(1, 1))));
+
+        assertEquals(FleetSnapshot.NOT_FOUND, snapshot.findFastest(1, 1, 9999));
+    }
+
+    @Test
+    void shouldRefreshChangedCourierInPlace() {
+        Courier courier = Courier.create("John", 1, Location.create(1, 1));
+        FleetSnapshot snapshot = FleetSnapshot.of(List.of(courier));
+
+        courier.takeOrder(Order.create(Location.create(2, 2), 5));
+        snapshot.refresh(courier);
+
+        assertEquals(1, snapshot.size());
+        assertEquals(FleetSnapshot.NOT_FOUND, snapshot.findFastest(1, 1, 5));
+    }
+
+    @Test
+    void shouldAppendUnknownCourierOnRefresh() {
+        FleetSnapshot snapshot = FleetSnapshot.of(List.of());
+        Courier courier = Courier.create("John", 1, Location.create(1, 1));
+
+        snapshot.refresh(courier);
+
+        assertEquals(1, snapshot.size());
+        assertEquals(0, snapshot.findFastest(3, 3, 5));
+    }
+
+    @Test
+    void shouldNotAllocate_when_FindingFastestCourier() {
+        FleetSnapshot snapshot = FleetSnapshot.of(randomCouriers(new Random(7), 1_000));
+        ThreadMXBean threadMXBean = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+        int iterations = 100_000;
+        long checksum = 0;
+        for (int i = 0; i < iterations; i++) {
+            checksum += snapshot.findFastest(1 + i % 10, 1 + (i / 10) % 10, 1 + i % 120);
+        }
+
+        long before = threadMXBean.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < iterations; i++) {
+            checksum += snapshot.findFastest(1 + i % 10, 1 + (i / 10) % 10, 1 + i % 120);
+        }
+        long allocated = threadMXBean.getCurrentThreadAllocatedBytes() - before;
+
+        assertNotEquals(Long.MIN_VALUE, checksum);
+        assertTrue((double) allocated / iterations < 0.1, "allocated " + allocated + " bytes");
+    }
+}
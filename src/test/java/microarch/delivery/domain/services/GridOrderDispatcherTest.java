@@ -0,0 +1,129 @@
+package microarch.delivery.domain.services;
+
+import microarch.delivery.domain.model.Id;
+import microarch.delivery.domain.model.Location;
+import microarch.delivery.domain.model.courier.Courier;
+import microarch.delivery.domain.model.order.Order;
+import microarch.delivery.domain.model.order.OrderStatus;
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.RepetitionInfo;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static microarch.TestHelper.randomCouriers;
+import static microarch.TestHelper.randomOrders;
+import static org.junit.jupiter.api.Assertions.*;
+
+class GridOrderDispatcherTest {
+
+    private final GridOrderDispatcher dispatcher = new GridOrderDispatcher();
+    private final OrderDispatcherImpl linearDispatcher = new OrderDispatcherImpl();
+
+    private final Location locA = Location.create(1, 1);
+    private final Location locB = Location.create(10, 1);
+
+    @Test
+    void shouldDispatchOrderToFastestCourier() {
+        Order order = Order.create(locB, 5);
+
+        Courier slow = Courier.create("Slow", 1, locA);
+        Courier fast = Courier.create("Fast", 5, locA);
+
+        Courier selected = dispatcher.dispatch(order, List.of(slow, fast));
+
+        assertEquals("Fast", selected.getName());
+        assertEquals(OrderStatus.ASSIGNED, order.getStatus());
+        assertEquals(selected.getId(), order.getCourierId());
+    }
+
+    @Test
+    void shouldPreferFirstCourier_when_DeliveryTimesAreEqual() {
+        Order order = Order.create(Location.create(5, 5), 5);
+
+        Courier first = Courier.create("First", 2, Location.create(3, 5));
+        Courier second = Courier.create("Second", 2, Location.create(5, 3));
+
+        Courier selected = dispatcher.dispatch(order, List.of(first, second));
+
+        assertEquals("First", selected.getName());
+    }
+
+    @Test
+    void shouldNotDispatchOrder_when_NoCouriersProvided() {
+        Order order = Order.create(locA, 5);
+
+        IllegalArgumentException ex = assertThrows(
+                IllegalArgumentException.class,
+                () -> dispatcher.dispatch(order, List.of())
+        );
+
+        assertEquals("No available couriers capable of delivering the order", ex.getMessage());
+    }
+
+    @Test
+    void shouldNotDispatchOrder_when_NoCourierCanTakeOrder() {
+        Order order = Order.create(locA, 9999);
+
+        Courier courier = Courier.create("John", 3, locA);
+
+        IllegalArgumentException ex = assertThrows(
+                IllegalArgumentException.class,
+                () -> dispatcher.dispatch(order, List.of(courier))
+        );
+
+        assertEquals("No available couriers capable of delivering the order", ex.getMessage());
+    }
+
+    @Test
+    void shouldDispatchAllOrdersUntilCouriersRunOutOfSpace() {
+        Courier courier = Courier.create("John", 3, locA);
+        Order first = Order.create(locB, 5);
+        Order second = Order.create(locB, 5);
+
+        List<OrderAssignment> assignments = dispatcher.dispatchAll(List.of(first, second), List.of(courier));
+
+        assertEquals(1, assignments.size());
+        assertEquals(OrderStatus.ASSIGNED, first.getStatus());
+        assertEquals(OrderStatus.CREATED, second.getStatus());
+    }
+
+    @RepeatedTest(10)
+    void shouldDispatchAllLikeLinearDispatcher(RepetitionInfo repetitionInfo) {
+        long seed = repetitionInfo.getCurrentRepetition();
+        List<Courier> gridCouriers = randomCouriers(new Random(seed), 300);
+        List<Courier> linearCouriers = randomCouriers(new Random(seed), 300);
+
+        List<OrderAssignment> expected = linearDispatcher.dispatchAll(randomOrders(new Random(-seed), 400), linearCouriers);
+        List<OrderAssignment> actual = dispatcher.dispatchAll(randomOrders(new Random(-seed), 400), gridCouriers);
+
+        assertEquals(
+                expected.stream().map(a -> List.of(a.order().getId(), a.courier().getId())).toList(),
+                actual.stream().map(a -> List.of(a.order().getId(), a.courier().getId())).toList());
+    }
+
+    @RepeatedTest(20)
+    void shouldSelectSameCourierAsLinearDispatcher(RepetitionInfo repetitionInfo) {
+        long seed = repetitionInfo.getCurrentRepetition();
+        List<Courier> gridCouriers = randomCouriers(new Random(seed), 300);
+        List<Courier> linearCouriers = randomCouriers(new Random(seed), 300);
+        List<Order> gridOrders = randomOrders(new Random(-seed), 400);
+        List<Order> linearOrders = randomOrders(new Random(-seed), 400);
+
+        for (int i = 0; i < gridOrders.size(); i++) {
+            Id expected = dispatchOrNull(linearDispatcher, linearOrders.get(i), linearCouriers);
+            Id actual = dispatchOrNull(dispatcher, gridOrders.get(i), gridCouriers);
+
+            assertEquals(expected, actual, "order #" + i + " with seed " + seed);
+        }
+    }
+
+    private static Id dispatchOrNull(OrderDispatcher dispatcher, Order order, List<Courier> couriers) {
+        try {
+            return dispatcher.dispatch(order, couriers).getId();
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package microarch.delivery.domain.services;
+
+import microarch.delivery.domain.model.courier.Courier;
+import microarch.delivery.domain.model.order.Order;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Random;
+
+import static microarch.TestHelper.randomCouriers;
+import static microarch.TestHelper.randomOrders;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Tag("benchmark")
+class OptimalOrderDispatcherBenchmarkTest {
+
+    private static final int BATCH_SIZE = 1_000;
+    private static final long SEED = 42;
+
+    @Test
+    void benchmark_OptimalVersusGreedy() {
+        Result greedy = run(new OrderDispatcherImpl());
+        Result optimal = run(new OptimalOrderDispatcher(Duration.ofSeconds(30)));
+
+        System.out.printf("greedy:  %d assigned, total delivery time %.1f, %d ms%n", greedy.assigned, greedy.totalTime, greedy.elapsedMs);
+        System.out.printf("optimal: %d assigned, total delivery time %.1f, %d ms%n", optimal.assigned, optimal.totalTime, optimal.elapsedMs);
+
+        assertThat(optimal.assigned).isGreaterThanOrEqualTo(greedy.assigned);
+        if (optimal.assigned == greedy.assigned) {
+            assertThat(optimal.totalTime).isLessThanOrEqualTo(greedy.totalTime + 1e-9);
+        }
+    }
+
+    private static Result run(OrderDispatcher dispatcher) {
+        List<Courier> couriers = randomCouriers(new Random(SEED), BATCH_SIZE);
+        List<Order> orders = randomOrders(new Random(-SEED), BATCH_SIZE);
+
+        long started = System.nanoTime();
+        List<OrderAssignment> assignments = dispatcher.dispatchAll(orders, couriers);
+        long elapsedMs = (System.nanoTime() - started) / 1_000_000;
+
+        double totalTime = assignments.stream()
+                .mapToDouble(a -> a.courier().calculateDeliveryTime(a.order().getLocation()))
+                .sum();
+        return new Result(assignments.size(), totalTime, elapsedMs);
+    }
+
+    private record Result(int assigned, double totalTime, long elapsedMs) {
+    }
+}
@@ -0,0 +1,75 @@
+package microarch.delivery.domain.services;
+
+import microarch.delivery.domain.model.Location;
+import microarch.delivery.domain.model.courier.Courier;
+import microarch.delivery.domain.model.order.Order;
+import microarch.delivery.domain.model.order.OrderStatus;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OptimalOrderDispatcherTest {
+
+    private final OptimalOrderDispatcher dispatcher = new OptimalOrderDispatcher(Duration.ofSeconds(5));
+
+    @Test
+    void shouldMinimizeTotalDeliveryTime_when_GreedyStealsCourier() {
+        Courier near = Courier.create("Near", 1, Location.create(1, 1));
+        Courier far = Courier.create("Far", 1, Location.create(4, 1));
+        Order first = Order.create(Location.create(2, 1), 5);
+        Order second = Order.create(Location.create(1, 1), 5);
+
+        List<OrderAssignment> assignments = dispatcher.dispatchAll(List.of(first, second), List.of(near, far));
+
+        assertEquals(2, assignments.size());
+        assertEquals(far.getId(), first.getCourierId());
+        assertEquals(near.getId(), second.getCourierId());
+    }
+
+    @Test
+    void shouldFallBackToGreedy_when_TimeBudgetIsExceeded() {
+        OptimalOrderDispatcher impatientDispatcher = new OptimalOrderDispatcher(Duration.ZERO);
+        Courier near = Courier.create("Near", 1, Location.create(1, 1));
+        Courier far = Courier.create("Far", 1, Location.create(4, 1));
+        Order first = Order.create(Location.create(2, 1), 5);
+        Order second = Order.create(Location.create(1, 1), 5);
+
+        impatientDispatcher.dispatchAll(List.of(first, second), List.of(near, far));
+
+        assertEquals(near.getId(), first.getCourierId());
+        assertEquals(far.getId(), second.getCourierId());
+    }
+
+    @Test
+    void shouldLeaveOrderCreated_when_NoStoragePlaceFits() {
+        Courier courier = Courier.create("John", 2, Location.create(1, 1));
+        Order small = Order.create(Location.create(5, 5), 5);
+        Order huge = Order.create(Location.create(5, 5), 9999);
+
+        List<OrderAssignment> assignments = dispatcher.dispatchAll(List.of(huge, small), List.of(courier));
+
+        assertEquals(1, assignments.size());
+        assertEquals(OrderStatus.ASSIGNED, small.getStatus());
+        assertEquals(OrderStatus.CREATED, huge.getStatus());
+    }
+
+    @Test
+    void shouldAssignEveryOrderOnce_when_MoreOrdersThanStoragePlaces() {
+        Courier first = Courier.create("First", 1, Location.create(1, 1));
+        Courier second = Courier.create("Second", 3, Location.create(10, 10));
+        List<Order> orders = List.of(
+                Order.create(Location.create(2, 2), 5),
+                Order.create(Location.create(9, 9), 5),
+                Order.create(Location.create(5, 5), 5));
+
+        List<OrderAssignment> assignments = dispatcher.dispatchAll(orders, List.of(first, second));
+
+        assertEquals(2, assignments.size());
+        assertNotEquals(assignments.get(0).courier(), assignments.get(1).courier());
+        assertTrue(first.getStoragePlaces().stream().noneMatch(p -> p.isEmpty()));
+        assertTrue(second.getStoragePlaces().stream().noneMatch(p -> p.isEmpty()));
+    }
+}
@@ -85,4 +85,34 @@ class OrderDispatcherImplTest {
 
         assertEquals("Order must be in CREATED status for dispatch", ex.getMessage());
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldDispatchAllOrders_and_SkipOrdersNoCourierCanTake() {
+        Order small = Order.create(locB, 5);
+        Order huge = Order.create(locB, 9999);
+        Courier courier = Courier.create("John", 3, locA);
+
+        List<OrderAssignment> assignments = dispatcher.dispatchAll(List.of(huge, small), List.of(courier));
+
+        assertEquals(1, assignments.size());
+        assertEquals(small, assignments.get(0).order());
+        assertEquals(courier, assignments.get(0).courier());
+        assertEquals(OrderStatus.CREATED, huge.getStatus());
+    }
+
+    @Test
+    void shouldDispatchAllOrdersToFastestCourierWithFreeStorage() {
+        Order first = Order.create(locB, 5);
+        Order second = Order.create(locB, 5);
+        Courier slow = Courier.create("Slow", 1, locA);
+        Courier fast = Courier.create("Fast", 5, locA);
+
+        List<OrderAssignment> assignments = dispatcher.dispatchAll(List.of(first, second), List.of(slow, fast));
+
+        assertEquals(2, assignments.size());
+        assertEquals(fast, assignments.get(0).courier());
+        assertEquals(slow, assignments.get(1).courier());
+        assertEquals(fast.getId(), first.getCourierId());
+        assertEquals(slow.getId(), second.getCourierId());
+    }
+}
@@ -0,0 +1,57 @@
+package microarch.delivery.domain.services;
+
+import microarch.delivery.domain.model.courier.Courier;
+import microarch.delivery.domain.model.order.Order;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static microarch.TestHelper.randomCouriers;
+import static microarch.TestHelper.randomOrders;
+
+/**
+ * Compares sequential and fork-join scoring across pool sizes to pick {@code delivery.dispatcher.parallel.threshold}.
+ */
+@Tag("benchmark")
+class ParallelOrderDispatcherBenchmarkTest {
+
+    private static final int WARMUP_ORDERS = 50;
+    private static final int MEASURED_ORDERS = 200;
+
+    @ParameterizedTest
+    @ValueSource(ints = {1_000, 10_000, 50_000, 100_000, 500_000})
+    void benchmark_SequentialVersusParallel(int poolSize) {
+        ParallelOrderDispatcher sequential = new ParallelOrderDispatcher(ForkJoinPool.commonPool(), Integer.MAX_VALUE);
+        ParallelOrderDispatcher parallel = new ParallelOrderDispatcher(ForkJoinPool.commonPool(), 2_048);
+
+        double sequentialMicros = measure(sequential, poolSize);
+        double parallelMicros = measure(parallel, poolSize);
+
+        System.out.printf("pool %,9d: sequential %,10.1f us/op, parallel %,10.1f us/op (%d threads)%n",
+                poolSize, sequentialMicros, parallelMicros, ForkJoinPool.commonPool().getParallelism());
+    }
+
+    private static double measure(OrderDispatcher dispatcher, int poolSize) {
+        List<Courier> couriers = randomCouriers(new Random(poolSize), poolSize);
+        List<Order> orders = randomOrders(new Random(-poolSize), WARMUP_ORDERS + MEASURED_ORDERS);
+
+        dispatchEach(dispatcher, orders.subList(0, WARMUP_ORDERS), couriers);
+        long started = System.nanoTime();
+        dispatchEach(dispatcher, orders.subList(WARMUP_ORDERS, orders.size()), couriers);
+        return (System.nanoTime() - started) / 1_000.0 / MEASURED_ORDERS;
+    }
+
+    private static void dispatchEach(OrderDispatcher dispatcher, List<Order> orders, List<Courier> couriers) {
+        for (Order order : orders) {
+            try {
+                dispatcher.dispatch(order, couriers);
+            } catch (IllegalArgumentException e) {
+                // no courier left for this volume, the scan cost is measured all the same
+            }
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package microarch.delivery.domain.services;
+
+import microarch.delivery.domain.model.Id;
+import microarch.delivery.domain.model.Location;
+import microarch.delivery.domain.model.courier.Courier;
+import microarch.delivery.domain.model.order.Order;
+import microarch.delivery.domain.model.order.OrderStatus;
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.RepetitionInfo;
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static microarch.TestHelper.fullCourierBuilder;
+import static microarch.TestHelper.fullStoragePlace;
+import static microarch.TestHelper.randomCouriers;
+import static microarch.TestHelper.randomOrders;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParallelOrderDispatcherTest {
+
+    private final ForkJoinPool forkJoinPool = new ForkJoinPool(4);
+    private final ParallelOrderDispatcher dispatcher = new ParallelOrderDispatcher(forkJoinPool, 8);
+
+    @Test
+    void shouldDispatchOrderToFastestCourier() {
+        Order order = Order.create(Location.create(10, 1), 5);
+
+        Courier slow = Courier.create("Slow", 1, Location.create(1, 1));
+        Courier fast = Courier.create("Fast", 5, Location.create(1, 1));
+
+        Courier selected = dispatcher.dispatch(order, List.of(slow, fast));
+
+        assertEquals("Fast", selected.getName());
+        assertEquals(OrderStatus.ASSIGNED, order.getStatus());
+        assertEquals(selected.getId(), order.getCourierId());
+    }
+
+    @Test
+    void shouldPreferLowestId_when_DeliveryTimesAreEqual() {
+        Order order = Order.create(Location.create(5, 5), 5);
+        List<Courier> couriers = randomCouriers(new Random(1), 64).stream()
+                .map(c -> fullCourierBuilder()
+                        .id(c.getId())
+                        .speed(2)
+                        .location(Location.create(3, 5))
+                        .storagePlaces(List.of(fullStoragePlace().orderId(null).build()))
+                        .build())
+                .sorted(Comparator.comparing(Courier::getId).reversed())
+                .toList();
+
+        Courier selected = dispatcher.dispatch(order, couriers);
+
+        assertEquals(Id.of(1), selected.getId());
+    }
+
+    @Test
+    void shouldNotDispatchOrder_when_NoCourierCanTakeOrder() {
+        Order order = Order.create(Location.create(1, 1), 9999);
+        List<Courier> couriers = randomCouriers(new Random(2), 100);
+
+        IllegalArgumentException ex = assertThrows(
+                IllegalArgumentException.class,
+                () -> dispatcher.dispatch(order, couriers)
+        );
+
+        assertEquals("No available couriers capable of delivering the order", ex.getMessage());
+    }
+
+    @RepeatedTest(10)
+    void shouldSelectSameCourierInParallelAndSequentialMode(RepetitionInfo repetitionInfo) {
+        long seed = repetitionInfo.getCurrentRepetition();
+        ParallelOrderDispatcher sequential = new ParallelOrderDispatcher(forkJoinPool, Integer.MAX_VALUE);
+        List<Courier> parallelCouriers = randomCouriers(new Random(seed), 500);
+        List<Courier> sequentialCouriers = randomCouriers(new Random(seed), 500);
+        List<Order> parallelOrders = randomOrders(new Random(-seed), 200);
+        List<Order> sequentialOrders = randomOrders(new Random(-seed), 200);
+
+        List<OrderAssignment> expected = sequential.dispatchAll(sequentialOrders, sequentialCouriers);
+        List<OrderAssignment> actual = dispatcher.dispatchAll(parallelOrders, parallelCouriers);
+
+        assertEquals(
+                expected.stream().map(a -> List.of(a.order().getId(), a.courier().getId())).toList(),
+                actual.stream().map(a -> List.of(a.order().getId(), a.courier().getId())).toList());
+    }
+}
@@ -0,0 +1,70 @@
+package microarch.delivery.domain.services;
+
+import microarch.delivery.domain.model.Id;
+import microarch.delivery.domain.model.Location;
+import microarch.delivery.domain.model.courier.Courier;
+import microarch.delivery.domain.model.order.Order;
+import microarch.delivery.domain.model.order.OrderStatus;
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.RepetitionInfo;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static microarch.TestHelper.randomCouriers;
+import static microarch.TestHelper.randomOrders;
+import static org.junit.jupiter.api.Assertions.*;
+
+class SnapshotOrderDispatcherTest {
+
+    private final SnapshotOrderDispatcher dispatcher = new SnapshotOrderDispatcher();
+    private final OrderDispatcherImpl linearDispatcher = new OrderDispatcherImpl();
+
+    @Test
+    void shouldDispatchOrderToFastestCourier() {
+        Order order = Order.create(Location.create(10, 1), 5);
+
+        Courier slow = Courier.create("Slow", 1, Location.create(1, 1));
+        Courier fast = Courier.create("Fast", 5, Location.create(1, 1));
+
+        Courier selected = dispatcher.dispatch(order, List.of(slow, fast));
+
+        assertEquals("Fast", selected.getName());
+        assertEquals(OrderStatus.ASSIGNED, order.getStatus());
+        assertEquals(selected.getId(), order.getCourierId());
+    }
+
+    @Test
+    void shouldNotDispatchOrder_when_NoCourierCanTakeOrder() {
+        Order order = Order.create(Location.create(1, 1), 9999);
+
+        IllegalArgumentException ex = assertThrows(
+                IllegalArgumentException.class,
+                () -> dispatcher.dispatch(order, List.of(Courier.create("John", 3, Location.create(1, 1))))
+        );
+
+        assertEquals("No available couriers capable of delivering the order", ex.getMessage());
+    }
+
+    @RepeatedTest(10)
+    void shouldSelectSameCourierAsLinearDispatcher(RepetitionInfo repetitionInfo) {
+        long seed = repetitionInfo.getCurrentRepetition();
+        List<Courier> linearCouriers = randomCouriers(new Random(seed), 300);
+        FleetSnapshot snapshot = FleetSnapshot.of(randomCouriers(new Random(seed), 300));
+        List<Order> linearOrders = randomOrders(new Random(-seed), 400);
+        List<Order> snapshotOrders = randomOrders(new Random(-seed), 400);
+
+        for (int i = 0; i < linearOrders.size(); i++) {
+            Order linearOrder = linearOrders.get(i);
+            Id expected = linearCouriers.stream().anyMatch(c -> c.canTakeOrder(linearOrder))
+                    ? linearDispatcher.dispatch(linearOrder, linearCouriers).getId()
+                    : null;
+            Order order = snapshotOrders.get(i);
+            int row = snapshot.findFastest(order.getLocation().x(), order.getLocation().y(), order.getVolume());
+            Id actual = row == FleetSnapshot.NOT_FOUND ? null : dispatcher.dispatch(order, snapshot).getId();
+
+            assertEquals(expected, actual, "order #" + i + " with seed " + seed);
+        }
+    }
+}
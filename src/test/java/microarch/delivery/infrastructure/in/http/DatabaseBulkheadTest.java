@@ -0,0 +1,61 @@
+package microarch.delivery.infrastructure.in.http;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DatabaseBulkheadTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final DatabaseBulkhead bulkhead = new DatabaseBulkhead(meterRegistry, 1, Duration.ofMillis(50));
+
+    @Test
+    void should_ReturnResult_when_PermitIsFree() {
+        assertThat(bulkhead.execute(() -> 42)).isEqualTo(42);
+        assertThat(bulkhead.availablePermits()).isEqualTo(1);
+    }
+
+    @Test
+    void should_Reject_when_NoPermitWithinTimeout() throws Exception {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Integer> holder = CompletableFuture.supplyAsync(() -> bulkhead.execute(() -> {
+            entered.countDown();
+            await(release);
+            return 1;
+        }));
+        assertThat(entered.await(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThatThrownBy(() -> bulkhead.execute(() -> 2)).isInstanceOf(DatabaseBusyException.class);
+        assertThat(meterRegistry.get("delivery.http.db.rejected").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("delivery.http.db.active").gauge().value()).isEqualTo(1);
+
+        release.countDown();
+        assertThat(holder.get(5, TimeUnit.SECONDS)).isEqualTo(1);
+        assertThat(bulkhead.execute(() -> 3)).isEqualTo(3);
+    }
+
+    @Test
+    void should_ReleasePermit_when_ActionFails() {
+        assertThatThrownBy(() -> bulkhead.execute(() -> {
+            throw new IllegalStateException("boom");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(bulkhead.availablePermits()).isEqualTo(1);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
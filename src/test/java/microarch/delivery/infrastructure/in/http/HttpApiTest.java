@@ -0,0 +1,165 @@
+package microarch.delivery.infrastructure.in.http;
+
+import com.jayway.jsonpath.JsonPath;
+import microarch.BaseTest;
+import microarch.delivery.application.GeoClient;
+import microarch.delivery.application.GeoLookupException;
+import microarch.delivery.application.UnresolvableAddressException;
+import microarch.delivery.domain.model.Location;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.jdbc.JdbcTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@TestPropertySource(properties = {
+        "delivery.dispatch.enabled=false",
+        "delivery.simulation.enabled=false",
+        "delivery.notifications.enabled=false",
+        "delivery.outbox.relay.enabled=false",
+        "delivery.kafka.basket-confirmed.enabled=false"
+})
+class HttpApiTest extends BaseTest {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @MockitoBean
+    GeoClient geoClient;
+
+    @BeforeEach
+    void setUpGeo() {
+        when(geoClient.getLocation(anyString())).thenReturn(Location.create(3, 7));
+    }
+
+    @AfterEach
+    void tearDown() {
+        JdbcTestUtils.deleteFromTables(jdbcTemplate, "order_inbox", "outbox");
+    }
+
+    @Test
+    void should_CreateOrderOnce_when_RequestIsRepeated() throws Exception {
+        createOrder("basket-1", 5).andExpect(status().isCreated());
+        createOrder("basket-1", 5).andExpect(status().isOk());
+
+        assertThat(jdbcTemplate.queryForMap("select volume, status, location_x, location_y from orders"))
+                .containsEntry("volume", 5)
+                .containsEntry("status", "CREATED")
+                .containsEntry("location_x", 3)
+                .containsEntry("location_y", 7);
+    }
+
+    @Test
+    void should_ListOrdersByStatusPageByPage() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            createOrder("basket-" + i, 5).andExpect(status().isCreated());
+        }
+
+        String firstPage = mockMvc.perform(get("/api/v1/orders").with(jwt()).param("status", "CREATED").param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(2))
+                .andExpect(jsonPath("$.items[0].status").value("CREATED"))
+                .andExpect(jsonPath("$.next").isString())
+                .andReturn().getResponse().getContentAsString();
+
+        mockMvc.perform(get("/api/v1/orders")
+                        .with(jwt())
+                        .param("status", "CREATED")
+                        .param("limit", "2")
+                        .param("after", JsonPath.<String>read(firstPage, "$.next")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.next").doesNotExist());
+    }
+
+    @Test
+    void should_ReturnServiceUnavailable_when_GeoLookupFails() throws Exception {
+        when(geoClient.getLocation(anyString())).thenThrow(new GeoLookupException("Geo service circuit is open", null));
+
+        createOrder("basket-1", 5)
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "1"))
+                .andExpect(jsonPath("$.exception").value("Geo service circuit is open"));
+        assertThat(JdbcTestUtils.countRowsInTable(jdbcTemplate, "orders")).isZero();
+    }
+
+    @Test
+    void should_RejectOrderWithoutRetry_when_AddressIsUnknown() throws Exception {
+        when(geoClient.getLocation(anyString()))
+                .thenThrow(new UnresolvableAddressException("Geo service can not resolve the address: NOT_FOUND", null));
+
+        createOrder("basket-1", 5)
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(header().doesNotExist("Retry-After"))
+                .andExpect(jsonPath("$.exception").value("Geo service can not resolve the address: NOT_FOUND"));
+        assertThat(JdbcTestUtils.countRowsInTable(jdbcTemplate, "orders")).isZero();
+    }
+
+    @Test
+    void should_RejectRequest_when_BearerTokenIsMissing() throws Exception {
+        mockMvc.perform(get("/api/v1/orders").param("status", "CREATED"))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(post("/api/v1/couriers")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"name": "courier", "speed": 2, "location": {"x": 1, "y": 2}}
+                                """))
+                .andExpect(status().isUnauthorized());
+        assertThat(JdbcTestUtils.countRowsInTable(jdbcTemplate, "courier")).isZero();
+    }
+
+    @Test
+    void should_RejectOrder_when_VolumeIsNotPositive() throws Exception {
+        createOrder("basket-1", 0).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void should_AddAndListCouriers() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(post("/api/v1/couriers")
+                            .with(jwt())
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("""
+                                    {"name": "courier-%d", "speed": 2, "location": {"x": 1, "y": 2}}
+                                    """.formatted(i)))
+                    .andExpect(status().isCreated())
+                    .andExpect(jsonPath("$.id").isString())
+                    .andExpect(jsonPath("$.name").value("courier-" + i));
+        }
+
+        String firstPage = mockMvc.perform(get("/api/v1/couriers").with(jwt()).param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(2))
+                .andExpect(jsonPath("$.items[0].location.x").value(1))
+                .andReturn().getResponse().getContentAsString();
+
+        mockMvc.perform(get("/api/v1/couriers").with(jwt()).param("limit", "2").param("after", JsonPath.<String>read(firstPage, "$.next")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.next").doesNotExist());
+    }
+
+    private ResultActions createOrder(String basketId, int volume) throws Exception {
+        return mockMvc.perform(post("/api/v1/orders")
+                .with(jwt())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                        {"basketId": "%s", "street": "Tverskaya 1", "volume": %d}
+                        """.formatted(basketId, volume)));
+    }
+}
@@ -0,0 +1,133 @@
+package microarch.delivery.infrastructure.in.http;
+
+import microarch.BasePostgresContainerTest;
+import microarch.delivery.application.GeoClient;
+import microarch.delivery.domain.model.Location;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.jdbc.JdbcTestUtils;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+/**
+ * Fires bursts of concurrent order creations at a running server. Every request waits
+ * {@link #GEO_LATENCY} on a slow geo service, which holds a Tomcat thread on platform threads and only a
+ * cheap virtual thread otherwise. Subclasses choose the thread model, compare their output.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "delivery.dispatch.enabled=false",
+        "delivery.simulation.enabled=false",
+        "delivery.notifications.enabled=false",
+        "delivery.outbox.relay.enabled=false",
+        "delivery.kafka.basket-confirmed.enabled=false",
+        "delivery.http.security.enabled=false"
+})
+abstract class HttpLoadBenchmark extends BasePostgresContainerTest {
+
+    private static final Duration GEO_LATENCY = Duration.ofMillis(200);
+
+    @LocalServerPort
+    int port;
+
+    @Value("${spring.threads.virtual.enabled}")
+    boolean virtualThreads;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @MockitoBean
+    GeoClient geoClient;
+
+    private HttpClient httpClient;
+    private ExecutorService clients;
+
+    @BeforeEach
+    void setUp() {
+        when(geoClient.getLocation(anyString())).thenAnswer(invocation -> {
+            Thread.sleep(GEO_LATENCY);
+            return Location.create(3, 7);
+        });
+        clients = Executors.newVirtualThreadPerTaskExecutor();
+        httpClient = HttpClient.newBuilder().executor(clients).build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        httpClient.close();
+        clients.shutdownNow();
+        JdbcTestUtils.deleteFromTables(jdbcTemplate, "order_inbox", "outbox", "orders");
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {200, 1000, 4000})
+    void benchmark_CreateOrdersConcurrently(int concurrency) throws Exception {
+        List<Future<Result>> futures = new ArrayList<>(concurrency);
+        long started = System.nanoTime();
+        for (int i = 0; i < concurrency; i++) {
+            futures.add(clients.submit(this::createOrder));
+        }
+        long[] latencies = new long[concurrency];
+        int created = 0;
+        int rejected = 0;
+        for (int i = 0; i < concurrency; i++) {
+            Result result = futures.get(i).get();
+            latencies[i] = result.latencyNanos();
+            if (result.status() == 201) {
+                created++;
+            } else if (result.status() == 503) {
+                rejected++;
+            }
+        }
+        double seconds = (System.nanoTime() - started) / 1e9;
+        Arrays.sort(latencies);
+
+        System.out.printf("%s threads, %d concurrent clients: %.2f s, %.0f req/sec, p50 %d ms, p99 %d ms, max %d ms, %d rejected%n",
+                virtualThreads ? "Virtual" : "Platform", concurrency, seconds, concurrency / seconds,
+                millis(latencies, 0.50), millis(latencies, 0.99), latencies[concurrency - 1] / 1_000_000, rejected);
+        assertThat(created + rejected).isEqualTo(concurrency);
+    }
+
+    private Result createOrder() throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/v1/orders"))
+                .header("Content-Type", "application/json")
+                .timeout(Duration.ofMinutes(1))
+                .POST(HttpRequest.BodyPublishers.ofString("""
+                        {"basketId": "%s", "street": "Tverskaya 1", "volume": 5}
+                        """.formatted(UUID.randomUUID())))
+                .build();
+        long started = System.nanoTime();
+        HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+        return new Result(response.statusCode(), System.nanoTime() - started);
+    }
+
+    private static long millis(long[] sortedLatencies, double percentile) {
+        int index = (int) Math.ceil(percentile * sortedLatencies.length) - 1;
+        return sortedLatencies[Math.max(index, 0)] / 1_000_000;
+    }
+
+    private record Result(int status, long latencyNanos) {
+    }
+}
@@ -0,0 +1,15 @@
+package microarch.delivery.infrastructure.in.http;
+
+import org.junit.jupiter.api.Tag;
+import org.springframework.test.context.TestPropertySource;
+
+/**
+ * Baseline: Tomcat's default pool of 200 platform threads.
+ */
+@Tag("benchmark")
+@TestPropertySource(properties = {
+        "spring.threads.virtual.enabled=false",
+        "server.tomcat.threads.max=200"
+})
+class PlatformThreadHttpLoadBenchmarkTest extends HttpLoadBenchmark {
+}
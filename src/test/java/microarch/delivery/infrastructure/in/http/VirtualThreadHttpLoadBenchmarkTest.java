@@ -0,0 +1,9 @@
+package microarch.delivery.infrastructure.in.http;
+
+import org.junit.jupiter.api.Tag;
+import org.springframework.test.context.TestPropertySource;
+
+@Tag("benchmark")
+@TestPropertySource(properties = "spring.threads.virtual.enabled=true")
+class VirtualThreadHttpLoadBenchmarkTest extends HttpLoadBenchmark {
+}
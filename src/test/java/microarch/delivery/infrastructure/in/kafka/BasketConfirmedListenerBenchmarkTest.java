@@ -0,0 +1,59 @@
+package microarch.delivery.infrastructure.in.kafka;
+
+import microarch.BasePostgresContainerTest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.test.jdbc.JdbcTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+
+import static microarch.delivery.infrastructure.in.kafka.BasketConfirmedListenerTest.message;
+import static org.awaitility.Awaitility.await;
+
+@Tag("benchmark")
+@JdbcTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@EmbeddedKafka(partitions = 1, topics = "basket.confirmed", bootstrapServersProperty = "spring.kafka.bootstrap-servers")
+@Import(OrderIntakeTestConfiguration.class)
+class BasketConfirmedListenerBenchmarkTest extends BasePostgresContainerTest {
+
+    private static final int MESSAGE_COUNT = 200_000;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    KafkaTemplate<String, String> kafkaTemplate;
+
+    @AfterEach
+    void tearDown() {
+        JdbcTestUtils.deleteFromTables(jdbcTemplate, "order_inbox", "orders");
+    }
+
+    @Test
+    void benchmark_ConsumeBasketConfirmedMessages() {
+        long started = System.nanoTime();
+        for (int i = 0; i < MESSAGE_COUNT; i++) {
+            String basketId = "basket-" + i;
+            kafkaTemplate.send("basket.confirmed", basketId, message(basketId, 1 + i % 30, 1 + i % 10, 1 + i / 10 % 10));
+        }
+        kafkaTemplate.flush();
+
+        await().atMost(Duration.ofMinutes(2)).pollInterval(Duration.ofMillis(50))
+                .until(() -> JdbcTestUtils.countRowsInTable(jdbcTemplate, "orders") == MESSAGE_COUNT);
+        double seconds = (System.nanoTime() - started) / 1e9;
+
+        System.out.printf("Consumed %d messages in %.2f s: %.0f msgs/sec%n", MESSAGE_COUNT, seconds, MESSAGE_COUNT / seconds);
+    }
+}
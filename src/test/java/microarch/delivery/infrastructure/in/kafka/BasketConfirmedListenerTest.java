@@ -0,0 +1,88 @@
+package microarch.delivery.infrastructure.in.kafka;
+
+import microarch.BasePostgresContainerTest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.test.jdbc.JdbcTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+@JdbcTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@EmbeddedKafka(partitions = 1, topics = "basket.confirmed", bootstrapServersProperty = "spring.kafka.bootstrap-servers")
+@Import(OrderIntakeTestConfiguration.class)
+class BasketConfirmedListenerTest extends BasePostgresContainerTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(20);
+    private static final String TOPIC = "basket.confirmed";
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    KafkaTemplate<String, String> kafkaTemplate;
+
+    @AfterEach
+    void tearDown() {
+        JdbcTestUtils.deleteFromTables(jdbcTemplate, "order_inbox", "orders");
+    }
+
+    @Test
+    void should_CreateOrder_when_BasketConfirmed() {
+        kafkaTemplate.send(TOPIC, "basket-1", message("basket-1", 5, 3, 7));
+
+        await().atMost(TIMEOUT).until(() -> countOrders() == 1);
+        assertThat(jdbcTemplate.queryForMap("select volume, status, location_x, location_y from orders"))
+                .containsEntry("volume", 5)
+                .containsEntry("status", "CREATED")
+                .containsEntry("location_x", 3)
+                .containsEntry("location_y", 7);
+    }
+
+    @Test
+    void should_CreateOneOrder_when_MessageIsRedelivered() {
+        kafkaTemplate.send(TOPIC, "basket-1", message("basket-1", 5, 3, 7));
+        kafkaTemplate.send(TOPIC, "basket-2", message("basket-2", 5, 3, 7));
+        await().atMost(TIMEOUT).until(() -> countOrders() == 2);
+
+        kafkaTemplate.send(TOPIC, "basket-1", message("basket-1", 5, 3, 7));
+        kafkaTemplate.send(TOPIC, "basket-3", message("basket-3", 5, 3, 7));
+        await().atMost(TIMEOUT).until(() -> countOrders() == 3);
+
+        assertThat(JdbcTestUtils.countRowsInTable(jdbcTemplate, "order_inbox")).isEqualTo(3);
+    }
+
+    @Test
+    void should_SkipMalformedMessage() {
+        kafkaTemplate.send(TOPIC, "broken", "{not json");
+        kafkaTemplate.send(TOPIC, "outside", message("outside", 5, 42, 7));
+        kafkaTemplate.send(TOPIC, "basket-1", message("basket-1", 5, 3, 7));
+
+        await().atMost(TIMEOUT).until(() -> countOrders() == 1);
+        assertThat(jdbcTemplate.queryForList("select message_key from order_inbox", String.class))
+                .containsExactly("basket-1");
+    }
+
+    private int countOrders() {
+        return JdbcTestUtils.countRowsInTable(jdbcTemplate, "orders");
+    }
+
+    static String message(String basketId, int volume, int x, int y) {
+        return """
+                {"basketId": "%s", "volume": %d, "location": {"x": %d, "y": %d}}
+                """.formatted(basketId, volume, x, y);
+    }
+}
@@ -0,0 +1,27 @@
+package microarch.delivery.infrastructure.in.kafka;
+
+import microarch.delivery.application.OrderIntake;
+import microarch.delivery.infrastructure.out.postgres.OrderInboxJdbc;
+import microarch.delivery.infrastructure.out.postgres.OrderRepositoryJdbc;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.kafka.KafkaAutoConfiguration;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+
+import javax.sql.DataSource;
+
+/**
+ * Kafka consumer and order intake on top of a {@code @JdbcTest} slice.
+ */
+@TestConfiguration
+@ImportAutoConfiguration({KafkaAutoConfiguration.class, JacksonAutoConfiguration.class})
+@Import({KafkaConsumerConfiguration.class, BasketConfirmedListener.class, OrderIntake.class, OrderInboxJdbc.class})
+class OrderIntakeTestConfiguration {
+
+    @Bean
+    OrderRepositoryJdbc orderRepository(DataSource dataSource) {
+        return new OrderRepositoryJdbc(dataSource);
+    }
+}
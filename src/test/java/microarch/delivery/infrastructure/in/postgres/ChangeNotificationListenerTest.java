@@ -0,0 +1,173 @@
+package microarch.delivery.infrastructure.in.postgres;
+
+import microarch.BasePostgresContainerTest;
+import microarch.delivery.application.AggregateChange;
+import microarch.delivery.application.AggregateChange.AggregateType;
+import microarch.delivery.application.AggregateChangeListener;
+import microarch.delivery.domain.model.Id;
+import microarch.delivery.domain.model.Location;
+import microarch.delivery.domain.model.courier.Courier;
+import microarch.delivery.infrastructure.out.postgres.CourierRepositoryJdbc;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.jdbc.JdbcTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+@JdbcTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ChangeNotificationListenerTest extends BasePostgresContainerTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    private final RecordingListener recorder = new RecordingListener();
+    private ChangeNotificationListener listener;
+
+    @BeforeEach
+    void setUp() {
+        listener = new ChangeNotificationListener(
+                jdbcTemplate.getDataSource(), List.of(recorder), 500, Duration.ofMillis(100), Duration.ofMillis(100));
+        listener.start();
+        awaitListening();
+    }
+
+    @AfterEach
+    void tearDown() {
+        listener.stop();
+        JdbcTestUtils.deleteFromTables(jdbcTemplate, "storage_place", "orders", "courier");
+    }
+
+    @Test
+    void should_PublishCommittedCourierChange() {
+        Courier courier = Courier.create("John", 2, Location.create(1, 1));
+
+
+        new CourierRepositoryJdbc(jdbcTemplate.getDataSource()).save(courier);
+
+
+        await().atMost(TIMEOUT).untilAsserted(() -> assertThat(recorder.changes)
+                .contains(new AggregateChange(AggregateType.COURIER, courier.getId(), 1)));
+    }
+
+    @Test
+    void should_BatchNotifications_when_ManyOrdersChangeAtOnce() {
+        int orderCount = 2_000;
+
+
+        jdbcTemplate.update("""
+                insert into orders (id, volume, status, location_x, location_y, created_at, created_by, version)
+                select g, 1, 'CREATED', 1, 1, now(), 'test', 1
+                from generate_series(1, ?) g
+                """, orderCount);
+
+
+        await().atMost(TIMEOUT).untilAsserted(() -> assertThat(recorder.changes).hasSize(orderCount));
+        assertThat(recorder.batches.get()).isLessThan(orderCount / 10);
+    }
+
+    @Test
+    void should_PublishNewVersion_when_OrderMovesToCompletedPartition() {
+        jdbcTemplate.update("""
+                insert into orders (id, volume, status, location_x, location_y, created_at, created_by, version)
+                values (43, 1, 'ASSIGNED', 1, 1, now(), 'test', 1)
+                """);
+
+
+        jdbcTemplate.update("update orders set status = 'COMPLETED', version = 2 where id = 43");
+
+
+        await().atMost(TIMEOUT).untilAsserted(() -> assertThat(recorder.changes)
+                .contains(new AggregateChange(AggregateType.ORDER, Id.of(43), 2)));
+        assertThat(recorder.changes)
+                .filteredOn(change -> change.id().equals(Id.of(43)))
+                .noneMatch(AggregateChange::isDeleted);
+    }
+
+    @Test
+    void should_PublishDeletedOrder() {
+        jdbcTemplate.update("""
+                insert into orders (id, volume, status, location_x, location_y, created_at, created_by, version)
+                values (44, 1, 'CREATED', 1, 1, now(), 'test', 1)
+                """);
+
+
+        jdbcTemplate.update("delete from orders where id = 44");
+
+
+        await().atMost(TIMEOUT).untilAsserted(() -> assertThat(recorder.changes)
+                .contains(new AggregateChange(AggregateType.ORDER, Id.of(44), AggregateChange.DELETED)));
+    }
+
+    @Test
+    void should_Resync_when_ConnectionIsLost() {
+        jdbcTemplate.queryForList(
+                "select pg_terminate_backend(pid) from pg_stat_activity where query = 'listen " + ChangeNotificationListener.CHANNEL + "'");
+
+
+        await().atMost(TIMEOUT).until(() -> recorder.resyncs.get() > 0);
+        awaitListening();
+        jdbcTemplate.update("""
+                insert into orders (id, volume, status, location_x, location_y, created_at, created_by, version)
+                values (42, 1, 'CREATED', 1, 1, now(), 'test', 1)
+                """);
+        await().atMost(TIMEOUT).untilAsserted(() -> assertThat(recorder.changes)
+                .contains(new AggregateChange(AggregateType.ORDER, Id.of(42), 1)));
+    }
+
+    @Test
+    void should_ParseDeletedAggregate() {
+        AggregateChange change = ChangeNotificationListener.parse("order:7:deleted");
+
+        assertThat(change.id()).isEqualTo(Id.of(7));
+        assertThat(change.isDeleted()).isTrue();
+    }
+
+    @Test
+    void should_ParseUnversionedLocationChange() {
+        AggregateChange change = ChangeNotificationListener.parse("courier:7:location");
+
+        assertThat(change.type()).isEqualTo(AggregateType.COURIER);
+        assertThat(change.isUnversioned()).isTrue();
+    }
+
+    private void awaitListening() {
+        await().atMost(TIMEOUT).until(() -> jdbcTemplate.queryForObject(
+                "select count(*) from pg_stat_activity where query = 'listen " + ChangeNotificationListener.CHANNEL + "'",
+                Integer.class) > 0);
+    }
+
+    private static class RecordingListener implements AggregateChangeListener {
+
+        private final List<AggregateChange> changes = new CopyOnWriteArrayList<>();
+        private final AtomicInteger batches = new AtomicInteger();
+        private final AtomicInteger resyncs = new AtomicInteger();
+
+        @Override
+        public void onChanges(List<AggregateChange> changes) {
+            this.changes.addAll(changes);
+            batches.incrementAndGet();
+        }
+
+        @Override
+        public void onResync() {
+            resyncs.incrementAndGet();
+        }
+    }
+}
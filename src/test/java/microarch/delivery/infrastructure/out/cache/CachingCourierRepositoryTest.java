@@ -0,0 +1,218 @@
+package microarch.delivery.infrastructure.out.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import microarch.BasePostgresContainerTest;
+import microarch.delivery.domain.model.Id;
+import microarch.delivery.domain.model.Location;
+import microarch.delivery.domain.model.courier.Courier;
+import microarch.delivery.domain.model.courier.StoragePlaceType;
+import microarch.delivery.infrastructure.in.postgres.ChangeNotificationListener;
+import microarch.delivery.infrastructure.out.postgres.CourierRepositoryJdbc;
+import microarch.delivery.infrastructure.out.postgres.WriteBehindCourierLocationWriter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.jdbc.JdbcTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+@JdbcTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CachingCourierRepositoryTest extends BasePostgresContainerTest {
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    private VersionedCache<CourierSnapshot> cache;
+    private CachingCourierRepository courierRepository;
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        cache = new VersionedCache<>(Caffeine.newBuilder().maximumSize(100).recordStats().build(), CourierSnapshot::version);
+        courierRepository = new CachingCourierRepository(new CourierRepositoryJdbc(jdbcTemplate.getDataSource()), cache);
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @AfterEach
+    void tearDown() {
+        JdbcTestUtils.deleteFromTables(jdbcTemplate, "storage_place", "courier");
+    }
+
+    @Test
+    void should_ServeRepeatedFindByIdFromCache() {
+        Courier courier = Courier.create("John", 2, Location.create(1, 1));
+        courierRepository.save(courier);
+
+
+        Courier first = courierRepository.findById(courier.getId());
+        Courier second = courierRepository.findById(courier.getId());
+
+
+        assertThat(first).isNotSameAs(second);
+        assertThat(second.getVersion()).isEqualTo(1);
+        assertThat(cache.nativeCache().stats().hitCount()).isEqualTo(2);
+    }
+
+    @Test
+    void should_FindSavedState_when_TransactionCommitted() {
+        Courier courier = Courier.create("John", 2, Location.create(1, 1));
+        courierRepository.save(courier);
+
+
+        transactionTemplate.executeWithoutResult(status -> {
+            Courier loaded = courierRepository.findById(courier.getId());
+            loaded.move(Location.create(5, 5));
+            courierRepository.save(loaded);
+        });
+
+
+        Courier found = courierRepository.findById(courier.getId());
+        assertThat(found.getLocation()).isEqualTo(Location.create(3, 1));
+        assertThat(found.getVersion()).isEqualTo(2);
+        assertThat(found.getVersion()).isEqualTo(new CourierRepositoryJdbc(jdbcTemplate.getDataSource())
+                .findById(courier.getId()).getVersion());
+    }
+
+    @Test
+    void should_ReadOwnWrite_and_ForgetIt_when_TransactionRolledBack() {
+        Courier courier = Courier.create("John", 2, Location.create(1, 1));
+        courierRepository.save(courier);
+
+
+        Location locationInTransaction = transactionTemplate.execute(status -> {
+            Courier loaded = courierRepository.findById(courier.getId());
+            loaded.move(Location.create(5, 5));
+            courierRepository.save(loaded);
+            Location location = courierRepository.findById(courier.getId()).getLocation();
+            status.setRollbackOnly();
+            return location;
+        });
+
+
+        assertThat(locationInTransaction).isEqualTo(Location.create(3, 1));
+        assertThat(courierRepository.findById(courier.getId()).getLocation()).isEqualTo(Location.create(1, 1));
+    }
+
+    @Test
+    void should_NotCacheLoadThatReadRowBeforeCommit_when_CourierDidNotMove() {
+        Courier courier = Courier.create("John", 2, Location.create(1, 1));
+        courierRepository.save(courier);
+        Courier readBeforeCommit = new CourierRepositoryJdbc(jdbcTemplate.getDataSource()).findById(courier.getId());
+
+
+        transactionTemplate.executeWithoutResult(status -> {
+            Courier loaded = courierRepository.findById(courier.getId());
+            loaded.addStoragePlace(StoragePlaceType.TRUNK);
+            courierRepository.save(loaded);
+        });
+        cache.putLoaded(courier.getId(), CourierSnapshot.of(readBeforeCommit, readBeforeCommit.getVersion()));
+
+
+        Courier found = courierRepository.findById(courier.getId());
+        assertThat(found.getVersion()).isEqualTo(2);
+        assertThat(found.getStoragePlaces()).hasSize(2);
+    }
+
+    @Test
+    void should_EvictSavedCourier_when_LocationWasWrittenBehindSinceLoad() {
+        Courier courier = Courier.create("John", 2, Location.create(1, 1));
+        courierRepository.save(courier);
+        Courier loaded = courierRepository.findById(courier.getId());
+        WriteBehindCourierLocationWriter writer = locationWriter(ids -> {
+        });
+        writer.updateLocation(courier.getId(), Location.create(4, 4));
+        writer.flush();
+
+
+        loaded.addStoragePlace(StoragePlaceType.TRUNK);
+        courierRepository.save(loaded);
+
+
+        Courier found = courierRepository.findById(courier.getId());
+        assertThat(found.getLocation()).isEqualTo(Location.create(4, 4));
+        assertThat(found.getStoragePlaces()).hasSize(2);
+    }
+
+    @Test
+    void should_EvictCourierOnOtherNode_when_LocationIsWrittenBehind() {
+        VersionedCache<CourierSnapshot> otherNodeCache =
+                new VersionedCache<>(Caffeine.newBuilder().maximumSize(100).build(), CourierSnapshot::version);
+        CachingCourierRepository otherNode =
+                new CachingCourierRepository(new CourierRepositoryJdbc(jdbcTemplate.getDataSource()), otherNodeCache);
+        ChangeNotificationListener notifications = new ChangeNotificationListener(jdbcTemplate.getDataSource(),
+                List.of(new CacheInvalidationListener(otherNodeCache,
+                        new VersionedCache<>(Caffeine.newBuilder().<Id, OrderSnapshot>build(), OrderSnapshot::version))),
+                500, Duration.ofMillis(100), Duration.ofMillis(100));
+        notifications.start();
+        try {
+            Courier courier = Courier.create("John", 2, Location.create(1, 1));
+            courierRepository.save(courier);
+            await().atMost(Duration.ofSeconds(10)).until(() -> jdbcTemplate.queryForObject(
+                    "select count(*) from pg_stat_activity where query = 'listen delivery_changes'", Integer.class) > 0);
+            assertThat(otherNode.findById(courier.getId()).getLocation()).isEqualTo(Location.create(1, 1));
+
+
+            WriteBehindCourierLocationWriter writer = locationWriter(cache::evict);
+            writer.updateLocation(courier.getId(), Location.create(4, 4));
+            writer.flush();
+
+
+            await().atMost(Duration.ofSeconds(10)).untilAsserted(() ->
+                    assertThat(otherNode.findById(courier.getId()).getLocation()).isEqualTo(Location.create(4, 4)));
+        } finally {
+            notifications.stop();
+        }
+    }
+
+    @Test
+    void should_KeepNewerSnapshot_when_OlderOneIsLoadedLater() {
+        Courier courier = Courier.create("John", 2, Location.create(1, 1));
+        Id courierId = courier.getId();
+
+
+        cache.putLoaded(courierId, CourierSnapshot.of(courier, 3));
+        cache.putLoaded(courierId, CourierSnapshot.of(courier, 2));
+
+
+        assertThat(cache.get(courierId).version()).isEqualTo(3);
+    }
+
+    private WriteBehindCourierLocationWriter locationWriter(Consumer<Collection<Id>> onFlushed) {
+        return new WriteBehindCourierLocationWriter(
+                jdbcTemplate.getDataSource(), new SimpleMeterRegistry(), Duration.ofSeconds(1), 100, 100, onFlushed);
+    }
+
+    @Test
+    void should_RefuseStaleLoad_when_NewerVersionWasReported() {
+        Courier courier = Courier.create("John", 2, Location.create(1, 1));
+        Id courierId = courier.getId();
+        cache.putLoaded(courierId, CourierSnapshot.of(courier, 1));
+
+
+        cache.evictOlderThan(courierId, 2);
+        cache.putLoaded(courierId, CourierSnapshot.of(courier, 1));
+
+
+        assertThat(cache.get(courierId)).isNull();
+    }
+}
@@ -0,0 +1,205 @@
+package microarch.delivery.infrastructure.out.grpc;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.grpc.ManagedChannel;
+import io.grpc.Server;
+import io.grpc.Status;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.stub.StreamObserver;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import microarch.delivery.application.GeoLookupException;
+import microarch.delivery.application.UnresolvableAddressException;
+import microarch.delivery.domain.model.Location;
+import microarch.delivery.infrastructure.out.grpc.geo.GeoGrpc;
+import microarch.delivery.infrastructure.out.grpc.geo.GetGeolocationReply;
+import microarch.delivery.infrastructure.out.grpc.geo.GetGeolocationRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+
+class GeoClientGrpcTest {
+
+    private static final Duration DEADLINE = Duration.ofMillis(200);
+
+    private final FakeGeoService geoService = new FakeGeoService();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private Server server;
+    private ManagedChannel channel;
+    private AsyncCache<String, Location> cache;
+    private CircuitBreaker circuitBreaker;
+    private GeoClientGrpc geoClient;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        String name = InProcessServerBuilder.generateName();
+        server = InProcessServerBuilder.forName(name).addService(geoService).build().start();
+        channel = InProcessChannelBuilder.forName(name).build();
+        cache = Caffeine.newBuilder().maximumSize(100).recordStats().buildAsync();
+        circuitBreaker = CircuitBreaker.of("geo", CircuitBreakerConfig.custom()
+                .slidingWindowSize(4)
+                .minimumNumberOfCalls(4)
+                .failureRateThreshold(50)
+                .waitDurationInOpenState(Duration.ofMinutes(1))
+                .recordException(GeoClientGrpc::isServiceFailure)
+                .build());
+        geoClient = new GeoClientGrpc(GeoGrpc.newStub(channel), cache, circuitBreaker, meterRegistry, DEADLINE);
+    }
+
+    @AfterEach
+    void tearDown() {
+        geoService.release.countDown();
+        channel.shutdownNow();
+        server.shutdownNow();
+    }
+
+    @Test
+    void shouldResolveAddressAndCacheLocation() {
+        Location first = geoClient.getLocation("Tverskaya 1");
+        Location second = geoClient.getLocation("  Tverskaya   1 ");
+
+        assertThat(first).isEqualTo(Location.create(3, 7));
+        assertThat(second).isEqualTo(first);
+        assertThat(geoService.calls).hasValue(1);
+        assertThat(cache.synchronous().stats().hitCount()).isEqualTo(1);
+        assertThat(meterRegistry.get("delivery.geo.rpc").tag("status", "OK").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldShareOneCall_when_SameAddressIsResolvedConcurrently() throws Exception {
+        geoService.blockUntilReleased = true;
+        int lookups = 16;
+        ExecutorService executor = Executors.newFixedThreadPool(lookups);
+        try {
+            List<Future<Location>> results = new ArrayList<>();
+            for (int i = 0; i < lookups; i++) {
+                results.add(executor.submit(() -> geoClient.getLocation("Arbat 10")));
+            }
+            await().atMost(Duration.ofSeconds(5)).until(() -> geoService.calls.get() == 1);
+            geoService.release.countDown();
+
+            for (Future<Location> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo(Location.create(3, 7));
+            }
+            assertThat(geoService.calls).hasValue(1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void shouldFailLookup_when_DeadlineExpires() {
+        geoService.blockUntilReleased = true;
+
+        assertThatThrownBy(() -> geoClient.getLocation("Arbat 10"))
+                .isInstanceOf(GeoLookupException.class)
+                .hasMessageContaining("DEADLINE_EXCEEDED");
+        assertThat(meterRegistry.get("delivery.geo.rpc").tag("status", "DEADLINE_EXCEEDED").timer().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void shouldNotCacheFailures() {
+        geoService.failure = Status.UNAVAILABLE;
+        assertThatThrownBy(() -> geoClient.getLocation("Arbat 10"))
+                .isInstanceOf(GeoLookupException.class)
+                .isNotInstanceOf(UnresolvableAddressException.class);
+
+        geoService.failure = null;
+        assertThat(geoClient.getLocation("Arbat 10")).isEqualTo(Location.create(3, 7));
+        assertThat(geoService.calls).hasValue(2);
+    }
+
+    @Test
+    void shouldFailFast_when_CircuitIsOpen() {
+        geoService.failure = Status.UNAVAILABLE;
+        for (int i = 0; i < 4; i++) {
+            assertThatThrownBy(() -> geoClient.getLocation("Arbat 10")).isInstanceOf(GeoLookupException.class);
+        }
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+
+        assertThatThrownBy(() -> geoClient.getLocation("Arbat 10"))
+                .isInstanceOf(GeoLookupException.class)
+                .hasMessage("Geo service circuit is open");
+        assertThat(geoService.calls).hasValue(4);
+    }
+
+    @Test
+    void shouldKeepCircuitClosed_when_AddressIsUnknown() {
+        geoService.failure = Status.NOT_FOUND;
+        for (int i = 0; i < 8; i++) {
+            assertThatThrownBy(() -> geoClient.getLocation("Nowhere 0")).isInstanceOf(UnresolvableAddressException.class);
+        }
+
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(geoService.calls).hasValue(8);
+    }
+
+    @Test
+    void shouldReleaseCircuitPermission_when_ServiceCompletesWithoutReply() {
+        geoService.completeWithoutReply = true;
+        circuitBreaker.transitionToHalfOpenState();
+
+
+        assertThatThrownBy(() -> geoClient.getLocation("Arbat 10"))
+                .isInstanceOf(GeoLookupException.class)
+                .hasMessageContaining("INTERNAL");
+
+
+        assertThat(circuitBreaker.getMetrics().getNumberOfBufferedCalls()).isEqualTo(1);
+        assertThat(circuitBreaker.getMetrics().getNumberOfFailedCalls()).isEqualTo(1);
+        assertThat(meterRegistry.get("delivery.geo.rpc").tag("status", "INTERNAL").timer().count()).isEqualTo(1);
+    }
+
+    private static class FakeGeoService extends GeoGrpc.GeoImplBase {
+
+        final AtomicInteger calls = new AtomicInteger();
+        final CountDownLatch release = new CountDownLatch(1);
+        volatile boolean blockUntilReleased;
+        volatile Status failure;
+        volatile boolean completeWithoutReply;
+
+        @Override
+        public void getGeolocation(GetGeolocationRequest request, StreamObserver<GetGeolocationReply> responseObserver) {
+            calls.incrementAndGet();
+            if (blockUntilReleased) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            if (failure != null) {
+                responseObserver.onError(failure.asRuntimeException());
+                return;
+            }
+            if (completeWithoutReply) {
+                responseObserver.onCompleted();
+                return;
+            }
+            responseObserver.onNext(GetGeolocationReply.newBuilder()
+                    .setLocation(microarch.delivery.infrastructure.out.grpc.geo.Location.newBuilder().setX(3).setY(7))
+                    .build());
+            responseObserver.onCompleted();
+        }
+    }
+}
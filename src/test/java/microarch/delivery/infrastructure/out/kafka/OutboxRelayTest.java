@@ -0,0 +1,179 @@
+package microarch.delivery.infrastructure.out.kafka;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import microarch.BasePostgresContainerTest;
+import microarch.delivery.domain.model.Id;
+import microarch.delivery.domain.model.Location;
+import microarch.delivery.domain.model.order.Order;
+import microarch.delivery.infrastructure.out.postgres.OrderRepositoryJdbc;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.kafka.KafkaAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+import org.springframework.test.jdbc.JdbcTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@JdbcTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@EmbeddedKafka(partitions = 1, topics = OutboxRelayTest.TOPIC, bootstrapServersProperty = "spring.kafka.bootstrap-servers")
+@ImportAutoConfiguration(KafkaAutoConfiguration.class)
+class OutboxRelayTest extends BasePostgresContainerTest {
+
+    static final String TOPIC = "delivery.order.events";
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    KafkaTemplate<String, String> kafkaTemplate;
+
+    @Autowired
+    EmbeddedKafkaBroker embeddedKafka;
+
+    private OrderRepositoryJdbc orderRepository;
+    private Consumer<String, String> consumer;
+
+    @BeforeEach
+    void setUp() {
+        orderRepository = new OrderRepositoryJdbc(jdbcTemplate.getDataSource());
+        Map<String, Object> consumerProps = KafkaTestUtils.consumerProps("outbox-test-" + System.nanoTime(), "false", embeddedKafka);
+        consumer = new DefaultKafkaConsumerFactory<>(consumerProps, new StringDeserializer(), new StringDeserializer())
+                .createConsumer();
+        embeddedKafka.consumeFromAnEmbeddedTopic(consumer, TOPIC);
+    }
+
+    @AfterEach
+    void tearDown() {
+        consumer.close();
+        JdbcTestUtils.deleteFromTables(jdbcTemplate, "outbox", "orders");
+    }
+
+    @Test
+    void should_PublishEventsAndDeleteThem() {
+        Order order = Order.create(Location.create(3, 4), 5);
+        orderRepository.save(order);
+        Order loaded = orderRepository.findById(order.getId());
+        loaded.assign(Id.of(42L));
+        orderRepository.save(loaded);
+
+
+        int published = relay(kafkaTemplate).drain();
+
+
+        assertThat(published).isEqualTo(2);
+        assertThat(JdbcTestUtils.countRowsInTable(jdbcTemplate, "outbox")).isZero();
+        List<ConsumerRecord<String, String>> records = poll(2);
+        assertThat(records).extracting(ConsumerRecord::key).containsOnly(String.valueOf(order.getId().id()));
+        assertThat(records).extracting(record -> header(record, "event_type")).containsExactly("OrderCreated", "OrderAssigned");
+        assertThat(records.get(1).value()).contains("\"courierId\":42");
+    }
+
+    @Test
+    void should_NotLoseEvents_when_RelayCrashesBetweenCommitAndPublish() {
+        List<Order> orders = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            orders.add(Order.create(Location.create(1 + i % 10, 1 + i / 10), 5));
+        }
+        orderRepository.saveAll(orders);
+        Set<String> committedEventIds = new HashSet<>(jdbcTemplate.queryForList("select event_id::text from outbox", String.class));
+
+        DefaultKafkaProducerFactory<String, String> unreachable = unreachableKafka();
+        assertThatThrownBy(() -> relay(new KafkaTemplate<>(unreachable)).drain()).isInstanceOf(RuntimeException.class);
+        unreachable.destroy();
+        assertThat(JdbcTestUtils.countRowsInTable(jdbcTemplate, "outbox")).isEqualTo(100);
+
+        int published = relay(kafkaTemplate).drain();
+
+
+        assertThat(published).isEqualTo(100);
+        Set<String> publishedEventIds = new HashSet<>();
+        poll(100).forEach(record -> publishedEventIds.add(header(record, "event_id")));
+        assertThat(publishedEventIds).isEqualTo(committedEventIds);
+    }
+
+    @Test
+    void should_RelayUntilRunDurationPassed() {
+        orderRepository.save(Order.create(Location.create(3, 4), 5));
+        long started = System.nanoTime();
+
+
+        relay(kafkaTemplate).relay(Duration.ofMillis(500), () -> false);
+
+
+        assertThat(Duration.ofNanos(System.nanoTime() - started)).isBetween(Duration.ofMillis(400), Duration.ofSeconds(5));
+        assertThat(JdbcTestUtils.countRowsInTable(jdbcTemplate, "outbox")).isZero();
+        assertThat(poll(1)).hasSize(1);
+    }
+
+    @Test
+    void should_StopRelaying_when_StopIsRequested() {
+        orderRepository.save(Order.create(Location.create(3, 4), 5));
+        long started = System.nanoTime();
+
+
+        relay(kafkaTemplate).relay(Duration.ofMinutes(1), () -> System.nanoTime() - started > Duration.ofMillis(300).toNanos());
+
+
+        assertThat(Duration.ofNanos(System.nanoTime() - started)).isLessThan(Duration.ofSeconds(5));
+        assertThat(JdbcTestUtils.countRowsInTable(jdbcTemplate, "outbox")).isZero();
+    }
+
+    private OutboxRelay relay(KafkaTemplate<String, String> template) {
+        return new OutboxRelay(jdbcTemplate.getDataSource(), template, new SimpleMeterRegistry(),
+                "delivery.", 30, Duration.ofMillis(100), Duration.ofSeconds(5));
+    }
+
+    private List<ConsumerRecord<String, String>> poll(int expected) {
+        List<ConsumerRecord<String, String>> records = new ArrayList<>();
+        long deadline = System.nanoTime() + Duration.ofSeconds(20).toNanos();
+        while (records.size() < expected && System.nanoTime() < deadline) {
+            KafkaTestUtils.getRecords(consumer, Duration.ofMillis(500)).forEach(records::add);
+        }
+        return records;
+    }
+
+    private static String header(ConsumerRecord<String, String> record, String name) {
+        return new String(record.headers().lastHeader(name).value(), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Producer whose sends fail after a short metadata wait, as during a broker outage.
+     */
+    private static DefaultKafkaProducerFactory<String, String> unreachableKafka() {
+        Map<String, Object> props = Map.of(
+                ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, "localhost:1",
+                ProducerConfig.MAX_BLOCK_MS_CONFIG, 500,
+                ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class,
+                ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        return new DefaultKafkaProducerFactory<>(props);
+    }
+}
@@ -0,0 +1,95 @@
+package microarch.delivery.infrastructure.out.postgres;
+
+import microarch.BasePostgresContainerTest;
+import microarch.delivery.domain.model.courier.Courier;
+import microarch.delivery.domain.model.courier.StoragePlaceType;
+import microarch.delivery.domain.model.order.Order;
+import microarch.delivery.domain.services.GridOrderDispatcher;
+import microarch.delivery.domain.services.OrderAssignment;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static microarch.TestHelper.randomLocation;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Tag("benchmark")
+@JdbcTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class BacklogDrainBenchmarkTest extends BasePostgresContainerTest {
+
+    private static final int COURIER_COUNT = 10_000;
+    private static final int ORDER_COUNT = 20_000;
+    private static final int BATCH_SIZE = 5_000;
+    private static final double TARGET_ORDERS_PER_SECOND = 10_000;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    private CourierRepositoryJdbc courierRepository;
+    private OrderRepositoryJdbc orderRepository;
+    private final GridOrderDispatcher dispatcher = new GridOrderDispatcher();
+
+    @BeforeEach
+    void setUp() {
+        courierRepository = new CourierRepositoryJdbc(jdbcTemplate.getDataSource());
+        orderRepository = new OrderRepositoryJdbc(jdbcTemplate.getDataSource());
+        Random random = new Random(42);
+
+        List<Courier> couriers = new ArrayList<>();
+        for (int i = 0; i < COURIER_COUNT; i++) {
+            Courier courier = Courier.create("courier-" + i, 1 + random.nextInt(3), randomLocation(random));
+            couriers.add(courier);
+        }
+        courierRepository.saveAll(couriers);
+        jdbcTemplate.update("""
+                insert into storage_place (id, courier_id, place_type, order_id)
+                select (select max(id) from storage_place) + row_number() over (), id, ?, null
+                from courier
+                """, StoragePlaceType.TRUNK.name());
+
+        List<Order> orders = new ArrayList<>();
+        for (int i = 0; i < ORDER_COUNT; i++) {
+            orders.add(Order.create(randomLocation(random), 1 + random.nextInt(30)));
+        }
+        orderRepository.saveAll(orders);
+    }
+
+    @Test
+    void benchmark_DrainBacklog() {
+        long started = System.nanoTime();
+        int dispatched = 0;
+        List<Order> batch = orderRepository.getCreatedOrders(BATCH_SIZE);
+        while (!batch.isEmpty()) {
+            List<OrderAssignment> assignments = dispatcher.dispatchAll(batch, courierRepository.getFreeCouriers());
+            if (assignments.isEmpty()) {
+                break;
+            }
+            Set<Courier> changedCouriers = new LinkedHashSet<>();
+            List<Order> changedOrders = new ArrayList<>();
+            for (OrderAssignment assignment : assignments) {
+                changedCouriers.add(assignment.courier());
+                changedOrders.add(assignment.order());
+            }
+            orderRepository.saveAll(changedOrders);
+            courierRepository.saveAll(changedCouriers);
+            dispatched += assignments.size();
+            batch = orderRepository.getCreatedOrders(BATCH_SIZE);
+        }
+        double seconds = (System.nanoTime() - started) / 1e9;
+
+        System.out.printf("Dispatched %d orders in %.2f s: %.0f orders/sec%n", dispatched, seconds, dispatched / seconds);
+        assertThat(dispatched).isEqualTo(ORDER_COUNT);
+        assertThat(dispatched / seconds).as("backlog drain throughput, orders/sec").isGreaterThanOrEqualTo(TARGET_ORDERS_PER_SECOND);
+    }
+}
@@ -0,0 +1,72 @@
+package microarch.delivery.infrastructure.out.postgres;
+
+import microarch.BasePostgresContainerTest;
+import microarch.delivery.domain.model.courier.Courier;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Tag("benchmark")
+@JdbcTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class CourierRepositoryJdbcBenchmarkTest extends BasePostgresContainerTest {
+
+    private static final int COURIER_COUNT = 100_000;
+    private static final int ITERATIONS = 5;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    private CourierRepositoryJdbc courierRepository;
+
+    @BeforeEach
+    void setUp() {
+        courierRepository = new CourierRepositoryJdbc(jdbcTemplate.getDataSource());
+        jdbcTemplate.update("""
+                insert into courier (id, name, speed, location_x, location_y, created_at, created_by, version)
+                select g, 'courier-' || g, 1 + g % 3, 1 + g % 10, 1 + (g / 10) % 10, now(), 'benchmark', 1
+                from generate_series(1, ?) g
+                """, COURIER_COUNT);
+        jdbcTemplate.update("""
+                insert into orders (id, volume, status, location_x, location_y, courier_id, created_at, created_by, version)
+                select g, 10, 'ASSIGNED', 1, 1, g, now(), 'benchmark', 1
+                from generate_series(1, ?) g
+                where g % 10 <> 0
+                """, COURIER_COUNT);
+        jdbcTemplate.update("""
+                insert into storage_place (id, courier_id, place_type, order_id)
+                select g, g, 'BACKPACK', case when g % 10 <> 0 then g end
+                from generate_series(1, ?) g
+                """, COURIER_COUNT);
+        jdbcTemplate.execute("analyze courier");
+        jdbcTemplate.execute("analyze storage_place");
+    }
+
+    @Test
+    void benchmark_GetFreeCouriers() {
+        courierRepository.getFreeCouriers();
+
+        long started = System.nanoTime();
+        List<Courier> freeCouriers = List.of();
+        for (int i = 0; i < ITERATIONS; i++) {
+            freeCouriers = courierRepository.getFreeCouriers();
+        }
+        long elapsedMs = (System.nanoTime() - started) / 1_000_000 / ITERATIONS;
+
+        String plan = String.join("\n", jdbcTemplate.queryForList(
+                "explain " + CourierRepositoryJdbc.FREE_COURIERS_SQL, String.class));
+        System.out.printf("getFreeCouriers over %d couriers: %d free, %d ms/call%n%s%n",
+                COURIER_COUNT, freeCouriers.size(), elapsedMs, plan);
+
+        assertThat(freeCouriers).hasSize(COURIER_COUNT / 10);
+        assertThat(plan).contains("storage_place_free_courier_idx");
+    }
+}
@@ -1,25 +1,36 @@
 package microarch.delivery.infrastructure.out.postgres;
 
 import microarch.BasePostgresContainerTest;
+import microarch.StatementCounter;
+import microarch.delivery.application.VersionConflictException;
+import microarch.delivery.domain.model.Id;
+import microarch.delivery.domain.model.Location;
 import microarch.delivery.domain.model.courier.Courier;
 import microarch.delivery.domain.model.courier.StoragePlace;
+import microarch.delivery.domain.model.courier.StoragePlaceType;
+import microarch.delivery.domain.model.order.Order;
+import microarch.delivery.domain.model.order.OrderStatus;
 import org.assertj.core.api.SoftAssertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.RowMapper;
 
 import java.time.OffsetDateTime;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
 
 import static microarch.TestHelper.fullCourierBuilder;
+import static microarch.TestHelper.fullOrder;
 import static microarch.TestHelper.fullStoragePlace;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.assertj.core.api.Assertions.within;
 
 @JdbcTest
@@ -58,7 +69,7 @@ public class CourierRepositoryJdbcTest extends BasePostgresContainerTest {
             soft.assertThat(rs.getString("created_by")).isEqualTo(courier.getCreatedBy());
             soft.assertThat(rs.getObject("modified_at", OffsetDateTime.class)).isCloseTo(courier.getModifiedAt(), within(1, ChronoUnit.SECONDS));
             soft.assertThat(rs.getString("modified_by")).isEqualTo(courier.getModifiedBy());
-            soft.assertThat(rs.getLong("version")).isEqualTo(courier.getVersion() + 1);
+            soft.assertThat(rs.getLong("version")).isEqualTo(courier.getVersion());
             soft.assertAll();
             return true;
         };
@@ -100,4 +111,257 @@ public class CourierRepositoryJdbcTest extends BasePostgresContainerTest {
 
         assertThat(foundCouriers.get(0).getId()).isEqualTo(courier.getId());
     }
+
+    @Test
+    void should_GetFreeCourierOnce_when_SeveralStoragePlacesAreFree() {
+        List<StoragePlace> storagePlaces = List.of(
+                fullStoragePlace().orderId(null).build(),
+                fullStoragePlace().id(Id.generate()).placeType(StoragePlaceType.TRUNK).orderId(null).build());
+        Courier courier = fullCourierBuilder()
+                .storagePlaces(storagePlaces)
+                .build();
+        courierRepository.save(courier);
+
+
+        List<Courier> foundCouriers = courierRepository.getFreeCouriers();
+
+
+        assertThat(foundCouriers).hasSize(1);
+        assertThat(foundCouriers.get(0).getStoragePlaces()).hasSize(2);
+    }
+
+    @Test
+    void should_GetCouriersPageByPage() {
+        List<Courier> couriers = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            Courier courier = Courier.create("courier-" + i, 2, Location.create(1 + i, 1));
+            courier.addStoragePlace(StoragePlaceType.TRUNK);
+            couriers.add(courier);
+        }
+        courierRepository.saveAll(couriers);
+        List<Id> expectedIds = couriers.stream().map(Courier::getId).sorted().toList();
+
+
+        List<Courier> firstPage = courierRepository.getCouriers(null, 3);
+        List<Courier> secondPage = courierRepository.getCouriers(firstPage.get(2).getId(), 3);
+
+
+        assertThat(firstPage).extracting(Courier::getId).containsExactlyElementsOf(expectedIds.subList(0, 3));
+        assertThat(secondPage).extracting(Courier::getId).containsExactlyElementsOf(expectedIds.subList(3, 5));
+        assertThat(firstPage).allSatisfy(courier -> assertThat(courier.getStoragePlaces()).hasSize(2));
+    }
+
+    @Test
+    void should_NotGetFreeCourier_when_AllStoragePlacesAreOccupied() {
+        Order order = fullOrder().courierId(null).build();
+        new OrderRepositoryJdbc(jdbcTemplate.getDataSource()).save(order);
+        Courier courier = fullCourierBuilder()
+                .storagePlaces(List.of(fullStoragePlace().orderId(order.getId()).build()))
+                .build();
+        courierRepository.save(courier);
+
+
+        List<Courier> foundCouriers = courierRepository.getFreeCouriers();
+
+
+        assertThat(foundCouriers).isEmpty();
+    }
+
+    @Test
+    void should_UpdateCourier_when_SameInstanceIsSavedTwice() {
+        Courier courier = Courier.create("John", 2, Location.create(1, 1));
+        courierRepository.save(courier);
+        courier.move(Location.create(5, 1));
+        courier.addStoragePlace(StoragePlaceType.TRUNK);
+
+
+        courierRepository.save(courier);
+        courierRepository.save(courier);
+
+
+        Courier found = courierRepository.findById(courier.getId());
+        assertThat(courier.getVersion()).isEqualTo(3);
+        assertThat(found.getVersion()).isEqualTo(3);
+        assertThat(found.getLocation()).isEqualTo(Location.create(3, 1));
+        assertThat(found.getStoragePlaces())
+                .extracting(StoragePlace::getPlaceType)
+                .containsExactlyInAnyOrder(StoragePlaceType.BACKPACK, StoragePlaceType.TRUNK);
+    }
+
+    @Test
+    void should_ReportVersionConflict_when_NewCourierIdIsTaken() {
+        Courier courier = Courier.create("John", 2, Location.create(1, 1));
+        courierRepository.save(courier);
+        Courier sameId = fullCourierBuilder()
+                .id(courier.getId())
+                .storagePlaces(List.of(fullStoragePlace().id(Id.generate()).orderId(null).build()))
+                .build();
+
+
+        assertThatThrownBy(() -> courierRepository.save(sameId))
+                .isInstanceOfSatisfying(VersionConflictException.class, ex ->
+                        assertThat(ex.getConflictingIds()).containsExactly(courier.getId()));
+    }
+
+    @Test
+    void should_RejectStoragePlace_when_OrderDoesNotExist() {
+        Courier courier = fullCourierBuilder()
+                .storagePlaces(List.of(fullStoragePlace().orderId(Id.generate()).build()))
+                .build();
+
+
+        assertThatThrownBy(() -> courierRepository.save(courier)).isInstanceOf(DataIntegrityViolationException.class);
+    }
+
+    @Test
+    void should_GetCourierWithSingleStatement() {
+        StatementCounter statementCounter = new StatementCounter();
+        CourierRepositoryJdbc countingRepository = new CourierRepositoryJdbc(statementCounter.wrap(jdbcTemplate.getDataSource()));
+        Courier courier = saveFreeCouriers(1).get(0);
+
+
+        Courier foundCourier = countingRepository.findById(courier.getId());
+
+
+        assertThat(foundCourier.getStoragePlaces()).hasSize(1);
+        assertThat(statementCounter.count()).isEqualTo(1);
+    }
+
+    @Test
+    void should_GetFreeCouriersWithConstantStatementCount() {
+        StatementCounter statementCounter = new StatementCounter();
+        CourierRepositoryJdbc countingRepository = new CourierRepositoryJdbc(statementCounter.wrap(jdbcTemplate.getDataSource()));
+        saveFreeCouriers(1);
+        countingRepository.getFreeCouriers();
+        int statementsForOneCourier = statementCounter.count();
+        saveFreeCouriers(50);
+        statementCounter.reset();
+
+
+        List<Courier> foundCouriers = countingRepository.getFreeCouriers();
+
+
+        assertThat(foundCouriers).hasSize(51);
+        assertThat(foundCouriers).allSatisfy(c -> assertThat(c.getStoragePlaces()).hasSize(1));
+        assertThat(statementCounter.count()).isEqualTo(statementsForOneCourier).isEqualTo(1);
+    }
+
+    @Test
+    void should_SaveAllCouriersWithStoragePlaces() {
+        Courier first = fullCourierBuilder()
+                .id(Id.generate())
+                .storagePlaces(List.of(fullStoragePlace().id(Id.generate()).orderId(null).build()))
+                .build();
+        Courier second = fullCourierBuilder()
+                .id(Id.generate())
+                .storagePlaces(List.of(
+                        fullStoragePlace().id(Id.generate()).orderId(null).build(),
+                        fullStoragePlace().id(Id.generate()).placeType(StoragePlaceType.TRUNK).orderId(null).build()))
+                .build();
+
+
+        courierRepository.saveAll(List.of(first, second));
+
+
+        assertThat(courierRepository.findById(first.getId()).getStoragePlaces()).hasSize(1);
+        assertThat(courierRepository.findById(second.getId()).getStoragePlaces()).hasSize(2);
+    }
+
+    @Test
+    void should_UpdateOnlyCourierRow_when_CourierMoved() {
+        StatementCounter statementCounter = new StatementCounter();
+        CourierRepositoryJdbc countingRepository = new CourierRepositoryJdbc(statementCounter.wrap(jdbcTemplate.getDataSource()));
+        Courier courier = courierRepository.findById(saveFreeCouriers(1).get(0).getId());
+        courier.move(Location.create(5, 5));
+
+
+        countingRepository.save(courier);
+
+
+        assertThat(statementCounter.count()).isEqualTo(1);
+        assertThat(courierRepository.findById(courier.getId()).getLocation()).isEqualTo(Location.create(5, 5));
+    }
+
+    @Test
+    void should_UpdateOnlyChangedStoragePlace_when_CourierTookOrder() {
+        StatementCounter statementCounter = new StatementCounter();
+        CourierRepositoryJdbc countingRepository = new CourierRepositoryJdbc(statementCounter.wrap(jdbcTemplate.getDataSource()));
+        Order order = fullOrder().courierId(null).build();
+        new OrderRepositoryJdbc(jdbcTemplate.getDataSource()).save(order);
+        Courier courier = courierRepository.findById(saveFreeCouriers(1).get(0).getId());
+        courier.takeOrder(order);
+
+
+        countingRepository.save(courier);
+
+
+        assertThat(statementCounter.count()).isEqualTo(2);
+        assertThat(courierRepository.findById(courier.getId()).getStoragePlaces())
+                .extracting(StoragePlace::getOrderId)
+                .containsExactly(order.getId());
+    }
+
+    @Test
+    void should_UpdateOnlyChangedStoragePlace_when_CourierCompletedOrder() {
+        StatementCounter statementCounter = new StatementCounter();
+        CourierRepositoryJdbc countingRepository = new CourierRepositoryJdbc(statementCounter.wrap(jdbcTemplate.getDataSource()));
+        Courier savedCourier = saveFreeCouriers(1).get(0);
+        Order order = fullOrder().courierId(savedCourier.getId()).status(OrderStatus.ASSIGNED).build();
+        new OrderRepositoryJdbc(jdbcTemplate.getDataSource()).save(order);
+        Courier busyCourier = courierRepository.findById(savedCourier.getId());
+        busyCourier.takeOrder(order);
+        courierRepository.save(busyCourier);
+        Courier courier = courierRepository.findById(savedCourier.getId());
+        courier.completeOrder(order);
+
+
+        countingRepository.save(courier);
+
+
+        assertThat(statementCounter.count()).isEqualTo(2);
+        assertThat(courierRepository.findById(courier.getId()).getStoragePlaces())
+                .allSatisfy(place -> assertThat(place.isEmpty()).isTrue());
+    }
+
+    @Test
+    void should_InsertOnlyAddedStoragePlace_when_StoragePlaceAdded() {
+        StatementCounter statementCounter = new StatementCounter();
+        CourierRepositoryJdbc countingRepository = new CourierRepositoryJdbc(statementCounter.wrap(jdbcTemplate.getDataSource()));
+        Courier courier = courierRepository.findById(saveFreeCouriers(1).get(0).getId());
+        courier.addStoragePlace(StoragePlaceType.TRUNK);
+
+
+        countingRepository.save(courier);
+
+
+        assertThat(statementCounter.count()).isEqualTo(2);
+        assertThat(courierRepository.findById(courier.getId()).getStoragePlaces())
+                .extracting(StoragePlace::getPlaceType)
+                .containsExactlyInAnyOrder(StoragePlaceType.BACKPACK, StoragePlaceType.TRUNK);
+    }
+
+    @Test
+    void should_KeepStoredLocation_when_CourierDidNotMove() {
+        Courier courier = courierRepository.findById(saveFreeCouriers(1).get(0).getId());
+        jdbcTemplate.update("update courier set location_x = 7, location_y = 7 where id = ?", courier.getId().id());
+        courier.addStoragePlace(StoragePlaceType.TRUNK);
+
+
+        courierRepository.save(courier);
+
+
+        assertThat(courierRepository.findById(courier.getId()).getLocation()).isEqualTo(Location.create(7, 7));
+    }
+
+    private List<Courier> saveFreeCouriers(int count) {
+        List<Courier> couriers = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Courier courier = fullCourierBuilder()
+                    .id(Id.generate())
+                    .storagePlaces(List.of(fullStoragePlace().id(Id.generate()).orderId(null).build()))
+                    .build();
+            couriers.add(courierRepository.save(courier));
+        }
+        return couriers;
+    }
 }
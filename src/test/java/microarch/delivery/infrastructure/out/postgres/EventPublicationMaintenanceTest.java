@@ -0,0 +1,79 @@
+package microarch.delivery.infrastructure.out.postgres;
+
+import microarch.BasePostgresContainerTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.jdbc.JdbcTestUtils;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@JdbcTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class EventPublicationMaintenanceTest extends BasePostgresContainerTest {
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    private EventPublicationMaintenance maintenance;
+
+    @BeforeEach
+    void setUp() {
+        maintenance = new EventPublicationMaintenance(jdbcTemplate.getDataSource());
+    }
+
+    @Test
+    void should_PurgeOnlyOldCompletedPublications_when_SpanningSeveralBatches() {
+        OffsetDateTime now = OffsetDateTime.now();
+        insert("event_publication", 25, now.minusDays(3), now.minusDays(2));
+        insert("event_publication_archive", 5, now.minusDays(3), now.minusDays(2));
+        insert("event_publication", 3, now.minusHours(2), now.minusHours(1));
+        insert("event_publication", 4, now.minusDays(3), null);
+
+
+        int purged = maintenance.purgeCompleted(Duration.ofDays(1), 10);
+
+
+        assertThat(purged).isEqualTo(30);
+        assertThat(JdbcTestUtils.countRowsInTable(jdbcTemplate, "event_publication")).isEqualTo(7);
+        assertThat(JdbcTestUtils.countRowsInTable(jdbcTemplate, "event_publication_archive")).isZero();
+    }
+
+    @Test
+    void should_ReportBacklogAndLagOfIncompletePublications() {
+        OffsetDateTime now = OffsetDateTime.now();
+        insert("event_publication", 2, now.minusHours(2), null);
+        insert("event_publication", 1, now.minusMinutes(5), null);
+        insert("event_publication", 5, now.minusDays(3), now.minusDays(2));
+
+
+        EventPublicationMaintenance.IncompleteStats stats = maintenance.incompleteStats();
+
+
+        assertThat(stats.backlog()).isEqualTo(3);
+        assertThat(stats.lag()).isBetween(Duration.ofHours(2), Duration.ofHours(2).plusMinutes(1));
+    }
+
+    @Test
+    void should_ReportNoLag_when_EverythingIsCompleted() {
+        insert("event_publication", 2, OffsetDateTime.now().minusHours(2), OffsetDateTime.now());
+
+        assertThat(maintenance.incompleteStats()).isEqualTo(new EventPublicationMaintenance.IncompleteStats(0, Duration.ZERO));
+    }
+
+    private void insert(String table, int count, OffsetDateTime publishedAt, OffsetDateTime completedAt) {
+        for (int i = 0; i < count; i++) {
+            jdbcTemplate.update("""
+                    insert into %s (id, listener_id, event_type, serialized_event, publication_date, completion_date)
+                    values (?, 'listener', 'TestEvent', ?, ?, ?)
+                    """.formatted(table), UUID.randomUUID(), "{\"n\":" + i + "}", publishedAt, completedAt);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package microarch.delivery.infrastructure.out.postgres;
+
+import microarch.BasePostgresContainerTest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.modulith.events.config.EventPublicationAutoConfiguration;
+import org.springframework.modulith.events.core.EventPublicationRegistry;
+import org.springframework.modulith.events.core.PublicationTargetIdentifier;
+import org.springframework.modulith.events.jackson.JacksonEventSerializationConfiguration;
+import org.springframework.modulith.events.jdbc.JdbcEventPublicationAutoConfiguration;
+import org.springframework.test.jdbc.JdbcTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Pushes a million events through the JDBC publication registry in "archive" completion mode,
+ * leaving every hundredth one incomplete, and measures the registry and the housekeeping queries.
+ */
+@Tag("benchmark")
+@JdbcTest(properties = "spring.modulith.events.completion-mode=archive")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@ImportAutoConfiguration({
+        JacksonAutoConfiguration.class,
+        JacksonEventSerializationConfiguration.class,
+        EventPublicationAutoConfiguration.class,
+        JdbcEventPublicationAutoConfiguration.class})
+class EventPublicationRegistryBenchmarkTest extends BasePostgresContainerTest {
+
+    private static final int EVENT_COUNT = 1_000_000;
+    private static final int CHUNK_SIZE = 10_000;
+    private static final int INCOMPLETE_EVERY = 100;
+    private static final PublicationTargetIdentifier LISTENER = PublicationTargetIdentifier.of("benchmark-listener");
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Autowired
+    EventPublicationRegistry registry;
+
+    @AfterEach
+    void tearDown() {
+        JdbcTestUtils.deleteFromTables(jdbcTemplate, "event_publication", "event_publication_archive");
+    }
+
+    @Test
+    void benchmark_MillionEventPublications() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        EventPublicationMaintenance maintenance = new EventPublicationMaintenance(jdbcTemplate.getDataSource());
+
+        long started = System.nanoTime();
+        for (int from = 0; from < EVENT_COUNT; from += CHUNK_SIZE) {
+            int chunkStart = from;
+            transactionTemplate.executeWithoutResult(status -> {
+                for (int i = chunkStart; i < chunkStart + CHUNK_SIZE; i++) {
+                    registry.store(new BenchmarkEvent(i), Stream.of(LISTENER));
+                }
+            });
+        }
+        report("Stored", EVENT_COUNT, started);
+
+        started = System.nanoTime();
+        int completed = 0;
+        for (int from = 0; from < EVENT_COUNT; from += CHUNK_SIZE) {
+            int chunkStart = from;
+            transactionTemplate.executeWithoutResult(status -> {
+                for (int i = chunkStart; i < chunkStart + CHUNK_SIZE; i++) {
+                    if (i % INCOMPLETE_EVERY != 0) {
+                        registry.markCompleted(new BenchmarkEvent(i), LISTENER);
+                    }
+                }
+            });
+            completed += CHUNK_SIZE - CHUNK_SIZE / INCOMPLETE_EVERY;
+        }
+        report("Completed", completed, started);
+        jdbcTemplate.execute("analyze event_publication, event_publication_archive");
+
+        started = System.nanoTime();
+        int incomplete = registry.findIncompletePublications().size();
+        report("Loaded incomplete", incomplete, started);
+
+        started = System.nanoTime();
+        EventPublicationMaintenance.IncompleteStats stats = maintenance.incompleteStats();
+        report("Computed backlog stats for", (int) stats.backlog(), started);
+
+        started = System.nanoTime();
+        int purged = maintenance.purgeCompleted(Duration.ZERO, 10_000);
+        report("Purged", purged, started);
+
+        assertThat(incomplete).isEqualTo(EVENT_COUNT / INCOMPLETE_EVERY);
+        assertThat(stats.backlog()).isEqualTo(EVENT_COUNT / INCOMPLETE_EVERY);
+        assertThat(purged).isEqualTo(completed);
+    }
+
+    private static void report(String action, int count, long startedNanos) {
+        double seconds = (System.nanoTime() - startedNanos) / 1e9;
+        System.out.printf("%s %d publications in %.2f s: %.0f/sec%n", action, count, seconds, count / seconds);
+    }
+
+    record BenchmarkEvent(long sequence) {
+    }
+}
@@ -0,0 +1,88 @@
+package microarch.delivery.infrastructure.out.postgres;
+
+import microarch.BasePostgresContainerTest;
+import microarch.delivery.domain.model.Id;
+import microarch.delivery.domain.model.order.Order;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.jdbc.JdbcTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static microarch.TestHelper.fullOrder;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Tag("benchmark")
+@JdbcTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OrderClaimBenchmarkTest extends BasePostgresContainerTest {
+
+    private static final int ORDER_COUNT = 20_000;
+    private static final int CLAIM_SIZE = 50;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    private OrderRepositoryJdbc orderRepository;
+
+    @BeforeEach
+    void setUp() {
+        orderRepository = new OrderRepositoryJdbc(jdbcTemplate.getDataSource());
+        List<Order> orders = new ArrayList<>();
+        for (int i = 0; i < ORDER_COUNT; i++) {
+            orders.add(fullOrder().id(Id.generate()).courierId(null).build());
+        }
+        orderRepository.saveAll(orders);
+        jdbcTemplate.execute("analyze orders");
+    }
+
+    @AfterEach
+    void tearDown() {
+        JdbcTestUtils.deleteFromTables(jdbcTemplate, "orders");
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 2, 4, 8})
+    void benchmark_ClaimThroughput(int threads) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        long started = System.nanoTime();
+        List<Future<Integer>> results = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            String owner = "node-" + t;
+            results.add(executor.submit(() -> {
+                int claimedCount = 0;
+                List<Order> claimed;
+                do {
+                    claimed = orderRepository.claimCreatedOrders(owner, CLAIM_SIZE, Duration.ofMinutes(1));
+                    claimedCount += claimed.size();
+                } while (!claimed.isEmpty());
+                return claimedCount;
+            }));
+        }
+        int total = 0;
+        for (Future<Integer> result : results) {
+            total += result.get(5, TimeUnit.MINUTES);
+        }
+        double seconds = (System.nanoTime() - started) / 1e9;
+        executor.shutdown();
+
+        System.out.printf("%d threads: claimed %d orders in %.2f s, %.0f orders/sec%n", threads, total, seconds, total / seconds);
+        assertThat(total).isEqualTo(ORDER_COUNT);
+    }
+}
@@ -0,0 +1,61 @@
+package microarch.delivery.infrastructure.out.postgres;
+
+import microarch.BasePostgresContainerTest;
+import microarch.delivery.domain.model.Id;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.jdbc.JdbcTestUtils;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@JdbcTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class OrderInboxJdbcTest extends BasePostgresContainerTest {
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    private OrderInboxJdbc orderInbox;
+
+    @BeforeEach
+    void setUp() {
+        orderInbox = new OrderInboxJdbc(jdbcTemplate.getDataSource());
+    }
+
+    @Test
+    void should_RegisterOnlyNewKeys() {
+        orderInbox.register(Map.of("a", Id.of(1L)));
+
+
+        assertThat(orderInbox.register(Map.of("a", Id.of(1L), "b", Id.of(2L)))).containsExactly("b");
+    }
+
+    @Test
+    void should_PurgeOnlyExpiredKeys_when_SpanningSeveralBatches() {
+        OffsetDateTime now = OffsetDateTime.now();
+        insert("old", 25, now.minusDays(8));
+        insert("recent", 3, now.minusHours(1));
+
+
+        int purged = orderInbox.purge(Duration.ofDays(7), 10);
+
+
+        assertThat(purged).isEqualTo(25);
+        assertThat(JdbcTestUtils.countRowsInTable(jdbcTemplate, "order_inbox")).isEqualTo(3);
+    }
+
+    private void insert(String prefix, int count, OffsetDateTime receivedAt) {
+        for (int i = 0; i < count; i++) {
+            jdbcTemplate.update("insert into order_inbox (message_key, order_id, received_at) values (?, ?, ?)",
+                    prefix + i, (long) i, receivedAt);
+        }
+    }
+}
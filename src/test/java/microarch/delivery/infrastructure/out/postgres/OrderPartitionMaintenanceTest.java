@@ -0,0 +1,126 @@
+package microarch.delivery.infrastructure.out.postgres;
+
+import microarch.BasePostgresContainerTest;
+import microarch.delivery.domain.model.Id;
+import microarch.delivery.domain.model.order.Order;
+import microarch.delivery.domain.model.order.OrderStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static microarch.TestHelper.fullOrder;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@JdbcTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class OrderPartitionMaintenanceTest extends BasePostgresContainerTest {
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    private OrderPartitionMaintenance maintenance;
+    private OrderRepositoryJdbc orderRepository;
+
+    @BeforeEach
+    void setUp() {
+        maintenance = new OrderPartitionMaintenance(jdbcTemplate.getDataSource());
+        orderRepository = new OrderRepositoryJdbc(jdbcTemplate.getDataSource());
+    }
+
+    @Test
+    void should_CreateOnlyMissingPartitions() {
+        YearMonth month = YearMonth.of(2099, 1);
+
+
+        List<String> created = maintenance.createPartitions(month, 2);
+        List<String> createdAgain = maintenance.createPartitions(month, 2);
+
+
+        assertThat(created).containsExactly("orders_completed_p209901", "orders_completed_p209902", "orders_completed_p209903");
+        assertThat(createdAgain).isEmpty();
+    }
+
+    @Test
+    void should_ArchiveCompletedPartitions_when_OlderThanCutoff() {
+        YearMonth oldMonth = YearMonth.of(2001, 3);
+        maintenance.createPartitions(oldMonth, 0);
+        Order oldOrder = fullOrder()
+                .id(Id.generate())
+                .courierId(null)
+                .status(OrderStatus.COMPLETED)
+                .createdAt(oldMonth.atDay(10).atStartOfDay().atOffset(ZoneOffset.UTC))
+                .build();
+        orderRepository.save(oldOrder);
+
+
+        List<String> archived = maintenance.archivePartitions(oldMonth.plusMonths(1));
+
+
+        assertThat(archived).containsExactly("orders_completed_p200103");
+        assertThat(orderRepository.findById(oldOrder.getId())).isNull();
+        assertThat(jdbcTemplate.queryForObject(
+                "select count(*) from orders_archive.orders_completed_p200103 where id = ?", Long.class, oldOrder.getId().id()))
+                .isEqualTo(1);
+    }
+
+    @Test
+    void should_ArchiveExpiredRowsOfDefaultPartition() {
+        Order expiredFirst = completedOrder(YearMonth.of(2003, 2));
+        Order expiredSecond = completedOrder(YearMonth.of(2003, 4));
+        Order retained = completedOrder(YearMonth.of(2003, 7));
+        orderRepository.saveAll(List.of(expiredFirst, expiredSecond, retained));
+        assertThat(partitionOf(expiredFirst)).isEqualTo("orders_completed_default");
+
+
+        int archived = maintenance.archiveDefaultPartition(YearMonth.of(2003, 6), 1);
+
+
+        assertThat(archived).isEqualTo(2);
+        assertThat(orderRepository.findById(expiredFirst.getId())).isNull();
+        assertThat(orderRepository.findById(expiredSecond.getId())).isNull();
+        assertThat(partitionOf(retained)).isEqualTo("orders_completed_default");
+        assertThat(maintenance.countDefaultPartitionRows()).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForList(
+                "select id from orders_archive.orders_completed_default order by created_at", Long.class))
+                .containsExactly(expiredFirst.getId().id(), expiredSecond.getId().id());
+        assertThat(jdbcTemplate.queryForObject(
+                "select count(*) from order_key where id in (?, ?)", Long.class,
+                expiredFirst.getId().id(), expiredSecond.getId().id()))
+                .isEqualTo(2);
+    }
+
+    @Test
+    void should_PlaceOrdersIntoStatusPartitions() {
+        Order createdOrder = fullOrder().id(Id.generate()).courierId(null).build();
+        Order completedOrder = fullOrder().id(Id.generate()).courierId(null).status(OrderStatus.COMPLETED).build();
+
+
+        orderRepository.saveAll(List.of(createdOrder, completedOrder));
+
+
+        assertThat(partitionOf(createdOrder)).isEqualTo("orders_active");
+        assertThat(partitionOf(completedOrder)).isEqualTo(OrderPartitionMaintenance.partitionName(
+                YearMonth.from(completedOrder.getCreatedAt().atZoneSameInstant(ZoneOffset.UTC))));
+    }
+
+    private static Order completedOrder(YearMonth createdIn) {
+        return fullOrder()
+                .id(Id.generate())
+                .courierId(null)
+                .status(OrderStatus.COMPLETED)
+                .createdAt(createdIn.atDay(10).atStartOfDay().atOffset(ZoneOffset.UTC))
+                .build();
+    }
+
+    private String partitionOf(Order order) {
+        return jdbcTemplate.queryForObject(
+                "select tableoid::regclass::text from orders where id = ?", String.class, order.getId().id());
+    }
+}
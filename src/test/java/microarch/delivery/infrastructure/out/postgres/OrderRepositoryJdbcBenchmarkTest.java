@@ -0,0 +1,66 @@
+package microarch.delivery.infrastructure.out.postgres;
+
+import microarch.BasePostgresContainerTest;
+import microarch.delivery.domain.model.order.Order;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.jdbc.JdbcTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static microarch.TestHelper.randomLocation;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Tag("benchmark")
+@JdbcTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class OrderRepositoryJdbcBenchmarkTest extends BasePostgresContainerTest {
+
+    private static final int ORDER_COUNT = 100_000;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    private OrderRepositoryJdbc orderRepository;
+
+    @BeforeEach
+    void setUp() {
+        orderRepository = new OrderRepositoryJdbc(jdbcTemplate.getDataSource());
+    }
+
+    @Test
+    void benchmark_SaveOneByOneVersusSaveAll() {
+        Random random = new Random(42);
+        List<Order> singleOrders = newOrders(random);
+        List<Order> batchedOrders = newOrders(random);
+
+        long started = System.nanoTime();
+        singleOrders.forEach(orderRepository::save);
+        long singleMs = (System.nanoTime() - started) / 1_000_000;
+
+        started = System.nanoTime();
+        orderRepository.saveAll(batchedOrders);
+        long batchedMs = (System.nanoTime() - started) / 1_000_000;
+
+        System.out.printf("Saved %d orders: one by one %d ms, saveAll %d ms (%.1fx)%n",
+                ORDER_COUNT, singleMs, batchedMs, (double) singleMs / Math.max(batchedMs, 1));
+
+        assertThat(JdbcTestUtils.countRowsInTable(jdbcTemplate, "orders")).isEqualTo(2 * ORDER_COUNT);
+        assertThat(batchedMs).isLessThan(singleMs);
+    }
+
+    private static List<Order> newOrders(Random random) {
+        List<Order> orders = new ArrayList<>();
+        for (int i = 0; i < ORDER_COUNT; i++) {
+            orders.add(Order.create(randomLocation(random), 1 + random.nextInt(30)));
+        }
+        return orders;
+    }
+}
@@ -1,7 +1,10 @@
 package microarch.delivery.infrastructure.out.postgres;
 
 import microarch.BasePostgresContainerTest;
+import microarch.delivery.application.OrderCursor;
+import microarch.delivery.application.VersionConflictException;
 import microarch.delivery.domain.model.Id;
+import microarch.delivery.domain.model.Location;
 import microarch.delivery.domain.model.order.Order;
 import microarch.delivery.domain.model.order.OrderStatus;
 import org.assertj.core.api.SoftAssertions;
@@ -10,16 +13,28 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.RowMapper;
+import org.springframework.test.jdbc.JdbcTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.time.OffsetDateTime;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static microarch.TestHelper.fullOrder;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.assertj.core.api.Assertions.within;
 
 @JdbcTest
@@ -64,6 +79,25 @@ class OrderRepositoryJdbcTest extends BasePostgresContainerTest {
         assertThat(logs).containsExactly(true);
     }
 
+    @Test
+    void should_WriteEventsToOutbox_when_SavingOrder() {
+        Order order = Order.create(Location.create(3, 4), 5);
+
+
+        orderRepositoryJdbc.save(order);
+
+
+        assertThat(order.getDomainEvents()).isEmpty();
+        assertThat(jdbcTemplate.queryForMap("""
+                select aggregate_type, aggregate_id, event_type, payload ->> 'volume' as volume
+                from outbox
+                where aggregate_id = ?
+                """, order.getId().id()))
+                .containsEntry("aggregate_type", "order")
+                .containsEntry("event_type", "OrderCreated")
+                .containsEntry("volume", "5");
+    }
+
     @Test
     void should_GetOrder() {
         Order order = fullOrder().courierId(null).build();
@@ -127,4 +161,200 @@ class OrderRepositoryJdbcTest extends BasePostgresContainerTest {
                 .withComparatorForType(Comparator.comparing(OffsetDateTime::toInstant), OffsetDateTime.class)
                 .isEqualTo(newOrder);
     }
-}
\ No newline at end of file
+
+    @Test
+    void should_StreamOrdersByStatus() {
+        Order createdOrder = fullOrder().id(Id.generate()).courierId(null).build();
+        Order completedOrder = fullOrder().id(Id.generate()).courierId(null).status(OrderStatus.COMPLETED).build();
+        orderRepositoryJdbc.saveAll(List.of(createdOrder, completedOrder));
+
+
+        List<Order> streamedOrders = new ArrayList<>();
+        orderRepositoryJdbc.forEachOrderByStatus(OrderStatus.CREATED, streamedOrders::add);
+
+
+        assertThat(streamedOrders).extracting(Order::getId).containsExactly(createdOrder.getId());
+    }
+
+    @Test
+    void should_PageOrdersByStatus_when_OrdersShareCreationTime() {
+        OffsetDateTime createdAt = OffsetDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        List<Order> orders = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            orders.add(fullOrder().id(Id.generate()).courierId(null).createdAt(createdAt).build());
+        }
+        orderRepositoryJdbc.saveAll(orders);
+
+
+        List<Order> firstPage = orderRepositoryJdbc.getOrdersByStatus(OrderStatus.CREATED, null, 2);
+        List<Order> secondPage = orderRepositoryJdbc.getOrdersByStatus(
+                OrderStatus.CREATED, OrderCursor.after(firstPage.get(1)), 2);
+        List<Order> lastPage = orderRepositoryJdbc.getOrdersByStatus(
+                OrderStatus.CREATED, OrderCursor.after(secondPage.get(1)), 2);
+
+
+        List<Id> pagedIds = new ArrayList<>();
+        firstPage.forEach(order -> pagedIds.add(order.getId()));
+        secondPage.forEach(order -> pagedIds.add(order.getId()));
+        lastPage.forEach(order -> pagedIds.add(order.getId()));
+        assertThat(lastPage).hasSize(1);
+        assertThat(pagedIds).containsExactlyElementsOf(orders.stream().map(Order::getId).sorted().toList());
+    }
+
+    @Test
+    void should_SaveAllOrders() {
+        List<Order> orders = List.of(
+                fullOrder().id(Id.generate()).courierId(null).build(),
+                fullOrder().id(Id.generate()).courierId(null).build());
+
+
+        orderRepositoryJdbc.saveAll(orders);
+
+
+        assertThat(orderRepositoryJdbc.getOrdersByStatus(OrderStatus.CREATED))
+                .extracting(Order::getId)
+                .containsExactlyInAnyOrderElementsOf(orders.stream().map(Order::getId).toList());
+    }
+
+    @Test
+    void should_RejectNewOrder_when_IdIsStoredInAnotherPartition() {
+        Order order = fullOrder().courierId(null).build();
+        orderRepositoryJdbc.save(order);
+        Order sameId = fullOrder().courierId(null).status(OrderStatus.COMPLETED).createdAt(order.getCreatedAt()).build();
+
+
+        assertThatThrownBy(() -> orderRepositoryJdbc.save(sameId)).isInstanceOf(DuplicateKeyException.class);
+    }
+
+    @Test
+    void should_RejectNewOrder_when_IdIsStoredWithAnotherCreationTime() {
+        Order order = fullOrder().courierId(null).build();
+        orderRepositoryJdbc.save(order);
+        Order sameId = fullOrder().courierId(null).createdAt(order.getCreatedAt().minusHours(1)).build();
+
+
+        assertThatThrownBy(() -> orderRepositoryJdbc.save(sameId)).isInstanceOf(DuplicateKeyException.class);
+    }
+
+    @Test
+    void should_NotSaveAllOrders_when_VersionIsOutdated() {
+        Order order = fullOrder().courierId(null).build();
+        orderRepositoryJdbc.save(order);
+        Order outdatedOrder = fullOrder().courierId(null).version(5).build();
+
+
+        assertThatThrownBy(() -> orderRepositoryJdbc.saveAll(List.of(outdatedOrder)))
+                .isInstanceOf(OptimisticLockingFailureException.class)
+                .hasMessageContaining(order.getId().toString());
+    }
+
+    @Test
+    void should_ReportOnlyOutdatedOrders_when_SavingAll() {
+        Order freshOrder = fullOrder().id(Id.generate()).courierId(null).build();
+        Order staleOrder = fullOrder().id(Id.generate()).courierId(null).build();
+        orderRepositoryJdbc.saveAll(List.of(freshOrder, staleOrder));
+        Order loadedFreshOrder = orderRepositoryJdbc.findById(freshOrder.getId());
+        Order outdatedOrder = fullOrder().id(staleOrder.getId()).courierId(null).version(5).build();
+        Order newOrder = fullOrder().id(Id.generate()).courierId(null).build();
+
+
+        assertThatThrownBy(() -> orderRepositoryJdbc.saveAll(List.of(loadedFreshOrder, outdatedOrder, newOrder)))
+                .isInstanceOfSatisfying(VersionConflictException.class, ex ->
+                        assertThat(ex.getConflictingIds()).containsExactly(staleOrder.getId()));
+    }
+
+    @Test
+    void should_GetCreatedOrdersOldestFirst() {
+        Order newestOrder = fullOrder().id(Id.generate()).courierId(null).build();
+        Order oldestOrder = fullOrder()
+                .id(Id.generate())
+                .courierId(null)
+                .createdAt(newestOrder.getCreatedAt().minusMinutes(2))
+                .build();
+        Order assignedOrder = fullOrder()
+                .id(Id.generate())
+                .courierId(null)
+                .status(OrderStatus.ASSIGNED)
+                .createdAt(newestOrder.getCreatedAt().minusMinutes(5))
+                .build();
+        orderRepositoryJdbc.saveAll(List.of(newestOrder, oldestOrder, assignedOrder));
+
+
+        List<Order> foundOrders = orderRepositoryJdbc.getCreatedOrders(1);
+
+
+        assertThat(foundOrders).extracting(Order::getId).containsExactly(oldestOrder.getId());
+    }
+
+    @Test
+    void should_ClaimCreatedOrders_and_SkipLeasedOrders() {
+        List<Order> orders = List.of(
+                fullOrder().id(Id.generate()).courierId(null).build(),
+                fullOrder().id(Id.generate()).courierId(null).build(),
+                fullOrder().id(Id.generate()).courierId(null).build());
+        orderRepositoryJdbc.saveAll(orders);
+
+
+        List<Order> firstClaim = orderRepositoryJdbc.claimCreatedOrders("node-1", 2, Duration.ofMinutes(1));
+        List<Order> secondClaim = orderRepositoryJdbc.claimCreatedOrders("node-2", 2, Duration.ofMinutes(1));
+
+
+        assertThat(firstClaim).hasSize(2);
+        assertThat(secondClaim).hasSize(1);
+        assertThat(secondClaim).extracting(Order::getId).doesNotContainAnyElementsOf(firstClaim.stream().map(Order::getId).toList());
+    }
+
+    @Test
+    void should_ClaimOrderAgain_when_LeaseExpired() {
+        Order order = fullOrder().courierId(null).build();
+        orderRepositoryJdbc.save(order);
+        orderRepositoryJdbc.claimCreatedOrders("node-1", 1, Duration.ZERO);
+        jdbcTemplate.update("update orders set lease_until = lease_until - interval '1 second'");
+
+
+        List<Order> claimed = orderRepositoryJdbc.claimCreatedOrders("node-2", 1, Duration.ofMinutes(1));
+
+
+        assertThat(claimed).extracting(Order::getId).containsExactly(order.getId());
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void should_ClaimDisjointOrders_when_ClaimingConcurrently() throws Exception {
+        int orderCount = 2_000;
+        int threads = 8;
+        List<Order> orders = new ArrayList<>();
+        for (int i = 0; i < orderCount; i++) {
+            orders.add(fullOrder().id(Id.generate()).courierId(null).build());
+        }
+        orderRepositoryJdbc.saveAll(orders);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<List<Id>>> results = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                String owner = "node-" + t;
+                results.add(executor.submit(() -> {
+                    List<Id> claimedIds = new ArrayList<>();
+                    List<Order> claimed;
+                    do {
+                        claimed = orderRepositoryJdbc.claimCreatedOrders(owner, 25, Duration.ofMinutes(1));
+                        claimed.forEach(order -> claimedIds.add(order.getId()));
+                    } while (!claimed.isEmpty());
+                    return claimedIds;
+                }));
+            }
+
+
+            List<Id> allClaimed = new ArrayList<>();
+            for (Future<List<Id>> result : results) {
+                allClaimed.addAll(result.get(1, TimeUnit.MINUTES));
+            }
+
+
+            assertThat(allClaimed).hasSize(orderCount).doesNotHaveDuplicates();
+        } finally {
+            executor.shutdownNow();
+            JdbcTestUtils.deleteFromTables(jdbcTemplate, "orders");
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package microarch.delivery.infrastructure.out.postgres;
+
+import microarch.BasePostgresContainerTest;
+import microarch.delivery.domain.model.order.OrderStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Tag("benchmark")
+@JdbcTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class OrderStreamingBenchmarkTest extends BasePostgresContainerTest {
+
+    private static final int ORDER_COUNT = 1_000_000;
+    private static final int SAMPLE_EVERY = 100_000;
+    private static final long MAX_HEAP_GROWTH_BYTES = 64L * 1024 * 1024;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    private OrderRepositoryJdbc orderRepository;
+
+    @BeforeEach
+    void setUp() {
+        orderRepository = new OrderRepositoryJdbc(jdbcTemplate.getDataSource(), 1000);
+        jdbcTemplate.update("""
+                insert into orders (id, volume, status, location_x, location_y, created_at, created_by, version)
+                select g, 1 + g % 30, 'COMPLETED', 1 + g % 10, 1 + (g / 10) % 10,
+                       now() - g * interval '1 second', 'benchmark', 1
+                from generate_series(1, ?) g
+                """, ORDER_COUNT);
+    }
+
+    @Test
+    void benchmark_StreamMillionOrdersWithFlatHeap() {
+        long baseline = usedHeap();
+        AtomicLong count = new AtomicLong();
+        AtomicLong maxGrowth = new AtomicLong();
+
+        long started = System.nanoTime();
+        orderRepository.forEachOrderByStatus(OrderStatus.COMPLETED, order -> {
+            if (count.incrementAndGet() % SAMPLE_EVERY == 0) {
+                maxGrowth.accumulateAndGet(usedHeap() - baseline, Math::max);
+            }
+        });
+        long elapsedMs = (System.nanoTime() - started) / 1_000_000;
+
+        System.out.printf("Streamed %d orders in %d ms, max heap growth %d KB%n",
+                count.get(), elapsedMs, maxGrowth.get() / 1024);
+
+        assertThat(count.get()).isEqualTo(ORDER_COUNT);
+        assertThat(maxGrowth.get()).isLessThan(MAX_HEAP_GROWTH_BYTES);
+    }
+
+    private static long usedHeap() {
+        System.gc();
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,233 @@
+package microarch.delivery.infrastructure.out.postgres;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import microarch.BasePostgresContainerTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.sql.Types;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs {@code EXPLAIN (ANALYZE, FORMAT JSON)} for every hot repository query over a seeded dataset that
+ * mirrors production: one order in a thousand waits for dispatch, one in a hundred is carried by its own
+ * courier and the rest were completed during the last month. The planner runs with default settings, so
+ * a query only passes if the planner prefers an index at this selectivity. Queries that read a large
+ * share of a table list the relations they are expected to scan sequentially.
+ */
+@JdbcTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class QueryPlanTest extends BasePostgresContainerTest {
+
+    private static final int COURIER_COUNT = 20_000;
+    private static final int ORDER_COUNT = 50_000;
+    private static final int BUSY_COURIER_COUNT = ORDER_COUNT / 100;
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        namedParameterJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        jdbcTemplate.update("""
+                insert into courier (id, name, speed, location_x, location_y, created_at, created_by, version)
+                select g, 'courier-' || g, 1 + g % 3, 1 + g % 10, 1 + (g / 10) % 10, now(), 'plan', 1
+                from generate_series(1, ?) g
+                """, COURIER_COUNT);
+        jdbcTemplate.update("""
+                insert into orders (id, volume, status, location_x, location_y, courier_id, created_at, created_by, version)
+                select g, 1 + g % 30,
+                       case when g % 1000 = 0 then 'CREATED' when g % 100 = 1 then 'ASSIGNED' else 'COMPLETED' end,
+                       1 + g % 10, 1 + (g / 10) % 10,
+                       case when g % 1000 = 0 then null when g % 100 = 1 then 1 + g / 100 else 1 + g % ? end,
+                       now() - (? - g) * interval '50 seconds', 'plan', 1
+                from generate_series(1, ?) g
+                """, COURIER_COUNT, ORDER_COUNT, ORDER_COUNT);
+        jdbcTemplate.update("""
+                insert into storage_place (id, courier_id, place_type, order_id)
+                select g, g, 'BACKPACK', case when g <= ? then (g - 1) * 100 + 1 end
+                from generate_series(1, ?) g
+                """, BUSY_COURIER_COUNT, COURIER_COUNT);
+        jdbcTemplate.execute("analyze courier");
+        jdbcTemplate.execute("analyze orders");
+        jdbcTemplate.execute("analyze order_key");
+        jdbcTemplate.execute("analyze storage_place");
+    }
+
+    static Stream<Arguments> hotQueries() {
+        MapSqlParameterSource orderParams = new MapSqlParameterSource()
+                .addValue("id", 500L, Types.BIGINT)
+                .addValue("volume", 10, Types.INTEGER)
+                .addValue("status", "ASSIGNED", Types.VARCHAR)
+                .addValue("locationX", 1, Types.INTEGER)
+                .addValue("locationY", 1, Types.INTEGER)
+                .addValue("courierId", 1L, Types.BIGINT)
+                .addValue("createdAt", OffsetDateTime.now(), Types.TIMESTAMP_WITH_TIMEZONE)
+                .addValue("modifiedAt", OffsetDateTime.now(), Types.TIMESTAMP_WITH_TIMEZONE)
+                .addValue("modifiedBy", "plan", Types.VARCHAR)
+                .addValue("version", 2L, Types.BIGINT)
+                .addValue("expectedVersion", 1L, Types.BIGINT);
+        MapSqlParameterSource courierParams = new MapSqlParameterSource()
+                .addValue("id", 5L, Types.BIGINT)
+                .addValue("name", "courier-5", Types.VARCHAR)
+                .addValue("speed", 2, Types.INTEGER)
+                .addValue("locationX", null, Types.INTEGER)
+                .addValue("locationY", null, Types.INTEGER)
+                .addValue("modifiedAt", OffsetDateTime.now(), Types.TIMESTAMP_WITH_TIMEZONE)
+                .addValue("modifiedBy", "plan", Types.VARCHAR)
+                .addValue("version", 2L, Types.BIGINT)
+                .addValue("expectedVersion", 1L, Types.BIGINT);
+
+        return Stream.of(
+                Arguments.of("order findById", OrderRepositoryJdbc.FIND_BY_ID_SQL,
+                        new MapSqlParameterSource("orderId", 500L),
+                        Set.of()),
+                Arguments.of("getNewCreatedOrder", OrderRepositoryJdbc.NEW_CREATED_ORDER_SQL,
+                        new MapSqlParameterSource(),
+                        Set.of()),
+                Arguments.of("getCreatedOrders", OrderRepositoryJdbc.CREATED_ORDERS_SQL,
+                        new MapSqlParameterSource("limit", 100),
+                        Set.of()),
+                // the claimed ids are joined back to the small active partition, hashing it is as cheap as probing
+                Arguments.of("claimCreatedOrders", OrderRepositoryJdbc.CLAIM_CREATED_ORDERS_SQL,
+                        new MapSqlParameterSource()
+                                .addValue("owner", "plan", Types.VARCHAR)
+                                .addValue("leaseMillis", 60_000L, Types.BIGINT)
+                                .addValue("limit", 100, Types.INTEGER)
+                                .addValue("minX", 1, Types.INTEGER)
+                                .addValue("maxX", 5, Types.INTEGER)
+                                .addValue("minY", 1, Types.INTEGER)
+                                .addValue("maxY", 10, Types.INTEGER),
+                        Set.of("orders_active")),
+                Arguments.of("countCreatedOrders", OrderRepositoryJdbc.COUNT_CREATED_ORDERS_SQL,
+                        new MapSqlParameterSource(),
+                        Set.of()),
+                // every ASSIGNED order is read, which is nearly the whole active partition
+                Arguments.of("getOrdersByStatus", OrderRepositoryJdbc.ORDERS_BY_STATUS_SQL,
+                        new MapSqlParameterSource("status", "ASSIGNED"),
+                        Set.of("orders_active")),
+                Arguments.of("getOrdersByStatus first page", OrderRepositoryJdbc.ORDERS_BY_STATUS_FIRST_PAGE_SQL,
+                        new MapSqlParameterSource()
+                                .addValue("status", "COMPLETED", Types.VARCHAR)
+                                .addValue("limit", 50, Types.INTEGER),
+                        Set.of()),
+                Arguments.of("getOrdersByStatus next page", OrderRepositoryJdbc.ORDERS_BY_STATUS_NEXT_PAGE_SQL,
+                        new MapSqlParameterSource()
+                                .addValue("status", "COMPLETED", Types.VARCHAR)
+                                .addValue("createdAt", OffsetDateTime.now().minusDays(1), Types.TIMESTAMP_WITH_TIMEZONE)
+                                .addValue("id", 1L, Types.BIGINT)
+                                .addValue("limit", 50, Types.INTEGER),
+                        Set.of()),
+                Arguments.of("order update", OrderRepositoryJdbc.UPDATE_SQL, orderParams,
+                        Set.of()),
+                Arguments.of("courier findById", CourierRepositoryJdbc.FIND_BY_ID_SQL,
+                        new MapSqlParameterSource("courierId", 5L),
+                        Set.of()),
+                // nearly every courier is free
+                Arguments.of("getFreeCouriers", CourierRepositoryJdbc.FREE_COURIERS_SQL,
+                        new MapSqlParameterSource(),
+                        Set.of("courier", "storage_place")),
+                // half of the free couriers are in the zone
+                Arguments.of("getFreeCouriers in zone", CourierRepositoryJdbc.FREE_COURIERS_IN_ZONE_SQL,
+                        new MapSqlParameterSource()
+                                .addValue("minX", 1, Types.INTEGER)
+                                .addValue("maxX", 5, Types.INTEGER)
+                                .addValue("minY", 1, Types.INTEGER)
+                                .addValue("maxY", 10, Types.INTEGER),
+                        Set.of("courier", "storage_place")),
+                // busy couriers are spread over every page, one pass beats an index probe per courier
+                Arguments.of("getBusyCouriers", CourierRepositoryJdbc.BUSY_COURIERS_SQL,
+                        new MapSqlParameterSource(),
+                        Set.of("courier", "storage_place")),
+                Arguments.of("getCouriers", CourierRepositoryJdbc.COURIERS_PAGE_SQL,
+                        new MapSqlParameterSource()
+                                .addValue("after", 5L, Types.BIGINT)
+                                .addValue("limit", 50, Types.INTEGER),
+                        Set.of()),
+                Arguments.of("courier update", CourierRepositoryJdbc.UPDATE_SQL, courierParams,
+                        Set.of()),
+                Arguments.of("storage place update", CourierRepositoryJdbc.UPDATE_STORAGE_PLACE_SQL,
+                        new MapSqlParameterSource()
+                                .addValue("id", 5L, Types.BIGINT)
+                                .addValue("courierId", 5L, Types.BIGINT)
+                                .addValue("orderId", null, Types.BIGINT),
+                        Set.of()));
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("hotQueries")
+    void should_UseIndexes_when_RunningHotQuery(String name, String sql, MapSqlParameterSource params,
+                                                Set<String> expectedSeqScans) throws Exception {
+        String plan = namedParameterJdbcTemplate.queryForObject(
+                "explain (analyze, format json) " + sql, params, String.class);
+
+
+        List<String> seqScans = new ArrayList<>();
+        collectSeqScans(objectMapper.readTree(plan).get(0).get("Plan"), seqScans);
+
+
+        assertThat(seqScans).as("sequential scans in plan of %s:%n%s", name, plan).isSubsetOf(expectedSeqScans);
+    }
+
+    @Test
+    void should_ProbeActivePartitionAndOneMonth_when_FindingOrderById() throws Exception {
+        Integer completedPartitions = jdbcTemplate.queryForObject(
+                "select count(*) from pg_inherits where inhparent = 'orders_completed'::regclass", Integer.class);
+        String plan = namedParameterJdbcTemplate.queryForObject(
+                "explain (analyze, format json) " + OrderRepositoryJdbc.FIND_BY_ID_SQL,
+                new MapSqlParameterSource("orderId", 502L), String.class);
+
+
+        List<String> scannedPartitions = new ArrayList<>();
+        collectExecutedScans(objectMapper.readTree(plan).get(0).get("Plan"), scannedPartitions);
+
+
+        assertThat(completedPartitions).isGreaterThan(2);
+        assertThat(scannedPartitions).as("partitions scanned by order findById:%n%s", plan)
+                .filteredOn(relation -> relation.startsWith("orders_"))
+                .hasSizeLessThanOrEqualTo(2);
+    }
+
+    private static void collectExecutedScans(JsonNode node, List<String> relations) {
+        if (node.has("Relation Name") && node.path("Actual Loops").asLong() > 0) {
+            relations.add(node.path("Relation Name").asText());
+        }
+        for (JsonNode child : node.path("Plans")) {
+            collectExecutedScans(child, relations);
+        }
+    }
+
+    /**
+     * Collects sequential scans that read rows; scanning an empty partition costs nothing.
+     */
+    private static void collectSeqScans(JsonNode node, List<String> seqScans) {
+        if ("Seq Scan".equals(node.path("Node Type").asText())
+                && node.path("Actual Loops").asLong() > 0
+                && node.path("Actual Rows").asDouble() + node.path("Rows Removed by Filter").asDouble() > 0) {
+            seqScans.add(node.path("Relation Name").asText());
+        }
+        for (JsonNode child : node.path("Plans")) {
+            collectSeqScans(child, seqScans);
+        }
+    }
+}
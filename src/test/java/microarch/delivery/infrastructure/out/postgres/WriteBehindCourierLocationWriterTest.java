@@ -0,0 +1,148 @@
+package microarch.delivery.infrastructure.out.postgres;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import microarch.BasePostgresContainerTest;
+import microarch.delivery.domain.model.Id;
+import microarch.delivery.domain.model.Location;
+import microarch.delivery.domain.model.courier.Courier;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.jdbc.JdbcTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+
+@JdbcTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class WriteBehindCourierLocationWriterTest extends BasePostgresContainerTest {
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    private final List<Id> flushedIds = new CopyOnWriteArrayList<>();
+    private CourierRepositoryJdbc courierRepository;
+
+    @BeforeEach
+    void setUp() {
+        courierRepository = new CourierRepositoryJdbc(jdbcTemplate.getDataSource());
+    }
+
+    @AfterEach
+    void tearDown() {
+        JdbcTestUtils.deleteFromTables(jdbcTemplate, "storage_place", "courier");
+    }
+
+    @Test
+    void should_WriteOnlyLatestLocation_and_KeepVersion() {
+        Courier courier = Courier.create("John", 2, Location.create(1, 1));
+        courierRepository.save(courier);
+        WriteBehindCourierLocationWriter writer = writer(Duration.ofHours(1), 100);
+
+
+        writer.updateLocation(courier.getId(), Location.create(2, 2));
+        writer.updateLocation(courier.getId(), Location.create(3, 3));
+        writer.flush();
+
+
+        Courier found = courierRepository.findById(courier.getId());
+        assertThat(found.getLocation()).isEqualTo(Location.create(3, 3));
+        assertThat(found.getVersion()).isEqualTo(1);
+        assertThat(flushedIds).containsExactly(courier.getId());
+    }
+
+    @Test
+    void should_FlushPeriodically() {
+        Courier courier = Courier.create("John", 2, Location.create(1, 1));
+        courierRepository.save(courier);
+        WriteBehindCourierLocationWriter writer = writer(Duration.ofMillis(50), 100);
+        writer.start();
+        try {
+            writer.updateLocation(courier.getId(), Location.create(4, 4));
+
+
+            await().atMost(Duration.ofSeconds(5)).untilAsserted(() ->
+                    assertThat(courierRepository.findById(courier.getId()).getLocation()).isEqualTo(Location.create(4, 4)));
+        } finally {
+            writer.stop();
+        }
+    }
+
+    @Test
+    void should_FlushOnCallerThread_when_BufferIsFull() {
+        List<Courier> couriers = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            couriers.add(Courier.create("courier-" + i, 2, Location.create(1, 1)));
+        }
+        courierRepository.saveAll(couriers);
+        WriteBehindCourierLocationWriter writer = writer(Duration.ofHours(1), 2);
+
+
+        couriers.forEach(courier -> writer.updateLocation(courier.getId(), Location.create(5, 5)));
+
+
+        assertThat(flushedIds).containsExactlyInAnyOrder(couriers.get(0).getId(), couriers.get(1).getId());
+    }
+
+    @Test
+    void should_FlushPendingLocations_when_Stopped() {
+        Courier courier = Courier.create("John", 2, Location.create(1, 1));
+        courierRepository.save(courier);
+        WriteBehindCourierLocationWriter writer = writer(Duration.ofHours(1), 100);
+        writer.start();
+        writer.updateLocation(courier.getId(), Location.create(6, 6));
+
+
+        writer.stop();
+
+
+        assertThat(courierRepository.findById(courier.getId()).getLocation()).isEqualTo(Location.create(6, 6));
+    }
+
+    @Test
+    void should_WriteLargestBatchInOneStatement() {
+        int batchSize = WriteBehindCourierLocationWriter.MAX_BATCH_SIZE;
+        WriteBehindCourierLocationWriter writer = writer(Duration.ofHours(1), batchSize, batchSize);
+        for (long id = 1; id <= batchSize; id++) {
+            writer.updateLocation(Id.of(id), Location.create(7, 7));
+        }
+
+
+        writer.flush();
+
+
+        assertThat(flushedIds).hasSize(batchSize);
+    }
+
+    @Test
+    void should_RejectBatchSize_when_StatementWouldExceedBindParameterLimit() {
+        int batchSize = WriteBehindCourierLocationWriter.MAX_BATCH_SIZE + 1;
+
+
+        assertThatThrownBy(() -> writer(Duration.ofHours(1), batchSize, batchSize))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private WriteBehindCourierLocationWriter writer(Duration flushInterval, int maxPending) {
+        return writer(flushInterval, maxPending, 500);
+    }
+
+    private WriteBehindCourierLocationWriter writer(Duration flushInterval, int maxPending, int batchSize) {
+        return new WriteBehindCourierLocationWriter(jdbcTemplate.getDataSource(), new SimpleMeterRegistry(),
+                flushInterval, maxPending, batchSize, (Collection<Id> ids) -> flushedIds.addAll(ids));
+    }
+}